@@ -0,0 +1,51 @@
+package com.superinka.gestionactivos;
+
+import com.superinka.gestionactivos.carga.ConversorMonto;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversión de celdas de monto tal como vienen en el export: MoneyConverter (String, usado
+ * por OpenCSV) contra ConversorMonto (directo desde el buffer del parser).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyConverterBenchmark {
+
+    private static final String[] CELDAS = {
+            " 12,345.67 ", "S/ 1,234.56", "S/ 250,000.00", "-", " - ", "", "10%", "33.33", "0",
+            "1500.00", " 98,765,432.10 ", "5", "12.5%", "S/ 0.00", "7,500", "abc"
+    };
+
+    private char[][] buffers;
+
+    @Setup
+    public void preparar() {
+        buffers = new char[CELDAS.length][];
+        for (int i = 0; i < CELDAS.length; i++) {
+            buffers[i] = CELDAS[i].toCharArray();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(16)
+    public void moneyConverter(Blackhole bh) {
+        for (String celda : CELDAS) {
+            bh.consume(MoneyConverter.aMonto(celda));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(16)
+    public void conversorMonto(Blackhole bh) {
+        for (char[] celda : buffers) {
+            bh.consume(ConversorMonto.convertir(celda, 0, celda.length));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.superinka.gestionactivos.carga;
+
+import com.superinka.gestionactivos.dto.ProyeccionActivo;
+import com.superinka.gestionactivos.dto.ProyeccionSnapshot;
+import com.superinka.gestionactivos.entity.Activo;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cartera sintética ya cargada para los benchmarks de cálculo: se parsea el CSV generado y
+ * cada activo se convierte en la proyección que devolvería la BD (montos a escala 2, como
+ * las columnas numeric(38,2), e id correlativo).
+ */
+public final class DatosBenchmark {
+
+    private DatosBenchmark() {
+    }
+
+    public static List<ProyeccionSnapshot> cartera(int filas) throws IOException {
+        List<ProyeccionSnapshot> cartera = new ArrayList<>(filas);
+        try (Reader lector = Files.newBufferedReader(GeneradorCsvSintetico.archivo(filas), StandardCharsets.UTF_8)) {
+            ParserCsvActivos.parsearArchivo(lector, a -> cartera.add(proyeccion(cartera.size() + 1L, a)));
+        }
+        return cartera;
+    }
+
+    public static List<ProyeccionActivo> proyecciones(List<ProyeccionSnapshot> cartera) {
+        List<ProyeccionActivo> proyecciones = new ArrayList<>(cartera.size());
+        cartera.forEach(f -> proyecciones.add(f.activo()));
+        return proyecciones;
+    }
+
+    private static ProyeccionSnapshot proyeccion(long id, Activo a) {
+        return new ProyeccionSnapshot(id, a.getCodigo(), a.getDescripcion(), a.getCeco(),
+                columna(a.getValorHistorico()), columna(a.getPorcentajeDepreciacion()), columna(a.getDepreciacionAcumuladaInicio()),
+                columna(a.getEne25()), columna(a.getFeb25()), columna(a.getMar25()), columna(a.getAbr25()),
+                columna(a.getMay25()), columna(a.getJun25()), columna(a.getJul25()), columna(a.getAgo25()),
+                columna(a.getSet25()), columna(a.getOct25()), columna(a.getNov25()), columna(a.getDic25()),
+                a.getCuentaContable(), a.getCtaGastoDepre(), a.getCluster());
+    }
+
+    // Lo que devuelve PostgreSQL para numeric(38,2)
+    private static BigDecimal columna(BigDecimal valor) {
+        return valor != null ? valor.setScale(2, RoundingMode.HALF_UP) : null;
+    }
+}
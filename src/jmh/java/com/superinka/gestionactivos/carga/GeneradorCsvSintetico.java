@@ -0,0 +1,153 @@
+package com.superinka.gestionactivos.carga;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Genera archivos con la forma de Depreciacion.csv (misma cabecera que PruebaLimite.csv, separador ";")
+ * para los benchmarks: montos con miles, "S/", "%" y guiones, códigos entre comillas y alguna
+ * descripción partida en varias líneas, como en el export real.
+ *
+ * Uso: mvn -Pjmh test-compile exec:exec@generar-csv  (10k, 100k y 1M filas en target/jmh-datos)
+ */
+public final class GeneradorCsvSintetico {
+
+    public static final Path DIRECTORIO = Paths.get("target", "jmh-datos");
+    public static final int[] TAMANIOS = {10_000, 100_000, 1_000_000};
+
+    private static final String[] CECOS = {"ADM01", "ADM02", "OPE01", "OPE02", "OPE03", "VTA01", "VTA02", "LOG01", "TI001", "RRHH1"};
+    private static final String[] CUENTAS = {"3311", "3321", "3331", "3341", "3351", "3361", "3371", "3381"};
+    private static final String[] CTAS_GASTO = {"6811", "6812", "6813", "6814"};
+    private static final String[] CLUSTERS = {"NORTE", "SUR", "CENTRO", "LIMA", "ORIENTE"};
+    private static final String[] TASAS = {"10", "20", "25", "33.33", "5", "12.5"};
+    private static final int COLUMNAS = 53;
+
+    private GeneradorCsvSintetico() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directorio = args.length > 0 ? Paths.get(args[0]) : DIRECTORIO;
+        for (int filas : TAMANIOS) {
+            Path archivo = generar(directorio, filas);
+            System.out.println("Generado " + archivo + " (" + Files.size(archivo) / 1_048_576 + " MB)");
+        }
+    }
+
+    /** Devuelve el archivo de {@code filas} filas en el directorio, generándolo si no existe. */
+    public static Path archivo(int filas) {
+        try {
+            return generar(DIRECTORIO, filas);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static Path generar(Path directorio, int filas) throws IOException {
+        Path destino = directorio.resolve("Depreciacion-" + filas + ".csv");
+        if (Files.exists(destino)) return destino;
+
+        Files.createDirectories(directorio);
+        Path temporal = directorio.resolve(destino.getFileName() + ".tmp");
+        Random random = new Random(filas); // mismo archivo en cada corrida
+        try (BufferedWriter salida = Files.newBufferedWriter(temporal, StandardCharsets.UTF_8)) {
+            salida.write(cabecera());
+            salida.write('\n');
+            String[] celdas = new String[COLUMNAS];
+            for (int fila = 1; fila <= filas; fila++) {
+                llenarFila(random, fila, celdas);
+                salida.write(String.join(";", celdas));
+                salida.write(random.nextInt(10) == 0 ? "\r\n" : "\n");
+            }
+        }
+        Files.move(temporal, destino);
+        return destino;
+    }
+
+    private static String cabecera() throws IOException {
+        try (InputStream in = GeneradorCsvSintetico.class.getResourceAsStream("/PruebaLimite.csv");
+             BufferedReader lector = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return lector.readLine();
+        }
+    }
+
+    private static void llenarFila(Random random, int fila, String[] c) {
+        long vh = 50_000 + (long) (random.nextDouble() * 5_000_000_00L); // centavos
+        String tasa = TASAS[random.nextInt(TASAS.length)];
+        long inicio = switch (random.nextInt(5)) {
+            case 0 -> vh;                                        // ya depreciado
+            case 1 -> vh - random.nextInt(50_000);               // se agota en el año
+            default -> (long) (random.nextDouble() * vh * 0.8);
+        };
+
+        c[0] = random.nextInt(50) == 0 ? "\"" + fila + "\"" : String.valueOf(fila);
+        c[1] = random.nextInt(20) == 0 ? "\"AF-" + fila + "\"" : "AF-" + fila;
+        c[2] = CUENTAS[random.nextInt(CUENTAS.length)];
+        c[3] = "Maquinaria y equipo";
+        c[4] = "Depreciación maquinaria";
+        c[5] = "1" + c[2];
+        c[6] = "Activo fijo";
+        c[7] = "39" + c[2].substring(2);
+        c[8] = CTAS_GASTO[random.nextInt(CTAS_GASTO.length)];
+        c[9] = "Depreciación del periodo";
+        c[10] = CECOS[random.nextInt(CECOS.length)];
+        c[11] = random.nextBoolean() ? c[10] : "";
+        c[12] = "OC-" + random.nextInt(100_000);
+        c[13] = "F001-" + random.nextInt(1_000_000);
+        c[14] = CLUSTERS[random.nextInt(CLUSTERS.length)];
+        c[15] = "05";
+        c[16] = String.valueOf(random.nextInt(1_000_000));
+        // Algunas descripciones vienen con saltos de línea (filas de continuación)
+        c[17] = random.nextInt(100) == 0
+                ? "\"EQUIPO " + fila + "\nCON DETALLE ADICIONAL\"" : "EQUIPO DE PRUEBA " + fila;
+        c[18] = "MARCA " + random.nextInt(50);
+        c[19] = "MOD-" + random.nextInt(500);
+        c[20] = "SN" + Long.toHexString(random.nextLong());
+        c[21] = monto(random, vh);
+        c[22] = "-";
+        c[23] = random.nextInt(10) == 0 ? monto(random, vh / 10) : " - ";
+        c[24] = "-";
+        c[25] = "";
+        c[26] = monto(random, vh);
+        c[27] = "0";
+        c[28] = monto(random, vh);
+        c[29] = "01/" + (1 + random.nextInt(12)) + "/" + (2010 + random.nextInt(15));
+        c[30] = c[29];
+        c[31] = c[29];
+        c[32] = "LINEA RECTA";
+        c[33] = "";
+        c[34] = tasa;
+        c[35] = tasa + "%";
+        c[36] = String.valueOf(Math.round(100 / Double.parseDouble(tasa)));
+        c[37] = monto(random, inicio);
+        for (int m = 0; m < 12; m++) {
+            c[38 + m] = random.nextInt(3) == 0 ? "-" : monto(random, vh / 120);
+        }
+        c[50] = "";
+        c[51] = "";
+        c[52] = "";
+    }
+
+    // Centavos con el formato del export: " 1,234.56 ", "S/ 1,234.56" o sin separador de miles
+    private static String monto(Random random, long centavos) {
+        BigDecimal valor = BigDecimal.valueOf(centavos, 2);
+        switch (random.nextInt(4)) {
+            case 0:
+                return String.format(Locale.ROOT, " %,.2f ", valor);
+            case 1:
+                return String.format(Locale.ROOT, "S/ %,.2f", valor);
+            default:
+                return valor.toPlainString();
+        }
+    }
+}
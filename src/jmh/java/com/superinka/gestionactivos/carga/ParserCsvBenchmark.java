@@ -0,0 +1,38 @@
+package com.superinka.gestionactivos.carga;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unión de líneas de continuación + parseo + conversión de montos (lo que hace CargaInicial
+ * antes de escribir en la BD), sobre el archivo ya en memoria para no medir el disco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserCsvBenchmark {
+
+    @Param({"10000", "100000"})
+    private int filas;
+
+    private String contenido;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        contenido = Files.readString(GeneradorCsvSintetico.archivo(filas), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public ParserCsvActivos.Resultado parsearArchivo(Blackhole bh) throws IOException {
+        return ParserCsvActivos.parsearArchivo(new StringReader(contenido), bh::consume);
+    }
+}
@@ -0,0 +1,40 @@
+package com.superinka.gestionactivos.carga;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parseo por rangos del archivo mapeado en memoria, según la cantidad de hilos. Con hilos=1
+ * se compara contra ParserCsvBenchmark (secuencial); el destino es un Blackhole, así que mide
+ * el techo del parser sin la BD.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserCsvParaleloBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int filas;
+
+    @Param({"1", "2", "4", "8"})
+    private int hilos;
+
+    private Path archivo;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        archivo = GeneradorCsvSintetico.archivo(filas);
+    }
+
+    @Benchmark
+    public ParserCsvActivos.Resultado parsearArchivo(Blackhole bh) throws IOException {
+        return ParserCsvParalelo.parsearArchivo(archivo, hilos, bh::consume);
+    }
+}
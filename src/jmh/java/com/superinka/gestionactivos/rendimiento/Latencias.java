@@ -0,0 +1,59 @@
+package com.superinka.gestionactivos.rendimiento;
+
+import java.util.Arrays;
+
+/**
+ * Latencias (microsegundos) y errores de una operación. Cada usuario virtual tiene las suyas
+ * (sin sincronizar) y al final se suman. Los percentiles salen de ordenar todas las muestras:
+ * con unos cientos de miles de peticiones por corrida no hace falta un histograma.
+ */
+final class Latencias {
+
+    private long[] micros = new long[1024];
+    private int cantidad;
+    private long errores;
+    private boolean ordenadas;
+
+    void registrar(long nanos) {
+        if (cantidad == micros.length) micros = Arrays.copyOf(micros, cantidad * 2);
+        micros[cantidad++] = nanos / 1000;
+        ordenadas = false;
+    }
+
+    void error() {
+        errores++;
+    }
+
+    void sumar(Latencias otras) {
+        if (cantidad + otras.cantidad > micros.length) {
+            micros = Arrays.copyOf(micros, Math.max(micros.length * 2, cantidad + otras.cantidad));
+        }
+        System.arraycopy(otras.micros, 0, micros, cantidad, otras.cantidad);
+        cantidad += otras.cantidad;
+        errores += otras.errores;
+        ordenadas = false;
+    }
+
+    int cantidad() {
+        return cantidad;
+    }
+
+    long errores() {
+        return errores;
+    }
+
+    /** Percentil (0-100) en milisegundos, por el método del rango más cercano; NaN sin muestras. */
+    double percentil(double p) {
+        if (cantidad == 0) return Double.NaN;
+        if (!ordenadas) {
+            Arrays.sort(micros, 0, cantidad);
+            ordenadas = true;
+        }
+        int rango = (int) Math.ceil(p / 100.0 * cantidad);
+        return micros[Math.max(0, Math.min(cantidad, rango) - 1)] / 1000.0;
+    }
+
+    double maximo() {
+        return percentil(100);
+    }
+}
@@ -0,0 +1,358 @@
+package com.superinka.gestionactivos.rendimiento;
+
+import com.superinka.gestionactivos.carga.GeneradorCsvSintetico;
+import tools.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+/**
+ * Prueba de carga de la API: levanta la aplicación en otra JVM contra H2 en modo PostgreSQL
+ * (o la BD de --url) con el CSV sintético de los benchmarks, y la golpea con N usuarios
+ * concurrentes que mezclan listado, cálculo por mes, filtros, páginas, totales y búsqueda.
+ *
+ * Reporta por operación peticiones, errores, req/s y latencias p50/p95/p99/máx (medidas en el
+ * cliente, hasta recibir el cuerpo completo), y del servidor (sus métricas de actuator, antes y
+ * después de la medición): asignación en MB/s, pausas de GC, espera y timeouts del pool JDBC,
+ * hilos vivos y CPU. Cada corrida agrega sus filas a target/prueba-carga/resultados.csv para
+ * comparar modos (por ejemplo --hilos=plataforma contra --hilos=virtuales).
+ *
+ *   mvn -Pjmh test-compile exec:exec@prueba-carga
+ *   mvn -Pjmh test-compile exec:exec@prueba-carga -Dprueba.args="usuarios=50 segundos=120 filas=100000"
+ *   mvn -Pjmh test-compile exec:exec@prueba-carga -Dprueba.args="hilos=virtuales java=/opt/jdk-21/bin/java"
+ *
+ * Opciones (clave=valor o --clave=valor): filas (20000), usuarios (50), calentamiento (20 s), segundos (60),
+ * hilos (plataforma | virtuales), heap del servidor (350m como en el Dockerfile; 768m con H2 en
+ * memoria, que vive en ese heap), java del servidor, jvm (flags extra del servidor separados por
+ * espacio), url (JDBC; por defecto H2), gzip (true), pausa-ms entre peticiones de un usuario (0)
+ * y mezcla (operacion:peso,...). Los hilos virtuales necesitan un servidor con Java 21 o superior.
+ */
+public final class PruebaCarga {
+
+    private static final Path DIRECTORIO = Paths.get("target", "prueba-carga");
+    private static final String[] PALABRAS = {"equipo", "prueba", "marca", "mod"};
+    // Operación -> peso por defecto (cierre de mes: sobre todo cálculo por mes, filtros y páginas)
+    private static final String MEZCLA = "listado:2,calcular:4,calcular-ceco:3,pagina:4,totales:3,buscar:3,columnar:1";
+
+    record Opciones(int filas, int usuarios, int calentamiento, int segundos, boolean virtuales, String heap,
+                    String java, List<String> jvm, String url, boolean gzip, int pausaMs, String mezcla) {
+    }
+
+    private record Operacion(String nombre, int peso, BiFunction<Random, List<String>, String> ruta) {
+    }
+
+    private PruebaCarga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Opciones opciones = opciones(args);
+        List<Operacion> mezcla = mezcla(opciones.mezcla(), opciones.filas());
+
+        int version = ServidorPrueba.versionJava(opciones.java());
+        // En Java 17 Spring ignora spring.threads.virtual.enabled: la comparación no tendría sentido
+        if (opciones.virtuales() && version < 21) {
+            throw new IllegalStateException("hilos=virtuales necesita que el servidor corra con Java 21 o superior "
+                    + "(este es Java " + version + "); indique uno con java=/ruta/al/jdk-21/bin/java");
+        }
+
+        System.out.println("📄 Generando CSV sintético de " + opciones.filas() + " filas...");
+        Path csv = GeneradorCsvSintetico.generar(GeneradorCsvSintetico.DIRECTORIO, opciones.filas()).toAbsolutePath();
+        String modo = opciones.virtuales() ? "virtuales" : "plataforma";
+
+        System.out.println("🚀 Iniciando el servidor (Java " + version + ", heap " + opciones.heap() + ", hilos " + modo + ")...");
+        try (ServidorPrueba servidor = ServidorPrueba.iniciar(opciones, csv, DIRECTORIO.resolve("servidor-" + modo + ".log"))) {
+            servidor.esperarCarga(Duration.ofMinutes(30));
+            List<String> cecos = cecos(servidor);
+            HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+            System.out.println("🔥 Calentamiento: " + opciones.calentamiento() + " s con " + opciones.usuarios() + " usuarios...");
+            correr(cliente, servidor, opciones, mezcla, cecos, opciones.calentamiento(), null);
+
+            System.out.println("⏱️ Medición: " + opciones.segundos() + " s con " + opciones.usuarios() + " usuarios...");
+            Recursos antes = Recursos.leer(servidor);
+            Muestreo muestreo = new Muestreo();
+            long inicio = System.nanoTime();
+            Map<String, Latencias> resultados = correr(cliente, servidor, opciones, mezcla, cecos, opciones.segundos(), muestreo);
+            double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+            Recursos despues = Recursos.leer(servidor);
+
+            reportar(opciones, modo, version, resultados, segundos, antes, despues, muestreo);
+        }
+    }
+
+    // ==================== Tráfico ====================
+
+    private static Map<String, Latencias> correr(HttpClient cliente, ServidorPrueba servidor, Opciones opciones,
+                                                 List<Operacion> mezcla, List<String> cecos, int segundos,
+                                                 Muestreo muestreo) throws Exception {
+        int pesoTotal = mezcla.stream().mapToInt(Operacion::peso).sum();
+        long fin = System.nanoTime() + segundos * 1_000_000_000L;
+        ExecutorService usuarios = Executors.newFixedThreadPool(opciones.usuarios());
+        Thread muestreador = muestreo != null ? muestreo.iniciar(servidor, fin) : null;
+        try {
+            List<Future<Map<String, Latencias>>> tareas = new ArrayList<>();
+            for (int u = 0; u < opciones.usuarios(); u++) {
+                long semilla = 31L * u + segundos;
+                tareas.add(usuarios.submit(() -> usuario(cliente, servidor.base(), opciones, mezcla, pesoTotal, cecos,
+                        new Random(semilla), fin)));
+            }
+            Map<String, Latencias> total = new LinkedHashMap<>();
+            mezcla.forEach(op -> total.put(op.nombre(), new Latencias()));
+            for (Future<Map<String, Latencias>> tarea : tareas) {
+                tarea.get().forEach((nombre, latencias) -> total.get(nombre).sumar(latencias));
+            }
+            return total;
+        } finally {
+            usuarios.shutdownNow();
+            if (muestreador != null) muestreador.join();
+        }
+    }
+
+    // Un usuario: elige una operación según los pesos, espera la respuesta completa y repite
+    private static Map<String, Latencias> usuario(HttpClient cliente, String base, Opciones opciones, List<Operacion> mezcla,
+                                                  int pesoTotal, List<String> cecos, Random random, long fin)
+            throws InterruptedException {
+        Map<String, Latencias> latencias = new LinkedHashMap<>();
+        mezcla.forEach(op -> latencias.put(op.nombre(), new Latencias()));
+        while (System.nanoTime() < fin) {
+            Operacion operacion = elegir(mezcla, random.nextInt(pesoTotal));
+            HttpRequest.Builder peticion = HttpRequest.newBuilder(URI.create(base + operacion.ruta().apply(random, cecos)))
+                    .timeout(Duration.ofMinutes(2));
+            if (opciones.gzip()) peticion.header("Accept-Encoding", "gzip");
+
+            Latencias destino = latencias.get(operacion.nombre());
+            long inicio = System.nanoTime();
+            try {
+                HttpResponse<Void> respuesta = cliente.send(peticion.build(), HttpResponse.BodyHandlers.discarding());
+                if (respuesta.statusCode() >= 400) destino.error();
+                else destino.registrar(System.nanoTime() - inicio);
+            } catch (IOException e) {
+                destino.error();
+            }
+            if (opciones.pausaMs() > 0) Thread.sleep(opciones.pausaMs());
+        }
+        return latencias;
+    }
+
+    private static Operacion elegir(List<Operacion> mezcla, int valor) {
+        for (Operacion operacion : mezcla) {
+            valor -= operacion.peso();
+            if (valor < 0) return operacion;
+        }
+        return mezcla.get(mezcla.size() - 1);
+    }
+
+    private static List<Operacion> mezcla(String pedido, int filas) {
+        Map<String, BiFunction<Random, List<String>, String>> rutas = new LinkedHashMap<>();
+        rutas.put("listado", (r, c) -> "/api/activos");
+        rutas.put("calcular", (r, c) -> "/api/activos/calcular/" + mes(r));
+        rutas.put("calcular-ceco", (r, c) -> "/api/activos/calcular/" + mes(r) + "?ceco=" + c.get(r.nextInt(c.size())));
+        rutas.put("pagina", (r, c) -> "/api/activos/calcular/" + mes(r) + "/pagina?tamanio=100&despuesDe=" + r.nextInt(filas));
+        rutas.put("totales", (r, c) -> "/api/activos/calcular/" + mes(r) + "/totales?agruparPor=ceco");
+        rutas.put("buscar", (r, c) -> "/api/activos/search?q=" + PALABRAS[r.nextInt(PALABRAS.length)] + "+" + r.nextInt(50));
+        rutas.put("columnar", (r, c) -> "/api/activos/calcular/" + mes(r) + "?formato=columnar");
+
+        List<Operacion> mezcla = new ArrayList<>();
+        for (String parte : pedido.split(",")) {
+            String[] operacionPeso = parte.trim().split(":");
+            BiFunction<Random, List<String>, String> ruta = rutas.get(operacionPeso[0].trim());
+            if (ruta == null || operacionPeso.length != 2) {
+                throw new IllegalArgumentException("Mezcla no válida: " + parte + " (operaciones: " + rutas.keySet() + ")");
+            }
+            int peso = Integer.parseInt(operacionPeso[1].trim());
+            if (peso > 0) mezcla.add(new Operacion(operacionPeso[0].trim(), peso, ruta));
+        }
+        if (mezcla.isEmpty()) throw new IllegalArgumentException("La mezcla no tiene operaciones con peso");
+        return mezcla;
+    }
+
+    private static int mes(Random random) {
+        return 1 + random.nextInt(12);
+    }
+
+    // Los CeCo reales de los datos cargados, para los filtros
+    private static List<String> cecos(ServidorPrueba servidor) {
+        List<String> cecos = new ArrayList<>();
+        JsonNode totales = servidor.leer("/api/activos/totales?agruparPor=ceco");
+        if (totales != null) {
+            for (JsonNode grupo : totales) {
+                if (!grupo.path("grupo").isNull()) cecos.add(grupo.path("grupo").asString());
+            }
+        }
+        if (cecos.isEmpty()) throw new IllegalStateException("No se pudieron leer los CeCo de /api/activos/totales");
+        return cecos;
+    }
+
+    // ==================== Servidor ====================
+
+    // Contadores acumulados del servidor: se restan los de antes y después de la medición
+    private record Recursos(double bytesAsignados, double pausas, double segundosPausa, double pausaMaxima,
+                            double timeoutsPool, double esperaPoolMaxima) {
+
+        static Recursos leer(ServidorPrueba servidor) {
+            return new Recursos(
+                    servidor.metrica("jvm.gc.memory.allocated", "COUNT"),
+                    servidor.metrica("jvm.gc.pause", "COUNT"),
+                    servidor.metrica("jvm.gc.pause", "TOTAL_TIME"),
+                    servidor.metrica("jvm.gc.pause", "MAX"),
+                    servidor.metrica("hikaricp.connections.timeout", "COUNT"),
+                    servidor.metrica("hikaricp.connections.acquire", "MAX"));
+        }
+    }
+
+    // Valores instantáneos, leídos una vez por segundo durante la medición
+    private static final class Muestreo {
+        private volatile double pendientesMaximo;
+        private volatile double hilosMaximo;
+        private volatile double cpuSuma;
+        private volatile int muestrasCpu;
+
+        Thread iniciar(ServidorPrueba servidor, long fin) {
+            Thread hilo = new Thread(() -> {
+                while (System.nanoTime() < fin) {
+                    pendientesMaximo = max(pendientesMaximo, servidor.metrica("hikaricp.connections.pending", "VALUE"));
+                    hilosMaximo = max(hilosMaximo, servidor.metrica("jvm.threads.live", "VALUE"));
+                    double cpu = servidor.metrica("process.cpu.usage", "VALUE");
+                    if (!Double.isNaN(cpu)) {
+                        cpuSuma += cpu;
+                        muestrasCpu++;
+                    }
+                    try {
+                        Thread.sleep(1000);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }, "prueba-carga-muestreo");
+            hilo.start();
+            return hilo;
+        }
+
+        private static double max(double actual, double valor) {
+            return Double.isNaN(valor) ? actual : Math.max(actual, valor);
+        }
+    }
+
+    // ==================== Reporte ====================
+
+    private static void reportar(Opciones opciones, String modo, int version, Map<String, Latencias> resultados,
+                                 double segundos, Recursos antes, Recursos despues, Muestreo muestreo) throws IOException {
+        Latencias total = new Latencias();
+        resultados.values().forEach(total::sumar);
+
+        double asignadoMb = (despues.bytesAsignados() - antes.bytesAsignados()) / 1_048_576.0;
+        double pausas = despues.pausas() - antes.pausas();
+        double segundosPausa = despues.segundosPausa() - antes.segundosPausa();
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "=== Prueba de carga: %d usuarios, %.0f s, hilos %s (Java %d), %d activos, BD %s, gzip %s ===%n",
+                opciones.usuarios(), segundos, modo, version, opciones.filas(), bd(opciones.url()), opciones.gzip());
+        System.out.printf(Locale.ROOT, "%-15s %10s %8s %9s %9s %9s %9s %9s%n",
+                "operacion", "peticiones", "errores", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        resultados.forEach((nombre, latencias) -> fila(nombre, latencias, segundos));
+        fila("TOTAL", total, segundos);
+        System.out.println();
+        System.out.printf(Locale.ROOT, "Servidor: asignación %.0f MB/s (%.0f MB), GC %.0f pausas, %.2f s en pausa (%.1f%% del tiempo), pausa máx %.0f ms%n",
+                asignadoMb / segundos, asignadoMb, pausas, segundosPausa, 100 * segundosPausa / segundos, despues.pausaMaxima() * 1000);
+        System.out.printf(Locale.ROOT, "Pool JDBC: espera máx %.1f ms, %.0f timeouts, pendientes máx %.0f; hilos vivos máx %.0f; CPU del proceso media %.0f%%%n",
+                despues.esperaPoolMaxima() * 1000, despues.timeoutsPool() - antes.timeoutsPool(), muestreo.pendientesMaximo,
+                muestreo.hilosMaximo, muestreo.muestrasCpu > 0 ? 100 * muestreo.cpuSuma / muestreo.muestrasCpu : Double.NaN);
+
+        // Una fila por operación (y el total) para comparar corridas
+        Path csv = DIRECTORIO.resolve("resultados.csv");
+        boolean nuevo = !Files.exists(csv);
+        Files.createDirectories(DIRECTORIO);
+        try (Writer salida = Files.newBufferedWriter(csv, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (nuevo) {
+                salida.write("fecha,hilos,java,usuarios,filas,bd,gzip,operacion,peticiones,errores,req_s,p50_ms,p95_ms,p99_ms,max_ms,"
+                        + "asignacion_mb_s,pausas_gc,pausa_gc_s,pausa_gc_max_ms\n");
+            }
+            String fecha = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            Map<String, Latencias> filas = new LinkedHashMap<>(resultados);
+            filas.put("TOTAL", total);
+            for (Map.Entry<String, Latencias> fila : filas.entrySet()) {
+                Latencias l = fila.getValue();
+                salida.write(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%s,%s,%s,%d,%d,%.1f,%.1f,%.1f,%.1f,%.1f,%.0f,%.0f,%.3f,%.0f%n",
+                        fecha, modo, version, opciones.usuarios(), opciones.filas(), bd(opciones.url()), opciones.gzip(), fila.getKey(),
+                        l.cantidad(), l.errores(), l.cantidad() / segundos, l.percentil(50), l.percentil(95), l.percentil(99),
+                        l.maximo(), asignadoMb / segundos, pausas, segundosPausa, despues.pausaMaxima() * 1000));
+            }
+        }
+        System.out.println("Resultados agregados a " + csv.toAbsolutePath());
+    }
+
+    private static void fila(String nombre, Latencias latencias, double segundos) {
+        System.out.printf(Locale.ROOT, "%-15s %10d %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n", nombre, latencias.cantidad(),
+                latencias.errores(), latencias.cantidad() / segundos, latencias.percentil(50), latencias.percentil(95),
+                latencias.percentil(99), latencias.maximo());
+    }
+
+    private static String bd(String url) {
+        return url.startsWith("jdbc:h2:") ? "h2" : url.startsWith("jdbc:postgresql:") ? "postgresql" : "otra";
+    }
+
+    // ==================== Opciones ====================
+
+    private static Opciones opciones(String[] args) {
+        Map<String, String> valores = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.isBlank()) continue;
+            String opcion = arg.startsWith("--") ? arg.substring(2) : arg;
+            if (opcion.indexOf('=') < 1) {
+                throw new IllegalArgumentException("Opción no válida: " + arg + " (use --clave=valor o clave=valor)");
+            }
+            valores.put(opcion.substring(0, opcion.indexOf('=')), opcion.substring(opcion.indexOf('=') + 1));
+        }
+        String hilos = valores.getOrDefault("hilos", "plataforma");
+        if (!hilos.equals("plataforma") && !hilos.equals("virtuales")) {
+            throw new IllegalArgumentException("hilos debe ser plataforma o virtuales");
+        }
+        String jvm = valores.getOrDefault("jvm", "");
+        String url = valores.getOrDefault("url", ServidorPrueba.URL_H2);
+        // H2 en memoria guarda las tablas en el mismo heap que la aplicación: con 350m se queda sin memoria
+        String heap = valores.getOrDefault("heap", url.startsWith("jdbc:h2:mem:") ? "768m" : "350m");
+        Opciones opciones = new Opciones(
+                Integer.parseInt(valores.getOrDefault("filas", "20000")),
+                Integer.parseInt(valores.getOrDefault("usuarios", "50")),
+                Integer.parseInt(valores.getOrDefault("calentamiento", "20")),
+                Integer.parseInt(valores.getOrDefault("segundos", "60")),
+                hilos.equals("virtuales"),
+                heap,
+                valores.getOrDefault("java", ServidorPrueba.javaActual()),
+                jvm.isBlank() ? List.of() : Arrays.asList(jvm.trim().split("\\s+")),
+                url,
+                Boolean.parseBoolean(valores.getOrDefault("gzip", "true")),
+                Integer.parseInt(valores.getOrDefault("pausa-ms", "0")),
+                valores.getOrDefault("mezcla", MEZCLA));
+        valores.keySet().removeAll(List.of("filas", "usuarios", "calentamiento", "segundos", "hilos", "heap", "java",
+                "jvm", "url", "gzip", "pausa-ms", "mezcla"));
+        if (!valores.isEmpty()) throw new IllegalArgumentException("Opciones desconocidas: " + valores.keySet());
+        if (opciones.usuarios() < 1 || opciones.segundos() < 1 || opciones.filas() < 1) {
+            throw new IllegalArgumentException("usuarios, segundos y filas deben ser mayores que 0");
+        }
+        return opciones;
+    }
+}
@@ -0,0 +1,147 @@
+package com.superinka.gestionactivos.rendimiento;
+
+import com.superinka.gestionactivos.GestionActivosApplication;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * La aplicación en una JVM aparte (mismo classpath, con H2 en modo PostgreSQL o la BD que se
+ * indique), cargando el CSV sintético en la carga inicial. Así el GC y la asignación que se
+ * leen de /actuator/metrics son sólo del servidor y no del generador de carga.
+ */
+final class ServidorPrueba implements AutoCloseable {
+
+    static final String URL_H2 = "jdbc:h2:mem:prueba;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+
+    private static final Pattern VERSION = Pattern.compile("version \"(1\\.)?(\\d+)");
+
+    private final Process proceso;
+    private final String base;
+    private final HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper json = new ObjectMapper();
+
+    private ServidorPrueba(Process proceso, int puerto) {
+        this.proceso = proceso;
+        this.base = "http://localhost:" + puerto;
+    }
+
+    static ServidorPrueba iniciar(PruebaCarga.Opciones opciones, Path csv, Path log) throws IOException {
+        int puerto;
+        try (ServerSocket libre = new ServerSocket(0)) {
+            puerto = libre.getLocalPort();
+        }
+        List<String> comando = new ArrayList<>();
+        comando.add(opciones.java());
+        comando.add("-Xmx" + opciones.heap());
+        comando.add("-Xms" + opciones.heap());
+        comando.addAll(opciones.jvm());
+        comando.add("-cp");
+        comando.add(System.getProperty("java.class.path"));
+        comando.add(GestionActivosApplication.class.getName());
+        comando.add("--server.port=" + puerto);
+        comando.add("--activos.carga.archivo=" + csv.toUri());
+        comando.add("--spring.threads.virtual.enabled=" + opciones.virtuales());
+        comando.add("--spring.datasource.url=" + opciones.url());
+        if (opciones.url().startsWith("jdbc:h2:")) {
+            comando.add("--spring.datasource.username=sa");
+            comando.add("--spring.datasource.password=");
+            comando.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        }
+
+        Files.createDirectories(log.getParent());
+        Process proceso = new ProcessBuilder(comando).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        return new ServidorPrueba(proceso, puerto);
+    }
+
+    /** Versión (feature) del java con el que corre el servidor. */
+    static int versionJava(String java) throws IOException, InterruptedException {
+        Process proceso = new ProcessBuilder(java, "-version").redirectErrorStream(true).start();
+        String salida = new String(proceso.getInputStream().readAllBytes());
+        proceso.waitFor();
+        Matcher m = VERSION.matcher(salida);
+        if (!m.find()) throw new IllegalStateException("No se pudo leer la versión de " + java + ": " + salida);
+        return Integer.parseInt(m.group(2));
+    }
+
+    static String javaActual() {
+        return Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    String base() {
+        return base;
+    }
+
+    /** Espera a que GET /api/carga diga LISTA (la carga inicial corre en segundo plano). */
+    void esperarCarga(Duration limite) throws InterruptedException {
+        long fin = System.nanoTime() + limite.toNanos();
+        String ultimo = "";
+        while (System.nanoTime() < fin) {
+            if (!proceso.isAlive()) {
+                throw new IllegalStateException("El servidor terminó al arrancar (código " + proceso.exitValue() + ")");
+            }
+            JsonNode estado = leer("/api/carga");
+            if (estado != null) {
+                String actual = estado.path("estado").asString();
+                if ("LISTA".equals(actual)) return;
+                if ("ERROR".equals(actual)) {
+                    throw new IllegalStateException("La carga inicial falló: " + estado.path("error").asString());
+                }
+                String avance = actual + " " + estado.path("filasGuardadas").asLong() + " filas";
+                if (!avance.equals(ultimo)) System.out.println("   ... " + avance);
+                ultimo = avance;
+            }
+            Thread.sleep(1000);
+        }
+        throw new IllegalStateException("La carga inicial no terminó en " + limite.toSeconds() + " s");
+    }
+
+    /** Estadística de /actuator/metrics/{nombre} (COUNT, TOTAL_TIME, MAX, VALUE...); NaN si no existe. */
+    double metrica(String nombre, String estadistica) {
+        JsonNode metrica = leer("/actuator/metrics/" + nombre);
+        if (metrica == null) return Double.NaN;
+        for (JsonNode medida : metrica.path("measurements")) {
+            if (estadistica.equals(medida.path("statistic").asString())) return medida.path("value").asDouble();
+        }
+        return Double.NaN;
+    }
+
+    JsonNode leer(String ruta) {
+        try {
+            HttpResponse<String> respuesta = cliente.send(HttpRequest.newBuilder(URI.create(base + ruta))
+                    .timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+            return respuesta.statusCode() == 200 ? json.readTree(respuesta.body()) : null;
+        } catch (IOException e) {
+            return null; // todavía no escucha
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        proceso.destroy();
+        try {
+            if (!proceso.waitFor(30, TimeUnit.SECONDS)) proceso.destroyForcibly();
+        } catch (InterruptedException e) {
+            proceso.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
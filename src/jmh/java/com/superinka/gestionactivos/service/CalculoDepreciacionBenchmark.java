@@ -0,0 +1,67 @@
+package com.superinka.gestionactivos.service;
+
+import com.superinka.gestionactivos.carga.DatosBenchmark;
+import com.superinka.gestionactivos.dto.FiltroActivos;
+import com.superinka.gestionactivos.dto.ProyeccionActivo;
+import com.superinka.gestionactivos.dto.ProyeccionSnapshot;
+import com.superinka.gestionactivos.dto.ResumenActivoDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * calcularDepreciacionVisual sin caché ni BD: el mismo cálculo que calcularSinCache sobre las
+ * proyecciones, y sobre el snapshot columnar. "paralelo" usa CalculoParalelo con la
+ * configuración por defecto; false mide el costo en un solo hilo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalculoDepreciacionBenchmark {
+
+    @Param({"10000", "100000"})
+    private int filas;
+
+    @Param({"1", "6", "12"})
+    private int mes;
+
+    @Param({"true", "false"})
+    private boolean paralelo;
+
+    private List<ProyeccionActivo> proyecciones;
+    private SnapshotActivos snapshot;
+    private CalculoParalelo calculoParalelo;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        List<ProyeccionSnapshot> cartera = DatosBenchmark.cartera(filas);
+        proyecciones = DatosBenchmark.proyecciones(cartera);
+        SnapshotActivos.Constructor constructor = SnapshotActivos.constructor(1L);
+        cartera.forEach(constructor::agregar);
+        snapshot = constructor.construir();
+        calculoParalelo = new CalculoParalelo(paralelo, 0, 5000, 2048);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        calculoParalelo.cerrar();
+    }
+
+    @Benchmark
+    public List<ResumenActivoDTO> calcularProyecciones() {
+        return calculoParalelo.mapear(proyecciones, p -> ActivoService.calcular(p, mes));
+    }
+
+    @Benchmark
+    public List<ResumenActivoDTO> calcularSnapshot() {
+        List<Integer> seleccion = IntStream.of(snapshot.seleccionar(new FiltroActivos(), mes)).boxed().collect(Collectors.toList());
+        return calculoParalelo.mapear(seleccion, i -> snapshot.resumen(i, mes));
+    }
+}
@@ -0,0 +1,39 @@
+package com.superinka.gestionactivos.service;
+
+import com.superinka.gestionactivos.carga.DatosBenchmark;
+import com.superinka.gestionactivos.dto.ProyeccionActivo;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * convertirADTO (vía ActivoService.resumir: datos cargados, sin recalcular), por activo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionDtoBenchmark {
+
+    private static final int FILAS = 10_000;
+
+    private List<ProyeccionActivo> proyecciones;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        proyecciones = DatosBenchmark.proyecciones(DatosBenchmark.cartera(FILAS));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILAS)
+    public void convertirADTO(Blackhole bh) {
+        for (ProyeccionActivo p : proyecciones) {
+            bh.consume(ActivoService.resumir(p));
+        }
+    }
+}
@@ -1,8 +1,36 @@
 package com.superinka.gestionactivos;
 
+import com.superinka.gestionactivos.dto.ProyeccionActivo;
+import com.superinka.gestionactivos.dto.ProyeccionSnapshot;
 import com.superinka.gestionactivos.entity.Activo;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface ActivoRepository extends JpaRepository<Activo,Long> {
+import java.util.List;
+import java.util.stream.Stream;
 
+public interface ActivoRepository extends JpaRepository<Activo,Long>, ActivoRepositoryCustom {
+
+    // Sólo las 19 columnas que necesitan el resumen y el cálculo (de ~53), sin los campos TEXT
+    String COLUMNAS_PROYECCION = "a.id, a.codigo, a.descripcion, a.ceco, a.valorHistorico, a.porcentajeDepreciacion, "
+            + "a.depreciacionAcumuladaInicio, "
+            + "a.ene25, a.feb25, a.mar25, a.abr25, a.may25, a.jun25, a.jul25, a.ago25, a.set25, a.oct25, a.nov25, a.dic25";
+
+    String SELECT_PROYECCION = "select new com.superinka.gestionactivos.dto.ProyeccionActivo("
+            + COLUMNAS_PROYECCION + ") from Activo a";
+
+    // Transacción de sólo lectura: sin flush al terminar y la conexión marcada read-only
+    @Transactional(readOnly = true)
+    @Query(SELECT_PROYECCION + " where a.retirado = false order by a.id")
+    List<ProyeccionActivo> findProyeccionesOrdenadas();
+
+    // Recorrido completo para construir el snapshot columnar (requiere transacción abierta)
+    @Query("select new com.superinka.gestionactivos.dto.ProyeccionSnapshot(" + COLUMNAS_PROYECCION
+            + ", a.cuentaContable, a.ctaGastoDepre, a.cluster) from Activo a where a.retirado = false order by a.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<ProyeccionSnapshot> streamParaSnapshot();
 }
@@ -0,0 +1,26 @@
+package com.superinka.gestionactivos;
+
+import com.superinka.gestionactivos.dto.Agrupacion;
+import com.superinka.gestionactivos.dto.FiltroActivos;
+import com.superinka.gestionactivos.dto.ProyeccionActivo;
+import com.superinka.gestionactivos.dto.ProyeccionAgrupada;
+import com.superinka.gestionactivos.dto.ProyeccionExportacion;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// Consultas de proyecciones con filtros opcionales (JPQL armado según los filtros presentes)
+public interface ActivoRepositoryCustom {
+
+    // Filas con id > despuesDe en orden de id; limite <= 0 trae todas
+    List<ProyeccionActivo> buscarProyecciones(FiltroActivos filtro, long despuesDe, int limite);
+
+    // Recorrido completo con cursor del servidor (requiere transacción abierta)
+    Stream<ProyeccionActivo> streamProyecciones(FiltroActivos filtro);
+
+    // Igual que streamProyecciones, junto con el valor de la columna de agrupación
+    Stream<ProyeccionAgrupada> streamProyeccionesAgrupadas(Agrupacion agrupacion, FiltroActivos filtro);
+
+    // Igual que streamProyecciones, junto con el número de fila del CSV de origen
+    Stream<ProyeccionExportacion> streamParaExportacion(FiltroActivos filtro);
+}
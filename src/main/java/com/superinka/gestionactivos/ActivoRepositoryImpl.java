@@ -0,0 +1,107 @@
+package com.superinka.gestionactivos;
+
+import com.superinka.gestionactivos.dto.Agrupacion;
+import com.superinka.gestionactivos.dto.FiltroActivos;
+import com.superinka.gestionactivos.dto.ProyeccionActivo;
+import com.superinka.gestionactivos.dto.ProyeccionAgrupada;
+import com.superinka.gestionactivos.dto.ProyeccionExportacion;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class ActivoRepositoryImpl implements ActivoRepositoryCustom {
+
+    private static final int FETCH_SIZE = 500;
+
+    // Costo neto con los meses guardados (nulos como 0), igual que el resumen
+    private static final String COSTO_NETO = "(coalesce(a.valorHistorico, 0) - coalesce(a.depreciacionAcumuladaInicio, 0)"
+            + " - coalesce(a.ene25, 0) - coalesce(a.feb25, 0) - coalesce(a.mar25, 0) - coalesce(a.abr25, 0)"
+            + " - coalesce(a.may25, 0) - coalesce(a.jun25, 0) - coalesce(a.jul25, 0) - coalesce(a.ago25, 0)"
+            + " - coalesce(a.set25, 0) - coalesce(a.oct25, 0) - coalesce(a.nov25, 0) - coalesce(a.dic25, 0))";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProyeccionActivo> buscarProyecciones(FiltroActivos filtro, long despuesDe, int limite) {
+        TypedQuery<ProyeccionActivo> query = crearConsulta(ActivoRepository.SELECT_PROYECCION, ProyeccionActivo.class, filtro, despuesDe);
+        if (limite > 0) {
+            query.setMaxResults(limite);
+        }
+        return query.getResultList();
+    }
+
+    // Los streams se consumen después de volver: la transacción (de sólo lectura) la abre quien llama
+    @Override
+    public Stream<ProyeccionActivo> streamProyecciones(FiltroActivos filtro) {
+        return crearConsulta(ActivoRepository.SELECT_PROYECCION, ProyeccionActivo.class, filtro, 0)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<ProyeccionAgrupada> streamProyeccionesAgrupadas(Agrupacion agrupacion, FiltroActivos filtro) {
+        // El campo sale del enum, nunca del texto del request
+        String select = "select new com.superinka.gestionactivos.dto.ProyeccionAgrupada(a." + agrupacion.getCampo() + ", "
+                + ActivoRepository.COLUMNAS_PROYECCION + ") from Activo a";
+        return crearConsulta(select, ProyeccionAgrupada.class, filtro, 0)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<ProyeccionExportacion> streamParaExportacion(FiltroActivos filtro) {
+        String select = "select new com.superinka.gestionactivos.dto.ProyeccionExportacion(a.numeroFila, "
+                + ActivoRepository.COLUMNAS_PROYECCION + ") from Activo a";
+        return crearConsulta(select, ProyeccionExportacion.class, filtro, 0)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .getResultStream();
+    }
+
+    private <T> TypedQuery<T> crearConsulta(String select, Class<T> tipo, FiltroActivos filtro, long despuesDe) {
+        StringBuilder jpql = new StringBuilder(select).append(" where a.id > :despuesDe and a.retirado = false");
+        Map<String, Object> parametros = new LinkedHashMap<>();
+        parametros.put("despuesDe", despuesDe);
+
+        if (filtro != null) {
+            // Cada condición usa un índice de activos_fijos_2025 (ver Activo y import.sql)
+            if (FiltroActivos.tieneTexto(filtro.getCeco())) {
+                jpql.append(" and a.ceco = :ceco");
+                parametros.put("ceco", filtro.getCeco().trim());
+            }
+            if (FiltroActivos.tieneTexto(filtro.getCuentaContable())) {
+                jpql.append(" and a.cuentaContable = :cuentaContable");
+                parametros.put("cuentaContable", filtro.getCuentaContable().trim());
+            }
+            if (FiltroActivos.tieneTexto(filtro.getCluster())) {
+                jpql.append(" and a.cluster = :cluster");
+                parametros.put("cluster", filtro.getCluster().trim());
+            }
+            if (FiltroActivos.tieneTexto(filtro.getCodigo())) {
+                jpql.append(" and a.codigo like :codigo escape '\\'");
+                parametros.put("codigo", escaparLike(filtro.getCodigo().trim()) + "%");
+            }
+            if (FiltroActivos.tieneTexto(filtro.getEstado())) {
+                boolean completado = FiltroActivos.COMPLETADO.equalsIgnoreCase(filtro.getEstado().trim());
+                jpql.append(" and ").append(COSTO_NETO).append(completado ? " <= 0" : " > 0");
+            }
+        }
+        jpql.append(" order by a.id");
+
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), tipo);
+        parametros.forEach(query::setParameter);
+        return query;
+    }
+
+    private static String escaparLike(String valor) {
+        return valor.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
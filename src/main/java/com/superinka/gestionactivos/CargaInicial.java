@@ -1,141 +1,237 @@
 package com.superinka.gestionactivos;
 
-import com.opencsv.bean.CsvToBean;
-import com.opencsv.bean.CsvToBeanBuilder;
+import com.superinka.gestionactivos.carga.EscritorActivosJdbc;
+import com.superinka.gestionactivos.carga.ParserCsvActivos;
+import com.superinka.gestionactivos.carga.ParserCsvParalelo;
+import com.superinka.gestionactivos.carga.ReimportacionDelta;
+import com.superinka.gestionactivos.dto.ResultadoDeltaDTO;
 import com.superinka.gestionactivos.entity.Activo;
-import org.springframework.boot.CommandLineRunner;
-import org.springframework.context.annotation.Bean;
+import com.superinka.gestionactivos.service.EstadoCarga;
+import com.superinka.gestionactivos.service.MetricasActivos;
+import com.superinka.gestionactivos.service.ProveedorIndiceBusqueda;
+import com.superinka.gestionactivos.service.ProveedorSnapshot;
+import com.superinka.gestionactivos.service.VersionDatos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
 
-import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.StringReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
-
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Carga de Depreciacion.csv al arrancar, en un hilo propio después de que la aplicación quedó
+ * lista: el servidor escucha en segundos y /actuator/health y GET /api/carga muestran el avance.
+ * Mientras tanto la instancia se declara REFUSING_TRAFFIC (readiness) y /api responde 503 con
+ * Retry-After (ver EsperaCarga). Si la carga falla, la instancia se marca BROKEN (liveness) para
+ * que el orquestador la reinicie, igual que antes cuando el error cortaba el arranque. Un Error
+ * de la JVM (p. ej. OutOfMemoryError) no se captura: en el contenedor la JVM termina con
+ * -XX:+ExitOnOutOfMemoryError.
+ */
 @Configuration
 public class CargaInicial {
 
-    private final ActivoRepository repository;
+    private static final Logger log = LoggerFactory.getLogger(CargaInicial.class);
+
+    // Tag "origen" de las métricas de carga
+    private static final String ORIGEN = "inicial";
+    // Cada cuántos lotes se imprime el avance
+    private static final int LOTES_POR_AVANCE = 20;
 
-    public CargaInicial(ActivoRepository repository) {
+    private final ActivoRepository repository;
+    private final VersionDatos versionDatos;
+    private final EscritorActivosJdbc escritor;
+    private final ProveedorSnapshot proveedorSnapshot;
+    private final ProveedorIndiceBusqueda proveedorIndice;
+    private final MetricasActivos metricas;
+    private final ReimportacionDelta reimportacionDelta;
+    private final EstadoCarga estadoCarga;
+    private final ApplicationEventPublisher eventos;
+    private final Resource archivo;
+    private final int tamanioLote;
+    private final boolean parseoParalelo;
+    private final int hilosParseo;
+    private final boolean deltaAlIniciar;
+    private final boolean deltaRetirarFaltantes;
+    private final long nanosEntreVersiones;
+    private final AtomicBoolean iniciada = new AtomicBoolean();
+
+    // Sólo los usa el hilo de la carga
+    private long ultimaVersion = System.nanoTime();
+    private boolean cambiosSinVersion;
+
+    public CargaInicial(ActivoRepository repository, VersionDatos versionDatos, EscritorActivosJdbc escritor,
+                        ProveedorSnapshot proveedorSnapshot, ProveedorIndiceBusqueda proveedorIndice,
+                        MetricasActivos metricas,
+                        ReimportacionDelta reimportacionDelta,
+                        EstadoCarga estadoCarga, ApplicationEventPublisher eventos,
+                        @Value("${activos.carga.archivo:classpath:Depreciacion.csv}") Resource archivo,
+                        @Value("${activos.carga.tamanio-lote:1000}") int tamanioLote,
+                        @Value("${activos.carga.paralelo.habilitado:true}") boolean parseoParalelo,
+                        @Value("${activos.carga.paralelo.hilos:0}") int hilosParseo,
+                        @Value("${activos.carga.delta-al-iniciar:false}") boolean deltaAlIniciar,
+                        @Value("${activos.carga.delta-retirar-faltantes:false}") boolean deltaRetirarFaltantes,
+                        @Value("${activos.carga.segundos-entre-versiones:10}") int segundosEntreVersiones) {
         this.repository = repository;
+        this.versionDatos = versionDatos;
+        this.escritor = escritor;
+        this.proveedorSnapshot = proveedorSnapshot;
+        this.proveedorIndice = proveedorIndice;
+        this.metricas = metricas;
+        this.reimportacionDelta = reimportacionDelta;
+        this.estadoCarga = estadoCarga;
+        this.eventos = eventos;
+        this.archivo = archivo;
+        this.tamanioLote = tamanioLote;
+        this.parseoParalelo = parseoParalelo;
+        this.hilosParseo = hilosParseo;
+        this.deltaAlIniciar = deltaAlIniciar;
+        this.deltaRetirarFaltantes = deltaRetirarFaltantes;
+        this.nanosEntreVersiones = segundosEntreVersiones * 1_000_000_000L;
+    }
+
+    // Spring publica ACCEPTING_TRAFFIC al terminar de arrancar (después de ApplicationReadyEvent): en ese
+    // momento se vuelve a REFUSING_TRAFFIC y se empieza a cargar. EsperaCarga ya rechaza desde antes (PENDIENTE)
+    @EventListener
+    public void iniciarCarga(AvailabilityChangeEvent<ReadinessState> evento) {
+        if (evento.getState() != ReadinessState.ACCEPTING_TRAFFIC || !iniciada.compareAndSet(false, true)) {
+            return;
+        }
+        AvailabilityChangeEvent.publish(eventos, this, ReadinessState.REFUSING_TRAFFIC);
+        Thread hilo = new Thread(this::ejecutar, "carga-inicial");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    private void ejecutar() {
+        try {
+            cargar();
+            AvailabilityChangeEvent.publish(eventos, this, ReadinessState.ACCEPTING_TRAFFIC);
+        } catch (Exception e) {
+            estadoCarga.fallar(e);
+            log.error("❌ CARGA INICIAL FALLIDA: {}", estadoCarga.estado().getError(), e);
+            AvailabilityChangeEvent.publish(eventos, this, LivenessState.BROKEN);
+        }
     }
 
-    @Bean
-    CommandLineRunner iniciarCarga() {
-        return args -> {
-            long countBD = repository.count();
-            if (countBD > 0) {
+    private void cargar() throws IOException {
+        long countBD = repository.count();
+        ReimportacionDelta.Sesion sesion = null;
+        if (countBD > 0) {
+            if (!deltaAlIniciar) {
                 System.out.println("ℹ️ La BD ya tiene datos (" + countBD + "). Omitiendo carga.");
+                estadoCarga.iniciar(EstadoCarga.MODO_OMITIDA);
+                proveedorSnapshot.actual();
+                proveedorIndice.actual();
+                estadoCarga.terminar(0, 0);
                 return;
             }
-
+            // Con datos previos sólo se escribe lo que cambió en el CSV
+            System.out.println("🔁 La BD ya tiene datos (" + countBD + "). Aplicando el CSV en modo delta...");
+            estadoCarga.iniciar(EstadoCarga.MODO_DELTA);
+            sesion = reimportacionDelta.iniciar(deltaRetirarFaltantes, tamanioLote);
+        } else {
             System.out.println("🚀 INICIANDO CARGA (MODO STREAMING PURO - MEMORIA ESTABLE)...");
-
-            ClassPathResource resource = new ClassPathResource("Depreciacion.csv");
-
-            try (BufferedReader br = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
-
-                // 1. Leer y guardar la cabecera (La necesitamos para cada mini-lote)
-                String headerLine = br.readLine();
-                if (headerLine == null) return; // Archivo vacío
-
-                // Limpiamos comillas de la cabecera también por si acaso
-                headerLine = headerLine.replace("\"", "");
-
-                List<String> loteLineas = new ArrayList<>();
-                StringBuilder registroActual = new StringBuilder();
-                String patronInicioRegistro = "^\\s*\"?(\\d+|#)\"?\\s*;.*";
-
-                String linea;
-                int totalProcesados = 0;
-
-                // 2. Bucle de lectura línea a línea (Streaming)
-                while ((linea = br.readLine()) != null) {
-                    if (linea.trim().isEmpty()) continue;
-
-                    if (linea.matches(patronInicioRegistro)) {
-                        // Es un nuevo registro: Procesamos el anterior si existe
-                        if (registroActual.length() > 0) {
-                            loteLineas.add(registroActual.toString());
-                        }
-                        registroActual = new StringBuilder(linea);
-                    } else {
-                        // Es continuación: Lo pegamos al actual
-                        registroActual.append(" ").append(linea.trim());
-                    }
-
-                    // 3. Si el lote en memoria llega a 500, lo procesamos y vaciamos
-                    if (loteLineas.size() >= 500) {
-                        procesarLote(headerLine, loteLineas);
-                        totalProcesados += loteLineas.size();
-                        loteLineas.clear(); // ¡LIBERAR MEMORIA!
-                        System.gc(); // Sugerencia agresiva al recolector de basura
-                        System.out.print(".");
-                    }
-                }
-
-                // Agregar el último registro pendiente del buffer
-                if (registroActual.length() > 0) {
-                    loteLineas.add(registroActual.toString());
-                }
-
-                // Procesar el remanente final
-                if (!loteLineas.isEmpty()) {
-                    procesarLote(headerLine, loteLineas);
-                    totalProcesados += loteLineas.size();
+            estadoCarga.iniciar(EstadoCarga.MODO_COMPLETA);
+        }
+        long inicio = System.nanoTime();
+        ReimportacionDelta.Sesion delta = sesion;
+        // Carga completa: una clave (codigo, #) repetida en el CSV no debe tumbar la carga; gana la última
+        EscritorActivosJdbc.CargaCompleta completa = delta == null ? escritor.iniciarCarga() : null;
+
+        // 1. El parser lee la cabecera, une las líneas de continuación y convierte los montos
+        //    en una sola pasada; nosotros sólo agrupamos en lotes para el batch JDBC
+        List<Activo> lote = new ArrayList<>(tamanioLote);
+        long[] totalGuardados = {0};
+        int[] lotes = {0};
+
+        Consumer<Activo> destino = activo -> {
+            lote.add(activo);
+            // 2. Si el lote en memoria llega al tamaño configurado, lo guardamos y vaciamos
+            if (lote.size() >= tamanioLote) {
+                totalGuardados[0] += guardarLote(lote, delta, completa);
+                estadoCarga.avance(totalGuardados[0]);
+                lote.clear(); // ¡LIBERAR MEMORIA!
+                if (++lotes[0] % LOTES_POR_AVANCE == 0) {
+                    double transcurrido = (System.nanoTime() - inicio) / 1_000_000_000.0;
+                    System.out.printf("   ... %d filas guardadas (%.0f filas/s)%n",
+                            totalGuardados[0], totalGuardados[0] / Math.max(transcurrido, 0.001));
                 }
-
-                System.out.println("\n✅ CARGA FINALIZADA EXITOSAMENTE.");
-                System.out.println("   - Registros procesados: " + totalProcesados);
-                System.out.println("   - Registros en BD: " + repository.count());
             }
         };
-    }
 
-    // Método auxiliar para procesar un pequeño lote de texto
-    private void procesarLote(String header, List<String> lineas) {
-        // Unimos el lote en un solo String grande
-        StringBuilder sb = new StringBuilder();
-        sb.append(header).append("\n"); // Agregamos cabecera para que OpenCSV sepa mapear
-        for (String l : lineas) {
-            sb.append(l).append("\n");
+        // Si el CSV es un archivo en disco (no dentro del jar) y hay más de un núcleo, se mapea y se
+        // parsea por rangos en paralelo; los activos llegan a los lotes en el mismo orden que en la
+        // lectura secuencial, y el parseo avanza mientras este hilo escribe en la BD
+        int hilos = hilosParseo > 0 ? hilosParseo : Runtime.getRuntime().availableProcessors();
+        ParserCsvActivos.Resultado resultado;
+        if (parseoParalelo && hilos > 1 && archivo.isFile() && ParserCsvParalelo.admite(archivo.getFile().toPath())) {
+            System.out.println("   - Parseo en paralelo con " + hilos + " hilos (archivo mapeado en memoria)");
+            resultado = ParserCsvParalelo.parsearArchivo(archivo.getFile().toPath(), hilos, destino);
+        } else {
+            try (Reader lector = new InputStreamReader(archivo.getInputStream(), StandardCharsets.UTF_8)) {
+                resultado = ParserCsvActivos.parsearArchivo(lector, destino);
+            }
         }
 
-        // LIMPIEZA QUÍMICA: Quitamos comillas del lote entero
-        String csvSanitizado = sb.toString().replace("\"", "");
-
-        // Parseo
-        CsvToBean<Activo> csvToBean = new CsvToBeanBuilder<Activo>(new StringReader(csvSanitizado))
-                .withType(Activo.class)
-                .withSeparator(';')
-                .withQuoteChar('\0') // Ignorar comillas
-                .withIgnoreLeadingWhiteSpace(true)
-                .withIgnoreQuotations(true)
-                .withThrowExceptions(false)
-                .build();
-
-        List<Activo> activosValidos = new ArrayList<>();
-        for (Activo a : csvToBean) {
-            // Validación mínima: Código no vacío
-            if (a.getCodigo() != null && !a.getCodigo().trim().isEmpty()) {
-                activosValidos.add(a);
-            }
+        // 3. Guardar el remanente final
+        totalGuardados[0] += guardarLote(lote, delta, completa);
+        if (delta != null) {
+            ResultadoDeltaDTO totales = delta.terminar();
+            if (totales.getRetirados() > 0) cambiosSinVersion = true;
+            System.out.println("   - Delta: " + totales);
+        } else if (completa.duplicados() > 0) {
+            System.out.println("   - Claves (codigo, #) repetidas en el CSV: " + completa.duplicados() + " (gana la última aparición)");
         }
+        if (cambiosSinVersion) versionDatos.incrementar();
+
+        long nanos = System.nanoTime() - inicio;
+        double segundos = nanos / 1_000_000_000.0;
+        metricas.cargaTerminada(ORIGEN, totalGuardados[0], resultado.getRechazados(), nanos);
+        System.out.println("✅ CARGA FINALIZADA EXITOSAMENTE.");
+        System.out.println("   - Registros procesados: " + resultado.getRegistros());
+        System.out.println("   - Registros guardados: " + totalGuardados[0] + " (rechazados: " + resultado.getRechazados() + ")");
+        System.out.println("   - Registros en BD: " + repository.count());
+        System.out.printf("   - Tiempo: %.2f s (%.0f filas/s)%n", segundos, totalGuardados[0] / Math.max(segundos, 0.001));
+
+        // 4. Snapshot columnar e índice de búsqueda listos antes de la primera consulta
+        proveedorSnapshot.actual();
+        proveedorIndice.actual();
+        estadoCarga.terminar(totalGuardados[0], resultado.getRechazados());
+    }
 
-        // Guardado Transaccional
-        guardarEnBD(activosValidos);
+    // Guardado en un solo batch JDBC (sin pasar por el contexto de persistencia de Hibernate)
+    private int guardarLote(List<Activo> activos, ReimportacionDelta.Sesion delta,
+                            EscritorActivosJdbc.CargaCompleta completa) {
+        if (activos.isEmpty()) return 0;
+        int guardados = delta != null ? delta.procesar(activos) : completa.insertar(activos);
+        if (guardados > 0) cambiosSinVersion = true;
+        versionSiCorresponde();
+        metricas.filasGuardadas(ORIGEN, guardados);
+        return guardados;
     }
 
-    @Transactional
-    public void guardarEnBD(List<Activo> activos) {
-        repository.saveAll(activos);
-        repository.flush(); // Forzar escritura a disco para liberar RAM de Hibernate
+    // Invalida resultados calculados con los datos anteriores, pero no en cada lote: cada versión nueva
+    // reconstruye el snapshot en la siguiente consulta (sólo las hay con servir-parciales) y al
+    // terminar se incrementa de todos modos
+    private void versionSiCorresponde() {
+        long ahora = System.nanoTime();
+        if (cambiosSinVersion && ahora - ultimaVersion >= nanosEntreVersiones) {
+            versionDatos.incrementar();
+            ultimaVersion = ahora;
+            cambiosSinVersion = false;
+        }
     }
 }
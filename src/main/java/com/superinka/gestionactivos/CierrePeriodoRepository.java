@@ -0,0 +1,13 @@
+package com.superinka.gestionactivos;
+
+import com.superinka.gestionactivos.entity.CierrePeriodo;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface CierrePeriodoRepository extends JpaRepository<CierrePeriodo, Integer> {
+
+    List<CierrePeriodo> findAllByOrderByPeriodoAsc();
+
+    boolean existsByPeriodoGreaterThan(Integer periodo);
+}
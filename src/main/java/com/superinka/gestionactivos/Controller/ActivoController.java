@@ -1,29 +1,246 @@
 package com.superinka.gestionactivos.Controller;
 
+import com.superinka.gestionactivos.dto.Agrupacion;
+import com.superinka.gestionactivos.dto.BusquedaDTO;
+import com.superinka.gestionactivos.dto.EstadisticasCacheDTO;
+import com.superinka.gestionactivos.dto.FiltroActivos;
+import com.superinka.gestionactivos.dto.PaginaDTO;
 import com.superinka.gestionactivos.dto.ResumenActivoDTO;
+import com.superinka.gestionactivos.dto.TablaColumnarDTO;
+import com.superinka.gestionactivos.dto.TotalGrupoDTO;
 import com.superinka.gestionactivos.service.ActivoService;
+import com.superinka.gestionactivos.service.CacheResultados;
+import com.superinka.gestionactivos.service.VersionDatos;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/activos")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = {HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.RETRY_AFTER,
+        EsperaCarga.DATOS_PARCIALES})
 public class ActivoController {
 
+    private static final int TAMANIO_MAXIMO_PAGINA = 1000;
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    static final MediaType COLUMNAR = MediaType.parseMediaType("application/vnd.activos.columnar+json");
+    private static final String FORMATO_JSON = "json";
+    private static final String FORMATO_COLUMNAR = "columnar";
+    // El listado y el cálculo cambian de formato según Accept en la misma URL: los caches deben distinguirlos
+    private static final Consumer<ResponseEntity.BodyBuilder> VARIA_POR_ACCEPT = respuesta -> respuesta.varyBy(HttpHeaders.ACCEPT);
+
     @Autowired
     private ActivoService service;
 
+    @Autowired
+    private CacheResultados cache;
+
+    @Autowired
+    private VersionDatos versionDatos;
+
+    // Las lecturas responden con ETag = versión de datos: con If-None-Match vigente, 304 sin consultar nada.
+    // Las de /calcular aceptan también GET (el POST se mantiene por compatibilidad; sólo GET puede dar 304)
+
     //Devuelve el JSON para la Tabla del Frontend
+    //Filtros opcionales: ?ceco=&cuentaContable=&cluster=&estado=ACTIVO|COMPLETADO&codigo=<prefijo>
+    //Formato columnar (un arreglo por campo, ver TablaColumnarDTO): Accept: application/vnd.activos.columnar+json
+    //o ?formato=columnar, con ?meses=1-3 / ene,feb para traer sólo esos meses
     @GetMapping
-    public List<ResumenActivoDTO> obtenerTodos(){
-        return service.obtenerResumen();
+    public ResponseEntity<?> obtenerTodos(FiltroActivos filtro,
+                                          @RequestParam(required = false) String formato,
+                                          @RequestParam(required = false) String meses,
+                                          WebRequest request){
+        FiltroActivos valido = validar(filtro);
+        if (columnar(formato, request)) {
+            return columnar(request, () -> service.obtenerColumnar(null, valido, meses));
+        }
+        return condicional(request, FORMATO_JSON, VARIA_POR_ACCEPT, () -> service.obtenerResumen(valido));
     }
 
     // CAMBIO: Ahora devuelve la LISTA de datos (JSON), no un String
-    @PostMapping("/calcular/{mes}")
-    public List<ResumenActivoDTO> calcularMes(@PathVariable int mes) {
-        return service.calcularDepreciacionVisual(mes);
+    @RequestMapping(value = "/calcular/{mes}", method = {RequestMethod.GET, RequestMethod.POST})
+    public ResponseEntity<?> calcularMes(@PathVariable int mes, FiltroActivos filtro,
+                                         @RequestParam(required = false) String formato,
+                                         @RequestParam(required = false) String meses,
+                                         WebRequest request) {
+        FiltroActivos valido = validar(filtro);
+        if (columnar(formato, request)) {
+            return columnar(request, () -> service.obtenerColumnar(mes, valido, meses));
+        }
+        return condicional(request, FORMATO_JSON, VARIA_POR_ACCEPT, () -> service.calcularDepreciacionVisual(mes, valido));
+    }
+
+    // Paginación por cursor: ?despuesDe=<siguienteCursor de la página anterior>&tamanio=n
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaDTO<ResumenActivoDTO>> obtenerPagina(@RequestParam(defaultValue = "0") long despuesDe,
+                                                                     @RequestParam(defaultValue = "100") int tamanio,
+                                                                     FiltroActivos filtro, WebRequest request) {
+        FiltroActivos valido = validar(filtro);
+        return condicional(request, () -> service.obtenerPagina(valido, despuesDe, limitarTamanio(tamanio)));
+    }
+
+    @RequestMapping(value = "/calcular/{mes}/pagina", method = {RequestMethod.GET, RequestMethod.POST})
+    public ResponseEntity<PaginaDTO<ResumenActivoDTO>> calcularMesPagina(@PathVariable int mes,
+                                                                         @RequestParam(defaultValue = "0") long despuesDe,
+                                                                         @RequestParam(defaultValue = "100") int tamanio,
+                                                                         FiltroActivos filtro, WebRequest request) {
+        FiltroActivos valido = validar(filtro);
+        return condicional(request, () -> service.calcularPagina(mes, valido, despuesDe, limitarTamanio(tamanio)));
+    }
+
+    // Busqueda por texto (descripcion, marca, modelo, serie/placa), sin tildes y por partes de palabra
+    // ?q=laptop dell&pagina=0&tamanio=20 -> los que tienen todas las palabras, los mas relevantes primero
+    @GetMapping("/search")
+    public ResponseEntity<BusquedaDTO> buscar(@RequestParam String q,
+                                              @RequestParam(defaultValue = "0") int pagina,
+                                              @RequestParam(defaultValue = "20") int tamanio,
+                                              WebRequest request) {
+        try {
+            return condicional(request, () -> service.buscar(q, pagina, limitarTamanio(tamanio)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Modo streaming (NDJSON): cada fila se envía apenas se calcula, memoria constante
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTodos(FiltroActivos filtro, WebRequest request) {
+        FiltroActivos valido = validar(filtro);
+        return ndjson(request, salida -> service.escribirNdjson(null, valido, salida));
+    }
+
+    @RequestMapping(value = "/calcular/{mes}/stream", method = {RequestMethod.GET, RequestMethod.POST},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCalculoMes(@PathVariable int mes, FiltroActivos filtro, WebRequest request) {
+        FiltroActivos valido = validar(filtro);
+        return ndjson(request, salida -> service.escribirNdjson(mes, valido, salida));
+    }
+
+    // Cronograma calculado hasta el mes como CSV (';', columnas de Depreciacion.csv) para abrir en Excel
+    @GetMapping(value = "/calcular/{mes}/export.csv", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportarCsv(@PathVariable int mes, FiltroActivos filtro, WebRequest request) {
+        FiltroActivos valido = validar(filtro);
+        String adjunto = ContentDisposition.attachment().filename("depreciacion-mes-" + mes + ".csv").build().toString();
+        return condicional(request,
+                respuesta -> respuesta.contentType(TEXT_CSV).header(HttpHeaders.CONTENT_DISPOSITION, adjunto),
+                () -> salida -> service.escribirCsv(mes, valido, salida));
+    }
+
+    // Totales por grupo: ?agruparPor=ceco|cuentaContable|ctaGastoDepre|cluster (+ los mismos filtros del listado)
+    @GetMapping("/totales")
+    public ResponseEntity<List<TotalGrupoDTO>> totales(@RequestParam(defaultValue = "ceco") String agruparPor,
+                                                       FiltroActivos filtro, WebRequest request) {
+        Agrupacion agrupacion = agrupacion(agruparPor);
+        FiltroActivos valido = validar(filtro);
+        return condicional(request, () -> service.totalizar(null, agrupacion, valido));
+    }
+
+    @RequestMapping(value = "/calcular/{mes}/totales", method = {RequestMethod.GET, RequestMethod.POST})
+    public ResponseEntity<List<TotalGrupoDTO>> totalesCalculoMes(@PathVariable int mes,
+                                                                 @RequestParam(defaultValue = "ceco") String agruparPor,
+                                                                 FiltroActivos filtro, WebRequest request) {
+        Agrupacion agrupacion = agrupacion(agruparPor);
+        FiltroActivos valido = validar(filtro);
+        return condicional(request, () -> service.totalizar(mes, agrupacion, valido));
+    }
+
+    // Aciertos/fallos de la caché de /calcular/{mes}
+    @GetMapping("/cache/estadisticas")
+    public EstadisticasCacheDTO estadisticasCache() {
+        return cache.estadisticas();
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(WebRequest request, StreamingResponseBody cuerpo) {
+        return condicional(request, respuesta -> respuesta.contentType(MediaType.APPLICATION_NDJSON), () -> cuerpo);
+    }
+
+    private ResponseEntity<TablaColumnarDTO> columnar(WebRequest request, Supplier<TablaColumnarDTO> cuerpo) {
+        try {
+            return condicional(request, FORMATO_COLUMNAR,
+                    VARIA_POR_ACCEPT.andThen(respuesta -> respuesta.contentType(COLUMNAR)), cuerpo);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // ?formato= manda; si no viene, se usa columnar sólo si el cliente lo pide en Accept
+    private boolean columnar(String formato, WebRequest request) {
+        if (FiltroActivos.tieneTexto(formato)) {
+            if (FORMATO_COLUMNAR.equalsIgnoreCase(formato.trim())) return true;
+            if (FORMATO_JSON.equalsIgnoreCase(formato.trim())) return false;
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "formato debe ser json o columnar");
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) return false;
+        try {
+            return MediaType.parseMediaTypes(accept).stream().anyMatch(COLUMNAR::equalsTypeAndSubtype);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    private <T> ResponseEntity<T> condicional(WebRequest request, Supplier<T> cuerpo) {
+        return condicional(request, respuesta -> { }, cuerpo);
+    }
+
+    private <T> ResponseEntity<T> condicional(WebRequest request, Consumer<ResponseEntity.BodyBuilder> encabezados,
+                                              Supplier<T> cuerpo) {
+        return condicional(request, null, encabezados, cuerpo);
+    }
+
+    // La versión se lee antes que los datos: si cambia durante el cálculo, el cliente sólo vuelve a pedir de más.
+    // checkNotModified agrega ETag y Last-Modified a la respuesta y, si el cliente ya tiene esta versión, deja el 304.
+    // Con formato, el ETag lo incluye: JSON y columnar de la misma versión no son la misma representación
+    private <T> ResponseEntity<T> condicional(WebRequest request, String formato,
+                                              Consumer<ResponseEntity.BodyBuilder> encabezados, Supplier<T> cuerpo) {
+        if (request.checkNotModified(etag(versionDatos.actual(), formato), versionDatos.ultimaModificacion())) {
+            return null;
+        }
+        // no-cache: el navegador guarda la respuesta pero revalida siempre (responde 304 mientras no haya importaciones)
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        encabezados.accept(respuesta);
+        return respuesta.body(cuerpo.get());
+    }
+
+    // Débil (W/): Tomcat no comprime respuestas con ETag fuerte, porque los bytes en gzip no son los mismos.
+    // If-None-Match compara en forma débil, así que el 304 funciona igual
+    private static String etag(long version, String formato) {
+        return "W/\"v" + version + (formato != null && !FORMATO_JSON.equals(formato) ? "-" + formato : "") + "\"";
+    }
+
+    private FiltroActivos validar(FiltroActivos filtro) {
+        String estado = filtro.getEstado();
+        if (FiltroActivos.tieneTexto(estado)
+                && !FiltroActivos.ACTIVO.equalsIgnoreCase(estado.trim())
+                && !FiltroActivos.COMPLETADO.equalsIgnoreCase(estado.trim())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "estado debe ser ACTIVO o COMPLETADO");
+        }
+        return filtro;
+    }
+
+    private Agrupacion agrupacion(String agruparPor) {
+        try {
+            return Agrupacion.desde(agruparPor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private int limitarTamanio(int tamanio) {
+        return Math.max(1, Math.min(tamanio, TAMANIO_MAXIMO_PAGINA));
     }
 }
@@ -0,0 +1,24 @@
+package com.superinka.gestionactivos.Controller;
+
+import com.superinka.gestionactivos.dto.EstadoCargaDTO;
+import com.superinka.gestionactivos.service.EstadoCarga;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/carga")
+@CrossOrigin(origins = "*")
+public class CargaController {
+
+    @Autowired
+    private EstadoCarga estadoCarga;
+
+    //Avance de la carga inicial (disponible mientras el resto de /api responde 503)
+    @GetMapping
+    public EstadoCargaDTO estado() {
+        return estadoCarga.estado();
+    }
+}
@@ -0,0 +1,22 @@
+package com.superinka.gestionactivos.Controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class ConfiguracionWeb implements WebMvcConfigurer {
+
+    @Autowired
+    private MedicionSerializacion medicionSerializacion;
+
+    @Autowired
+    private EsperaCarga esperaCarga;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(esperaCarga).addPathPatterns("/api/**").excludePathPatterns("/api/carga");
+        registry.addInterceptor(medicionSerializacion).addPathPatterns("/api/**");
+    }
+}
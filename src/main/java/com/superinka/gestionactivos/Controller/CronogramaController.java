@@ -0,0 +1,50 @@
+package com.superinka.gestionactivos.Controller;
+
+import com.superinka.gestionactivos.dto.CierrePeriodoDTO;
+import com.superinka.gestionactivos.dto.PeriodoActivoDTO;
+import com.superinka.gestionactivos.dto.PeriodoCerradoDTO;
+import com.superinka.gestionactivos.service.CronogramaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/activos/cronograma")
+@CrossOrigin(origins = "*")
+public class CronogramaController {
+
+    @Autowired
+    private CronogramaService service;
+
+    //Periodos cerrados
+    @GetMapping("/cierres")
+    public List<PeriodoCerradoDTO> cierres() {
+        return service.obtenerCierres();
+    }
+
+    //Cierra el mes: calcula desde el acumulado del mes anterior y lo guarda
+    //409 si hay otro cierre o una importacion en curso
+    @PostMapping("/{anio}/{mes}/cerrar")
+    public CierrePeriodoDTO cerrarMes(@PathVariable int anio, @PathVariable int mes) {
+        try {
+            return service.cerrarMes(anio, mes);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    //Depreciacion guardada de un mes cerrado
+    @GetMapping("/{anio}/{mes}")
+    public List<PeriodoActivoDTO> obtenerPeriodo(@PathVariable int anio, @PathVariable int mes) {
+        List<PeriodoActivoDTO> periodo = service.obtenerPeriodo(anio, mes);
+        if (periodo == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "El periodo " + anio + "-" + mes + " no está cerrado");
+        }
+        return periodo;
+    }
+}
@@ -0,0 +1,66 @@
+package com.superinka.gestionactivos.Controller;
+
+import com.superinka.gestionactivos.service.EstadoCarga;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * Mientras corre la carga inicial, /api responde de inmediato 503 con Retry-After y el avance
+ * (el mismo cuerpo que GET /api/carga) en lugar de consultar una BD a medio cargar.
+ * Con activos.carga.servir-parciales=true las consultas (GET/HEAD) pasan y la respuesta lleva
+ * X-Datos-Parciales: true; las escrituras (importar, cerrar un mes) siguen esperando, porque
+ * sobre una tabla a medio cargar mezclarían datos. Si la carga falló, 503 sin Retry-After.
+ */
+@Component
+public class EsperaCarga implements HandlerInterceptor {
+
+    static final String DATOS_PARCIALES = "X-Datos-Parciales";
+
+    private final EstadoCarga estadoCarga;
+    private final ObjectMapper objectMapper;
+    private final boolean servirParciales;
+    private final int reintentarEnSegundos;
+
+    public EsperaCarga(EstadoCarga estadoCarga, ObjectMapper objectMapper,
+                       @Value("${activos.carga.servir-parciales:false}") boolean servirParciales,
+                       @Value("${activos.carga.reintentar-en-segundos:5}") int reintentarEnSegundos) {
+        this.estadoCarga = estadoCarga;
+        this.objectMapper = objectMapper;
+        this.servirParciales = servirParciales;
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (estadoCarga.lista() || CorsUtils.isPreFlightRequest(request)) {
+            return true;
+        }
+        boolean fallida = estadoCarga.fallida();
+        if (servirParciales && !fallida && consulta(request)) {
+            response.setHeader(DATOS_PARCIALES, "true");
+            return true;
+        }
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        if (!fallida) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(reintentarEnSegundos));
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), estadoCarga.estado());
+        return false;
+    }
+
+    private static boolean consulta(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    }
+}
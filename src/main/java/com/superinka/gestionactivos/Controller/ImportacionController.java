@@ -0,0 +1,63 @@
+package com.superinka.gestionactivos.Controller;
+
+import com.superinka.gestionactivos.dto.EstadoImportacionDTO;
+import com.superinka.gestionactivos.service.ImportacionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/activos/import")
+@CrossOrigin(origins = "*")
+public class ImportacionController {
+
+    @Autowired
+    private ImportacionService service;
+
+    //Sube el CSV (multipart, campo "archivo") y lo importa en segundo plano: responde 202 con el id del trabajo
+    //modo=reemplazar (por defecto) reemplaza los activos actuales por los del archivo en una sola transaccion
+    //modo=delta compara por codigo + numeroFila y sólo inserta las nuevas y actualiza las cambiadas;
+    //con retirarFaltantes=true marca como retiradas las que no vinieron en el archivo
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<EstadoImportacionDTO> importar(@RequestParam("archivo") MultipartFile archivo,
+                                                         @RequestParam(defaultValue = ImportacionService.MODO_REEMPLAZAR) String modo,
+                                                         @RequestParam(defaultValue = "false") boolean retirarFaltantes) {
+        EstadoImportacionDTO estado;
+        try {
+            estado = service.iniciar(archivo, modo, retirarFaltantes);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "No se pudo recibir el archivo", e);
+        }
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(estado.getId()).toUri())
+                .body(estado);
+    }
+
+    //Importaciones recientes (la mas antigua primero)
+    @GetMapping
+    public List<EstadoImportacionDTO> listar() {
+        return service.listar();
+    }
+
+    //Avance: bytes y filas leidas, filas escritas, rechazadas, filas/s y segundos restantes
+    @GetMapping("/{id}")
+    public EstadoImportacionDTO estado(@PathVariable String id) {
+        EstadoImportacionDTO estado = service.obtener(id);
+        if (estado == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No existe la importación " + id);
+        }
+        return estado;
+    }
+}
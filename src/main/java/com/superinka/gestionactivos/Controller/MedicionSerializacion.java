@@ -0,0 +1,63 @@
+package com.superinka.gestionactivos.Controller;
+
+import com.superinka.gestionactivos.service.MetricasActivos;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Fase "serialize" de activos.fase: desde que el controlador entrega el cuerpo JSON hasta que
+ * terminó de escribirse en la respuesta. beforeBodyWrite marca el inicio justo antes del
+ * conversor de Jackson y afterCompletion (que corre después de escribir el cuerpo) registra
+ * el tiempo con la misma operación que las otras fases de la petición (la deja el servicio en
+ * un atributo, ver MetricasActivos); los endpoints sin fases medidas usan la ruta. Las
+ * respuestas en streaming (NDJSON) no pasan por aquí.
+ */
+@ControllerAdvice(basePackageClasses = ActivoController.class)
+public class MedicionSerializacion implements ResponseBodyAdvice<Object>, HandlerInterceptor {
+
+    private static final String INICIO = MedicionSerializacion.class.getName() + ".inicio";
+
+    @Autowired
+    private MetricasActivos metricas;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servlet && json(selectedContentType)) {
+            servlet.getServletRequest().setAttribute(INICIO, System.nanoTime());
+        }
+        return body;
+    }
+
+    // JSON normal o columnar (application/vnd.activos.columnar+json)
+    private static boolean json(MediaType tipo) {
+        return MediaType.APPLICATION_JSON.isCompatibleWith(tipo) || ActivoController.COLUMNAR.isCompatibleWith(tipo);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(INICIO) instanceof Long inicio) {
+            Object operacion = request.getAttribute(MetricasActivos.ATRIBUTO_OPERACION);
+            if (operacion == null) operacion = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            metricas.registrar(operacion != null ? operacion.toString() : request.getRequestURI(),
+                    MetricasActivos.SERIALIZE, System.nanoTime() - inicio);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.superinka.gestionactivos.Controller;
+
+import com.superinka.gestionactivos.dto.ResultadoSimulacionDTO;
+import com.superinka.gestionactivos.dto.SimulacionDTO;
+import com.superinka.gestionactivos.service.SimulacionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/activos/simular")
+@CrossOrigin(origins = "*")
+public class SimulacionController {
+
+    @Autowired
+    private SimulacionService service;
+
+    //Evalua varios escenarios (cambios de %, retiros y ajustes de valor por ceco/cuenta/codigo) sobre la cartera actual
+    //Devuelve los totales de la base y de cada escenario y, con detalle=true, los activos que cambian. No guarda nada
+    @PostMapping
+    public ResultadoSimulacionDTO simular(@RequestBody SimulacionDTO pedido) {
+        try {
+            return service.simular(pedido);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
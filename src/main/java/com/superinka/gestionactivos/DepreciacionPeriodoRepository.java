@@ -0,0 +1,28 @@
+package com.superinka.gestionactivos;
+
+import com.superinka.gestionactivos.dto.PeriodoActivoDTO;
+import com.superinka.gestionactivos.dto.SaldoActivo;
+import com.superinka.gestionactivos.entity.DepreciacionPeriodo;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface DepreciacionPeriodoRepository extends JpaRepository<DepreciacionPeriodo, Long> {
+
+    // Activos vigentes por lote (id > despuesDe) con el acumulado del periodo anterior, si está cerrado
+    @Query("select new com.superinka.gestionactivos.dto.SaldoActivo(a.id, a.valorHistorico, a.porcentajeDepreciacion, "
+            + "a.depreciacionAcumuladaInicio, d.depreciacionAcumulada) "
+            + "from Activo a left join DepreciacionPeriodo d on d.activoId = a.id and d.periodo = :anterior "
+            + "where a.id > :despuesDe and a.retirado = false order by a.id")
+    List<SaldoActivo> findSaldosDespuesDe(@Param("anterior") int periodoAnterior, @Param("despuesDe") long despuesDe,
+                                          Limit limite);
+
+    @Query("select new com.superinka.gestionactivos.dto.PeriodoActivoDTO(a.codigo, a.descripcion, a.ceco, d.anio, d.mes, "
+            + "a.valorHistorico, d.depreciacion, d.depreciacionAcumulada, d.costoNeto) "
+            + "from DepreciacionPeriodo d join Activo a on a.id = d.activoId "
+            + "where d.periodo = :periodo order by d.activoId")
+    List<PeriodoActivoDTO> findCronograma(@Param("periodo") int periodo);
+}
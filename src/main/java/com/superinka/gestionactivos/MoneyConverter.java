@@ -7,6 +7,11 @@ public class MoneyConverter extends AbstractBeanField<BigDecimal, String> {
 
     @Override
     protected Object convert(String value) {
+        return aMonto(value);
+    }
+
+    // Regla de limpieza compartida con el parser de carga (carga.ConversorMonto)
+    public static BigDecimal aMonto(String value) {
         if (value == null || value.trim().isEmpty()) {
             return BigDecimal.ZERO;
         }
@@ -0,0 +1,74 @@
+package com.superinka.gestionactivos.carga;
+
+import com.superinka.gestionactivos.MoneyConverter;
+
+import java.math.BigDecimal;
+
+/**
+ * Conversión de celdas de monto/porcentaje directamente desde el buffer del parser.
+ *
+ * Aplica la misma regla que {@link MoneyConverter} (vacío o guion -> 0, se ignoran
+ * ",", "%", "$" y "S/", texto inválido -> 0) pero recorriendo los caracteres una sola
+ * vez y acumulando el valor en un long, sin crear Strings intermedios. Las celdas poco
+ * comunes (letras, exponentes, "S/", más de 18 dígitos) se delegan a MoneyConverter.
+ */
+public final class ConversorMonto {
+
+    private static final int MAX_DIGITOS_LONG = 18;
+
+    private ConversorMonto() {
+    }
+
+    public static BigDecimal convertir(char[] buf, int ini, int fin) {
+        // trim() del valor original
+        while (ini < fin && buf[ini] <= ' ') ini++;
+        while (fin > ini && buf[fin - 1] <= ' ') fin--;
+        if (ini == fin) return BigDecimal.ZERO;
+
+        // "-" o "- ..." es cero
+        if (buf[ini] == '-' && (fin - ini == 1 || buf[ini + 1] == ' ')) return BigDecimal.ZERO;
+
+        long sinEscala = 0;
+        int digitos = 0;
+        int escala = -1;          // -1: todavía no aparece el punto
+        boolean negativo = false;
+        boolean empezo = false;   // ya apareció un carácter significativo (signo, dígito o punto)
+        boolean espacioPendiente = false;
+        // El texto es inválido (-> 0), salvo que más adelante aparezca algo que sólo entiende MoneyConverter
+        boolean invalido = false;
+
+        for (int i = ini; i < fin; i++) {
+            char c = buf[i];
+            if (c == ',' || c == '%' || c == '$') continue;
+
+            if (c <= ' ') {
+                // Sólo vale al borde (lo quita el segundo trim); en medio invalida el número
+                if (empezo) espacioPendiente = true;
+                continue;
+            }
+
+            if (c >= '0' && c <= '9') {
+                if (++digitos > MAX_DIGITOS_LONG) return lento(buf, ini, fin);
+                sinEscala = sinEscala * 10 + (c - '0');
+                if (escala >= 0) escala++;
+            } else if (c == '.') {
+                if (escala >= 0) invalido = true;
+                escala = 0;
+            } else if (c == '+' || c == '-') {
+                if (empezo) invalido = true;
+                negativo = c == '-';
+            } else {
+                return lento(buf, ini, fin);
+            }
+            if (espacioPendiente) invalido = true;
+            empezo = true;
+        }
+
+        if (invalido || digitos == 0) return BigDecimal.ZERO;
+        return BigDecimal.valueOf(negativo ? -sinEscala : sinEscala, Math.max(escala, 0));
+    }
+
+    private static BigDecimal lento(char[] buf, int ini, int fin) {
+        return MoneyConverter.aMonto(new String(buf, ini, fin - ini));
+    }
+}
@@ -0,0 +1,256 @@
+package com.superinka.gestionactivos.carga;
+
+import com.superinka.gestionactivos.entity.Activo;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Inserción masiva de activos con JDBC batch.
+ *
+ * Con GenerationType.IDENTITY Hibernate no puede agrupar los INSERT (necesita el id de
+ * cada fila), así que saveAll hace un viaje a la BD por activo. Aquí el id lo sigue
+ * generando la columna identity, pero las filas viajan en lotes; con
+ * reWriteBatchedInserts=true el driver de PostgreSQL los convierte en INSERT multi-fila.
+ * Las cargas completas pasan por {@link CargaCompleta}, que resuelve las claves repetidas.
+ */
+@Component
+public class EscritorActivosJdbc {
+
+    private record Columna(String nombre, Function<Activo, Object> valor) {
+    }
+
+    private record Clave(String codigo, String numeroFila) {
+    }
+
+    // Mismo orden y nombres que genera Hibernate (CamelCase -> snake_case) para activos_fijos_2025
+    private static final List<Columna> COLUMNAS = List.of(
+            new Columna("numero_fila", Activo::getNumeroFila),
+            new Columna("codigo", Activo::getCodigo),
+            new Columna("cuenta_contable", Activo::getCuentaContable),
+            new Columna("nota_informe_costo", Activo::getNotaInformeCosto),
+            new Columna("nota_informe_depre", Activo::getNotaInformeDepre),
+            new Columna("cuenta_netsuite", Activo::getCuentaNetsuite),
+            new Columna("grupo_cuenta_netsuite", Activo::getGrupoCuentaNetsuite),
+            new Columna("cta_dep_netsuite", Activo::getCtaDepNetsuite),
+            new Columna("cta_gasto_depre", Activo::getCtaGastoDepre),
+            new Columna("detalle_dep_netsuite", Activo::getDetalleDepNetsuite),
+            new Columna("ceco", Activo::getCeco),
+            new Columna("ceco2", Activo::getCeco2),
+            new Columna("oc", Activo::getOc),
+            new Columna("factura", Activo::getFactura),
+            new Columna("cluster", Activo::getCluster),
+            new Columna("sub_diario", Activo::getSubDiario),
+            new Columna("numero_correlativo", Activo::getNumeroCorrelativo),
+            new Columna("descripcion", Activo::getDescripcion),
+            new Columna("marca", Activo::getMarca),
+            new Columna("modelo", Activo::getModelo),
+            new Columna("serie_placa", Activo::getSeriePlaca),
+            new Columna("saldo_inicial", Activo::getSaldoInicial),
+            new Columna("adquisiciones", Activo::getAdquisiciones),
+            new Columna("mejoras", Activo::getMejoras),
+            new Columna("retiros", Activo::getRetiros),
+            new Columna("otros_ajustes", Activo::getOtrosAjustes),
+            new Columna("valor_historico", Activo::getValorHistorico),
+            new Columna("ajustado_inflacion", Activo::getAjustadoInflacion),
+            new Columna("valor_ajustado", Activo::getValorAjustado),
+            new Columna("fecha_adquisicion", Activo::getFechaAdquisicion),
+            new Columna("fecha_inicio_uso", Activo::getFechaInicioUso),
+            new Columna("metodo_depreciacion", Activo::getMetodoDepreciacion),
+            new Columna("nro_documento_autorizacion", Activo::getNroDocumentoAutorizacion),
+            new Columna("porcentaje_depreciacion", Activo::getPorcentajeDepreciacion),
+            new Columna("vida_util_anios", Activo::getVidaUtilAnios),
+            new Columna("depreciacion_acumulada_inicio", Activo::getDepreciacionAcumuladaInicio),
+            new Columna("ene25", Activo::getEne25),
+            new Columna("feb25", Activo::getFeb25),
+            new Columna("mar25", Activo::getMar25),
+            new Columna("abr25", Activo::getAbr25),
+            new Columna("may25", Activo::getMay25),
+            new Columna("jun25", Activo::getJun25),
+            new Columna("jul25", Activo::getJul25),
+            new Columna("ago25", Activo::getAgo25),
+            new Columna("set25", Activo::getSet25),
+            new Columna("oct25", Activo::getOct25),
+            new Columna("nov25", Activo::getNov25),
+            new Columna("dic25", Activo::getDic25),
+            new Columna("total_depreciacion2025", Activo::getTotalDepreciacion2025),
+            new Columna("total_depreciacion_acumulada", Activo::getTotalDepreciacionAcumulada),
+            new Columna("costo_neto", Activo::getCostoNeto)
+    );
+
+    // Columnas que forman la clave de la reimportación delta (uk_activos_codigo_fila)
+    private static final List<String> CLAVE = List.of("codigo", "numero_fila");
+
+    private static final String SQL_INSERT = "INSERT INTO activos_fijos_2025 ("
+            + COLUMNAS.stream().map(Columna::nombre).collect(Collectors.joining(", "))
+            + ", hash_contenido, retirado) VALUES ("
+            + COLUMNAS.stream().map(c -> "?").collect(Collectors.joining(", "))
+            + ", ?, false)";
+
+    // Fila nueva o cambiada: el id de las existentes no cambia (el cronograma guardado sigue apuntando a ellas)
+    private static final String SQL_UPSERT = SQL_INSERT
+            + " ON CONFLICT (" + String.join(", ", CLAVE) + ") DO UPDATE SET "
+            + COLUMNAS.stream().map(Columna::nombre).filter(c -> !CLAVE.contains(c))
+                    .map(c -> c + " = EXCLUDED." + c).collect(Collectors.joining(", "))
+            + ", hash_contenido = EXCLUDED.hash_contenido, retirado = false";
+
+    // Clave repetida en una carga completa: la fila ya insertada toma los valores de la última aparición
+    private static final String SQL_ACTUALIZAR = "UPDATE activos_fijos_2025 SET "
+            + COLUMNAS.stream().map(Columna::nombre).filter(c -> !CLAVE.contains(c))
+                    .map(c -> c + " = ?").collect(Collectors.joining(", "))
+            + ", hash_contenido = ?, retirado = false WHERE codigo = ? AND numero_fila = ?";
+
+    private static final String SQL_RETIRAR =
+            "UPDATE activos_fijos_2025 SET retirado = true WHERE codigo = ? AND numero_fila = ?";
+
+    private static final byte[] NULO = {0};
+    private static final byte[] SEPARADOR = {0x1F};
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EscritorActivosJdbc(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Inserta los activos en un solo batch JDBC y devuelve cuántas filas se enviaron. */
+    public int insertar(List<Activo> activos) {
+        if (activos.isEmpty()) return 0;
+        jdbcTemplate.batchUpdate(SQL_INSERT, activos, activos.size(), this::asignarParametros);
+        return activos.size();
+    }
+
+    /** Carga completa sobre la tabla vacía (carga inicial o importación en modo reemplazar). */
+    public CargaCompleta iniciarCarga() {
+        return new CargaCompleta();
+    }
+
+    /**
+     * Una carga completa, lote por lote con INSERT. Si el archivo repite una clave (codigo,
+     * numero_fila), gana la última aparición, igual que en la reimportación delta: dentro del
+     * lote reemplaza a la anterior y, si ésta ya se insertó en un lote previo, la actualiza.
+     * Así una clave repetida no viola uk_activos_codigo_fila. Sin numero_fila no hay clave (en
+     * la restricción, null no se repite). No es thread-safe: los lotes llegan desde un solo hilo.
+     */
+    public final class CargaCompleta {
+
+        private final Set<Clave> vistas = new HashSet<>();
+        private volatile long duplicados;
+
+        private CargaCompleta() {
+        }
+
+        /** Escribe el lote y devuelve cuántas filas nuevas insertó (sin contar las repetidas). */
+        public int insertar(List<Activo> lote) {
+            List<Activo> nuevas = new ArrayList<>(lote.size());
+            Map<Clave, Integer> posiciones = new HashMap<>();
+            Map<Clave, Activo> repetidas = new LinkedHashMap<>();
+            for (Activo activo : lote) {
+                if (activo.getCodigo() == null || activo.getNumeroFila() == null) {
+                    nuevas.add(activo);
+                    continue;
+                }
+                Clave clave = new Clave(activo.getCodigo(), activo.getNumeroFila());
+                if (vistas.add(clave)) {
+                    posiciones.put(clave, nuevas.size());
+                    nuevas.add(activo);
+                    continue;
+                }
+                duplicados++;
+                Integer posicion = posiciones.get(clave);
+                if (posicion != null) {
+                    nuevas.set(posicion, activo);
+                } else {
+                    repetidas.put(clave, activo);
+                }
+            }
+            int insertadas = EscritorActivosJdbc.this.insertar(nuevas);
+            actualizar(new ArrayList<>(repetidas.values()));
+            return insertadas;
+        }
+
+        /** Apariciones de una clave ya vista (reemplazaron a la anterior). */
+        public long duplicados() {
+            return duplicados;
+        }
+    }
+
+    private void actualizar(List<Activo> activos) {
+        if (activos.isEmpty()) return;
+        jdbcTemplate.batchUpdate(SQL_ACTUALIZAR, activos, activos.size(), (ps, activo) -> {
+            int i = 1;
+            for (Columna columna : COLUMNAS) {
+                if (!CLAVE.contains(columna.nombre())) ps.setObject(i++, columna.valor().apply(activo));
+            }
+            ps.setLong(i++, activo.getHashContenido() != null ? activo.getHashContenido() : hashContenido(activo));
+            ps.setString(i++, activo.getCodigo());
+            ps.setString(i, activo.getNumeroFila());
+        });
+    }
+
+    /**
+     * Inserta o actualiza por (codigo, numero_fila) en un solo batch. Una misma clave no puede
+     * repetirse dentro del lote (PostgreSQL no actualiza dos veces la misma fila en un INSERT).
+     */
+    public int insertarOActualizar(List<Activo> activos) {
+        if (activos.isEmpty()) return 0;
+        jdbcTemplate.batchUpdate(SQL_UPSERT, activos, activos.size(), this::asignarParametros);
+        return activos.size();
+    }
+
+    /** Marca como retiradas las filas con esas claves ({codigo, numeroFila}). */
+    public int retirar(List<String[]> claves) {
+        if (claves.isEmpty()) return 0;
+        jdbcTemplate.batchUpdate(SQL_RETIRAR, claves, claves.size(), (ps, clave) -> {
+            ps.setString(1, clave[0]);
+            ps.setString(2, clave[1]);
+        });
+        return claves.size();
+    }
+
+    /**
+     * Huella de 64 bits de todas las columnas del CSV (SHA-256 truncado): distinta si cambia
+     * cualquier valor, incluida la escala de los montos.
+     */
+    public static long hashContenido(Activo activo) {
+        MessageDigest digest = DIGEST.get();
+        for (Columna columna : COLUMNAS) {
+            Object valor = columna.valor().apply(activo);
+            // El separador evita que "ab" + "c" coincida con "a" + "bc"; null no coincide con ""
+            digest.update(valor == null ? NULO : valor.toString().getBytes(StandardCharsets.UTF_8));
+            digest.update(SEPARADOR);
+        }
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    private void asignarParametros(PreparedStatement ps, Activo activo) throws SQLException {
+        for (int i = 0; i < COLUMNAS.size(); i++) {
+            ps.setObject(i + 1, COLUMNAS.get(i).valor().apply(activo));
+        }
+        // Si la calculó la reimportación delta se reutiliza
+        long hash = activo.getHashContenido() != null ? activo.getHashContenido() : hashContenido(activo);
+        ps.setLong(COLUMNAS.size() + 1, hash);
+    }
+}
@@ -0,0 +1,395 @@
+package com.superinka.gestionactivos.carga;
+
+import com.superinka.gestionactivos.entity.Activo;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Parser en streaming del export de activos (separado por ";").
+ *
+ * Reemplaza la cadena "regex por línea + StringBuilder por registro + replace de comillas
+ * + OpenCSV por lote" con una sola pasada sobre un buffer de caracteres, dando el mismo
+ * resultado que esa cadena:
+ * <ul>
+ *   <li>Una línea inicia registro si empieza (tras espacios) con un número o "#", opcionalmente
+ *       entre comillas, seguido de ";". Las demás líneas no vacías son continuación y se pegan
+ *       al registro anterior con un espacio, recortadas.</li>
+ *   <li>Las comillas se descartan al copiar el registro.</li>
+ *   <li>Las columnas se asocian por nombre de cabecera (sin distinguir mayúsculas ni espacios
+ *       al borde; si un nombre se repite gana la última columna). Un registro con distinta
+ *       cantidad de campos que la cabecera se rechaza, igual que un registro sin código.</li>
+ *   <li>Los montos se convierten con {@link ConversorMonto} directamente desde el buffer.</li>
+ * </ul>
+ * No es thread-safe: cada hilo usa su propia instancia.
+ */
+public final class ParserCsvActivos {
+
+    public static final char SEPARADOR = ';';
+
+    private interface Asignador {
+        void asignar(Activo activo, char[] buf, int ini, int fin);
+    }
+
+    private static Asignador texto(BiConsumer<Activo, String> setter) {
+        return (a, buf, ini, fin) -> setter.accept(a, new String(buf, ini, fin - ini));
+    }
+
+    private static Asignador monto(BiConsumer<Activo, BigDecimal> setter) {
+        return (a, buf, ini, fin) -> setter.accept(a, ConversorMonto.convertir(buf, ini, fin));
+    }
+
+    // Mismos nombres de columna que las anotaciones @CsvBindByName / @CsvCustomBindByName de Activo
+    private static final Map<String, Asignador> COLUMNAS = new HashMap<>();
+
+    private static void columna(String nombre, Asignador asignador) {
+        COLUMNAS.put(normalizarNombre(nombre), asignador);
+    }
+
+    static {
+        columna("#", texto(Activo::setNumeroFila));
+        columna("CODIGO RELACIONADO CON EL ACTIVO FIJO", texto(Activo::setCodigo));
+        columna("CUENTA CONTABLE DEL", texto(Activo::setCuentaContable));
+        columna("NOTA INFORME SEGÚN COSTO", texto(Activo::setNotaInformeCosto));
+        columna("NOTA INFORME SEGÚN DEPRE", texto(Activo::setNotaInformeDepre));
+        columna("CUENTA NETSUIE", texto(Activo::setCuentaNetsuite));
+        columna("GRUPO CUENTA DETALLE NETSUIE", texto(Activo::setGrupoCuentaNetsuite));
+        columna("CTA DEP NETSUIE", texto(Activo::setCtaDepNetsuite));
+        columna("CTA GASTO X DEPRE", texto(Activo::setCtaGastoDepre));
+        columna("DETALLE DEP NETSUIE", texto(Activo::setDetalleDepNetsuite));
+        columna("CeCo", texto(Activo::setCeco));
+        columna("CeCo 2", texto(Activo::setCeco2));
+        columna("OC", texto(Activo::setOc));
+        columna("FACTURA", texto(Activo::setFactura));
+        columna("Claster", texto(Activo::setCluster));
+        columna("SUB DIARIO", texto(Activo::setSubDiario));
+        columna("NÚMERO CORRELATIVO", texto(Activo::setNumeroCorrelativo));
+        columna("DETALLE DEL ACTIVO FIJO: DESCRIPCIÓN", texto(Activo::setDescripcion));
+        columna("DETALLE DEL ACTIVO FIJO: MARCA DEL ACTIVO FIJO", texto(Activo::setMarca));
+        columna("DETALLE DEL ACTIVO FIJO: MODELO DEL ACTIVO FIJO", texto(Activo::setModelo));
+        columna("DETALLE DEL ACTIVO FIJO: NUMERO/SERIE Y/O PLACA ACTIVO FIJO", texto(Activo::setSeriePlaca));
+        columna(" SALDO INCIAL ", monto(Activo::setSaldoInicial));
+        columna(" ADQUISICIONES ADICIONES ", monto(Activo::setAdquisiciones));
+        columna(" MEJORAS ", monto(Activo::setMejoras));
+        columna(" RETIROS Y/O BAJAS ", monto(Activo::setRetiros));
+        columna(" OTROS AJUSTES DEDUCCIONES ", monto(Activo::setOtrosAjustes));
+        columna(" VALOR HISTORICO ACTIVO FIJO Al 09/2025 ", monto(Activo::setValorHistorico));
+        columna("AJUSTADO X INFLACION AJUST X INFL", monto(Activo::setAjustadoInflacion));
+        columna("VALOR AJUSTADO ACTIVO FIJO VAL AJUS A.FIJO", monto(Activo::setValorAjustado));
+        columna(" FECHA ADQUISICION ", texto(Activo::setFechaAdquisicion));
+        columna(" FECHA INICIO DE USO ACTIVO FIJO ", texto(Activo::setFechaInicioUso));
+        columna(" DEPRECIACION METODO APLICADO ", texto(Activo::setMetodoDepreciacion));
+        columna(" DEPRECIACION NRO. DOCUMENTO DE AUTORIZACIÓN ", texto(Activo::setNroDocumentoAutorizacion));
+        columna(" PORCENTAJE DE DEPRECIACION % DEPRE ", monto(Activo::setPorcentajeDepreciacion));
+        columna(" VIDA UTIL EN AÑOS ", monto(Activo::setVidaUtilAnios));
+        columna("DEPRECIACION ACUM AL INICIO 2025 01/01/2025", monto(Activo::setDepreciacionAcumuladaInicio));
+        columna("Ene-25", monto(Activo::setEne25));
+        columna("Feb-25", monto(Activo::setFeb25));
+        columna("Mar-25", monto(Activo::setMar25));
+        columna("Abr-25", monto(Activo::setAbr25));
+        columna("May-25", monto(Activo::setMay25));
+        columna("Jun-25", monto(Activo::setJun25));
+        columna("Jul-25", monto(Activo::setJul25));
+        columna("Ago-25", monto(Activo::setAgo25));
+        columna("Set-25", monto(Activo::setSet25));
+        columna("Oct-25", monto(Activo::setOct25));
+        columna("Nov-25", monto(Activo::setNov25));
+        columna("Dic-25", monto(Activo::setDic25));
+        columna("DEPRECIACION 2025", monto(Activo::setTotalDepreciacion2025));
+        columna(" TOTAL DEPRECIACIONACUMULADA 2025 ", monto(Activo::setTotalDepreciacionAcumulada));
+        columna(" COSTO NETO ", monto(Activo::setCostoNeto));
+    }
+
+    private static String normalizarNombre(String nombre) {
+        return nombre.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /** Totales de una pasada del parser. */
+    public static final class Resultado {
+        private long registros;
+        private long aceptados;
+        private long rechazados;
+
+        public long getRegistros() { return registros; }
+        public long getAceptados() { return aceptados; }
+        public long getRechazados() { return rechazados; }
+
+        void sumar(Resultado otro) {
+            registros += otro.registros;
+            aceptados += otro.aceptados;
+            rechazados += otro.rechazados;
+        }
+    }
+
+    // Asignador por índice de columna de la cabecera (null si la columna no se mapea)
+    private final Asignador[] asignadores;
+    private final int indiceCodigo;
+
+    // Registro en construcción (sin comillas)
+    private char[] registro = new char[2048];
+    private int largo;
+
+    // Buffer de lectura: cada línea queda contigua en [inicioLinea, finLinea)
+    private char[] buffer = new char[64 * 1024];
+    private int posicion;
+    private int limite;
+    private int inicioLinea;
+    private int finLinea;
+    private boolean saltarLf;
+
+    private Resultado resultado;
+    private Consumer<Activo> destino;
+
+    public ParserCsvActivos(String cabecera) {
+        String[] nombres = cabecera.replace("\"", "").split(String.valueOf(SEPARADOR), -1);
+        this.asignadores = new Asignador[nombres.length];
+        int codigo = -1;
+        Asignador asignadorCodigo = COLUMNAS.get(normalizarNombre("CODIGO RELACIONADO CON EL ACTIVO FIJO"));
+
+        // Nombres repetidos: gana la última columna
+        Map<Asignador, Integer> ultimaColumna = new HashMap<>();
+        for (int i = 0; i < nombres.length; i++) {
+            Asignador asignador = COLUMNAS.get(normalizarNombre(nombres[i]));
+            if (asignador != null) ultimaColumna.put(asignador, i);
+        }
+        for (Map.Entry<Asignador, Integer> e : ultimaColumna.entrySet()) {
+            asignadores[e.getValue()] = e.getKey();
+            if (e.getKey() == asignadorCodigo) codigo = e.getValue();
+        }
+        this.indiceCodigo = codigo;
+    }
+
+    /** Lee la cabecera (primera línea) y luego todos los registros del archivo. */
+    public static Resultado parsearArchivo(Reader lector, Consumer<Activo> destino) throws IOException {
+        return parsearArchivo(lector, destino, new Resultado());
+    }
+
+    /**
+     * Igual que {@link #parsearArchivo(Reader, Consumer)}, acumulando en {@code resultado}:
+     * el destino puede consultar el avance (registros, rechazados) entre un activo y otro.
+     */
+    public static Resultado parsearArchivo(Reader lector, Consumer<Activo> destino, Resultado resultado) throws IOException {
+        ParserCsvActivos parser = new ParserCsvActivos("");
+        if (!parser.leerLinea(lector)) return resultado;
+
+        ParserCsvActivos conCabecera = new ParserCsvActivos(
+                new String(parser.buffer, parser.inicioLinea, parser.finLinea - parser.inicioLinea));
+        // Continúa con lo que ya quedó en el buffer
+        conCabecera.buffer = parser.buffer;
+        conCabecera.posicion = parser.posicion;
+        conCabecera.limite = parser.limite;
+        conCabecera.saltarLf = parser.saltarLf;
+        return conCabecera.parsear(lector, destino, resultado);
+    }
+
+    /** Procesa registros (sin cabecera) hasta el fin del lector. La instancia se puede reutilizar con otro lector. */
+    public Resultado parsear(Reader lector, Consumer<Activo> destino) throws IOException {
+        posicion = 0;
+        limite = 0;
+        saltarLf = false;
+        return parsear(lector, destino, new Resultado());
+    }
+
+    private Resultado parsear(Reader lector, Consumer<Activo> destino, Resultado resultado) throws IOException {
+        this.resultado = resultado;
+        this.destino = destino;
+        largo = 0;
+
+        while (leerLinea(lector)) {
+            int ini = inicioLinea;
+            int fin = finLinea;
+            if (esBlanca(ini, fin)) continue;
+
+            if (iniciaRegistro(buffer, ini, fin)) {
+                if (largo > 0) emitirRegistro();
+                largo = 0;
+                copiarSinComillas(ini, fin);
+            } else {
+                // Continuación: " " + línea recortada
+                while (ini < fin && buffer[ini] <= ' ') ini++;
+                while (fin > ini && buffer[fin - 1] <= ' ') fin--;
+                agregar(' ');
+                copiarSinComillas(ini, fin);
+            }
+        }
+        if (largo > 0) emitirRegistro();
+
+        Resultado r = this.resultado;
+        this.resultado = null;
+        this.destino = null;
+        return r;
+    }
+
+    // ==================== Lectura de líneas ====================
+
+    /**
+     * Avanza a la siguiente línea (terminada en \n, \r o \r\n, como BufferedReader.readLine).
+     * Si la línea no cabe en lo que queda del buffer se compacta o se agranda.
+     */
+    private boolean leerLinea(Reader lector) throws IOException {
+        int busqueda = posicion;
+        while (true) {
+            if (saltarLf && busqueda < limite) {
+                if (buffer[busqueda] == '\n') busqueda++;
+                saltarLf = false;
+                posicion = busqueda;
+            }
+            for (int i = busqueda; i < limite; i++) {
+                char c = buffer[i];
+                if (c == '\n' || c == '\r') {
+                    inicioLinea = posicion;
+                    finLinea = i;
+                    posicion = i + 1;
+                    saltarLf = c == '\r';
+                    return true;
+                }
+            }
+            busqueda = limite;
+
+            // Sin fin de línea en el buffer: traer más datos
+            if (posicion > 0) {
+                int pendiente = limite - posicion;
+                System.arraycopy(buffer, posicion, buffer, 0, pendiente);
+                busqueda -= posicion;
+                limite = pendiente;
+                posicion = 0;
+            }
+            if (limite == buffer.length) {
+                char[] mayor = new char[buffer.length * 2];
+                System.arraycopy(buffer, 0, mayor, 0, limite);
+                buffer = mayor;
+            }
+            int leidos = lector.read(buffer, limite, buffer.length - limite);
+            if (leidos < 0) {
+                if (limite > posicion) {
+                    inicioLinea = posicion;
+                    finLinea = limite;
+                    posicion = limite;
+                    return true;
+                }
+                return false;
+            }
+            limite += leidos;
+        }
+    }
+
+    private boolean esBlanca(int ini, int fin) {
+        for (int i = ini; i < fin; i++) {
+            if (buffer[i] > ' ') return false;
+        }
+        return true;
+    }
+
+    /**
+     * Equivalente a {@code linea.matches("^\\s*\"?(\\d+|#)\"?\\s*;.*")}: el ".*" final no acepta
+     * los separadores de línea NEL, LS y PS (U+0085, U+2028, U+2029).
+     * También lo usa {@link ParserCsvParalelo} para cortar el archivo en inicios de registro.
+     */
+    static boolean iniciaRegistro(char[] buffer, int ini, int fin) {
+        int i = ini;
+        while (i < fin && esEspacioRegex(buffer[i])) i++;
+        if (i < fin && buffer[i] == '"') i++;
+        if (i >= fin) return false;
+        if (buffer[i] == '#') {
+            i++;
+        } else {
+            int inicioDigitos = i;
+            while (i < fin && buffer[i] >= '0' && buffer[i] <= '9') i++;
+            if (i == inicioDigitos) return false;
+        }
+        if (i < fin && buffer[i] == '"') i++;
+        while (i < fin && esEspacioRegex(buffer[i])) i++;
+        if (i >= fin || buffer[i] != SEPARADOR) return false;
+        for (i++; i < fin; i++) {
+            char c = buffer[i];
+            if (c == '\u0085' || c == '\u2028' || c == '\u2029') return false;
+        }
+        return true;
+    }
+
+    // \s de java.util.regex: [ \t\n\x0B\f\r]
+    private static boolean esEspacioRegex(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private void copiarSinComillas(int ini, int fin) {
+        asegurarCapacidad(largo + (fin - ini));
+        for (int i = ini; i < fin; i++) {
+            char c = buffer[i];
+            if (c != '"') registro[largo++] = c;
+        }
+    }
+
+    private void agregar(char c) {
+        asegurarCapacidad(largo + 1);
+        registro[largo++] = c;
+    }
+
+    private void asegurarCapacidad(int necesaria) {
+        if (necesaria > registro.length) {
+            char[] mayor = new char[Math.max(necesaria, registro.length * 2)];
+            System.arraycopy(registro, 0, mayor, 0, largo);
+            registro = mayor;
+        }
+    }
+
+    // ==================== Registro -> Activo ====================
+
+    private void emitirRegistro() {
+        resultado.registros++;
+
+        // Misma cantidad de campos que la cabecera, si no se rechaza
+        int campos = 1;
+        for (int i = 0; i < largo; i++) {
+            if (registro[i] == SEPARADOR) campos++;
+        }
+        if (campos != asignadores.length) {
+            resultado.rechazados++;
+            return;
+        }
+
+        // Validación mínima: código no vacío
+        if (indiceCodigo < 0) {
+            resultado.rechazados++;
+            return;
+        }
+
+        Activo activo = new Activo();
+        int columna = 0;
+        int inicioCampo = 0;
+        boolean codigoValido = false;
+        for (int i = 0; i <= largo; i++) {
+            if (i == largo || registro[i] == SEPARADOR) {
+                Asignador asignador = asignadores[columna];
+                if (asignador != null) {
+                    asignador.asignar(activo, registro, inicioCampo, i);
+                }
+                if (columna == indiceCodigo) {
+                    codigoValido = !esBlancaRegistro(inicioCampo, i);
+                }
+                columna++;
+                inicioCampo = i + 1;
+            }
+        }
+
+        if (!codigoValido) {
+            resultado.rechazados++;
+            return;
+        }
+        resultado.aceptados++;
+        destino.accept(activo);
+    }
+
+    private boolean esBlancaRegistro(int ini, int fin) {
+        for (int i = ini; i < fin; i++) {
+            if (registro[i] > ' ') return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,209 @@
+package com.superinka.gestionactivos.carga;
+
+import com.superinka.gestionactivos.entity.Activo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Parseo en paralelo de un archivo mapeado en memoria.
+ *
+ * Lo único que obliga a leer en orden es la unión de las líneas de continuación con el
+ * registro anterior. Por eso el archivo se corta en rangos de bytes que empiezan siempre en
+ * una línea que inicia registro (la misma regla de {@link ParserCsvActivos}): ninguna
+ * continuación cruza un corte. En UTF-8 los bytes \n y \r no aparecen dentro de un carácter
+ * multibyte, así que los cortes caen siempre entre caracteres.
+ *
+ * Cada rango lo parsea una instancia propia de ParserCsvActivos en un hilo del pool; los
+ * activos se entregan al destino en el hilo que llama y en el orden del archivo (mismo
+ * resultado e ids que la lectura secuencial). Sólo hay unos pocos rangos en vuelo a la vez,
+ * así la memoria no depende del tamaño del archivo.
+ */
+public final class ParserCsvParalelo {
+
+    public static final int BYTES_POR_RANGO = 256 * 1024;
+
+    private ParserCsvParalelo() {
+    }
+
+    private record Parte(List<Activo> activos, ParserCsvActivos.Resultado resultado) {
+    }
+
+    /** Archivos de más de 2 GB no se pueden mapear en un solo buffer: se leen en secuencia. */
+    public static boolean admite(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            return canal.size() <= Integer.MAX_VALUE;
+        }
+    }
+
+    public static ParserCsvActivos.Resultado parsearArchivo(Path archivo, int hilos, Consumer<Activo> destino)
+            throws IOException {
+        return parsearArchivo(archivo, hilos, BYTES_POR_RANGO, destino);
+    }
+
+    static ParserCsvActivos.Resultado parsearArchivo(Path archivo, int hilos, int bytesPorRango, Consumer<Activo> destino)
+            throws IOException {
+        MappedByteBuffer mapa;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            // El mapeo sigue válido después de cerrar el canal
+            mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        ParserCsvActivos.Resultado total = new ParserCsvActivos.Resultado();
+        int limite = mapa.limit();
+        if (limite == 0) return total;
+
+        // Cabecera: primera línea, igual que parsearArchivo secuencial
+        int finCabecera = finDeLinea(mapa, 0);
+        String cabecera = decodificar(mapa, 0, finCabecera).toString();
+        int inicio = siguienteLinea(mapa, finCabecera);
+
+        int n = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        // Un parser por hilo del pool (no es thread-safe, pero se puede reutilizar entre rangos)
+        ThreadLocal<ParserCsvActivos> parsers = ThreadLocal.withInitial(() -> new ParserCsvActivos(cabecera));
+        ExecutorService pool = Executors.newFixedThreadPool(n, r -> {
+            Thread hilo = new Thread(r, "parser-csv");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        Deque<Future<Parte>> enVuelo = new ArrayDeque<>();
+        try {
+            while (inicio < limite) {
+                int fin = inicioDeRegistro(mapa, (int) Math.min((long) inicio + Math.max(1, bytesPorRango), limite));
+                ByteBuffer rango = mapa.slice(inicio, fin - inicio);
+                enVuelo.add(pool.submit(() -> parsearRango(parsers.get(), rango)));
+                inicio = fin;
+
+                // Los rangos se entregan en orden; el destino (la BD) marca el ritmo
+                if (enVuelo.size() >= 2 * n) {
+                    entregar(enVuelo.poll(), destino, total);
+                }
+            }
+            while (!enVuelo.isEmpty()) {
+                entregar(enVuelo.poll(), destino, total);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return total;
+    }
+
+    private static Parte parsearRango(ParserCsvActivos parser, ByteBuffer rango) throws IOException {
+        List<Activo> activos = new ArrayList<>();
+        ParserCsvActivos.Resultado resultado = parser.parsear(new InputStreamReader(new EntradaBuffer(rango), StandardCharsets.UTF_8), activos::add);
+        return new Parte(activos, resultado);
+    }
+
+    private static void entregar(Future<Parte> futuro, Consumer<Activo> destino, ParserCsvActivos.Resultado total)
+            throws IOException {
+        Parte parte;
+        try {
+            parte = futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Parseo interrumpido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+        parte.activos().forEach(destino);
+        total.sumar(parte.resultado());
+    }
+
+    // ==================== Cortes ====================
+
+    // Primera línea que inicia registro desde la posición dada (o el final del archivo)
+    private static int inicioDeRegistro(ByteBuffer mapa, int desde) {
+        int limite = mapa.limit();
+        int linea = desde;
+        // Si desde cae a mitad de una línea, se avanza a la siguiente
+        if (linea < limite && !esInicioDeLinea(mapa, linea)) {
+            linea = siguienteLinea(mapa, finDeLinea(mapa, linea));
+        }
+        while (linea < limite) {
+            int fin = finDeLinea(mapa, linea);
+            CharBuffer texto = decodificar(mapa, linea, fin);
+            if (ParserCsvActivos.iniciaRegistro(texto.array(), texto.arrayOffset() + texto.position(),
+                    texto.arrayOffset() + texto.limit())) {
+                return linea;
+            }
+            linea = siguienteLinea(mapa, fin);
+        }
+        return limite;
+    }
+
+    // Después de \n, o de un \r que no va seguido de \n (mismos finales de línea que BufferedReader)
+    private static boolean esInicioDeLinea(ByteBuffer mapa, int posicion) {
+        if (posicion == 0) return true;
+        byte anterior = mapa.get(posicion - 1);
+        return anterior == '\n' || (anterior == '\r' && mapa.get(posicion) != '\n');
+    }
+
+    private static int finDeLinea(ByteBuffer mapa, int desde) {
+        int limite = mapa.limit();
+        for (int i = desde; i < limite; i++) {
+            byte b = mapa.get(i);
+            if (b == '\n' || b == '\r') return i;
+        }
+        return limite;
+    }
+
+    private static int siguienteLinea(ByteBuffer mapa, int finLinea) {
+        int limite = mapa.limit();
+        if (finLinea >= limite) return limite;
+        if (mapa.get(finLinea) == '\r' && finLinea + 1 < limite && mapa.get(finLinea + 1) == '\n') {
+            return finLinea + 2;
+        }
+        return finLinea + 1;
+    }
+
+    // Bytes inválidos -> U+FFFD, como InputStreamReader
+    private static CharBuffer decodificar(ByteBuffer mapa, int desde, int hasta) {
+        return StandardCharsets.UTF_8.decode(mapa.slice(desde, hasta - desde));
+    }
+
+    // InputStream sobre un rango del mapeo (cada hilo con su propio slice)
+    private static final class EntradaBuffer extends InputStream {
+        private final ByteBuffer buffer;
+
+        EntradaBuffer(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            if (!buffer.hasRemaining()) return -1;
+            int leidos = Math.min(len, buffer.remaining());
+            buffer.get(b, off, leidos);
+            return leidos;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
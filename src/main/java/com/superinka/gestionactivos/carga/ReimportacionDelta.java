@@ -0,0 +1,142 @@
+package com.superinka.gestionactivos.carga;
+
+import com.superinka.gestionactivos.dto.ResultadoDeltaDTO;
+import com.superinka.gestionactivos.entity.Activo;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reimportación delta: compara cada fila del archivo con la guardada por (codigo, numeroFila)
+ * y escribe sólo las nuevas o cambiadas, con un INSERT ... ON CONFLICT DO UPDATE por lote.
+ *
+ * Al iniciar se leen las claves y los hashes de contenido de la BD (columnas chicas, sin los
+ * montos ni los TEXT); desde ahí el costo en escrituras es proporcional a lo que cambió. Con
+ * retirarFaltantes, las filas de la BD que no vinieron en el archivo se marcan como retiradas
+ * en lugar de borrarse, así conservan su id y su cronograma. Las filas sin codigo o sin
+ * numeroFila no tienen clave (en ON CONFLICT null nunca coincide): se cuentan como sinClave y no
+ * se escriben, porque cada reimportación las volvería a insertar.
+ */
+@Component
+public class ReimportacionDelta {
+
+    private static final String SQL_HUELLAS =
+            "SELECT codigo, numero_fila, hash_contenido, retirado FROM activos_fijos_2025";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EscritorActivosJdbc escritor;
+
+    public ReimportacionDelta(JdbcTemplate jdbcTemplate, EscritorActivosJdbc escritor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.escritor = escritor;
+    }
+
+    private record Clave(String codigo, String numeroFila) {
+    }
+
+    public Sesion iniciar(boolean retirarFaltantes, int tamanioLote) {
+        Map<Clave, Long> huellas = new HashMap<>();
+        Set<Clave> retiradas = new HashSet<>();
+        jdbcTemplate.query(SQL_HUELLAS, rs -> {
+            // Sin clave no se pueden comparar ni retirar
+            if (rs.getString(1) == null || rs.getString(2) == null) return;
+            Clave clave = new Clave(rs.getString(1), rs.getString(2));
+            // Sin hash guardado (0) cuenta como cambiada
+            huellas.put(clave, rs.getLong(3));
+            if (rs.getBoolean(4)) retiradas.add(clave);
+        });
+        return new Sesion(huellas, retiradas, retirarFaltantes, Math.max(1, tamanioLote));
+    }
+
+    /** Una reimportación. No es thread-safe: los lotes se procesan desde un solo hilo. */
+    public final class Sesion {
+
+        // Hash guardado por clave; null cuando la clave ya vino en el archivo
+        private final Map<Clave, Long> huellas;
+        private final Set<Clave> retiradas;
+        private final boolean retirarFaltantes;
+        private final int tamanioLote;
+        private final long inicio = System.nanoTime();
+        private final ResultadoDeltaDTO resultado = new ResultadoDeltaDTO();
+
+        private Sesion(Map<Clave, Long> huellas, Set<Clave> retiradas, boolean retirarFaltantes, int tamanioLote) {
+            this.huellas = huellas;
+            this.retiradas = retiradas;
+            this.retirarFaltantes = retirarFaltantes;
+            this.tamanioLote = tamanioLote;
+        }
+
+        /** Clasifica el lote y escribe sólo las filas nuevas o cambiadas; devuelve cuántas escribió. */
+        public int procesar(List<Activo> lote) {
+            Map<Clave, Activo> cambios = new LinkedHashMap<>();
+            for (Activo activo : lote) {
+                if (activo.getCodigo() == null || activo.getNumeroFila() == null) {
+                    resultado.setSinClave(resultado.getSinClave() + 1);
+                    continue;
+                }
+                Clave clave = new Clave(activo.getCodigo(), activo.getNumeroFila());
+                long hash = EscritorActivosJdbc.hashContenido(activo);
+                activo.setHashContenido(hash);
+
+                if (!huellas.containsKey(clave)) {
+                    resultado.setNuevos(resultado.getNuevos() + 1);
+                } else {
+                    Long guardado = huellas.get(clave);
+                    if (guardado == null) {
+                        resultado.setDuplicados(resultado.getDuplicados() + 1);
+                    } else if (retiradas.contains(clave)) {
+                        resultado.setReactivados(resultado.getReactivados() + 1);
+                    } else if (guardado != hash) {
+                        resultado.setActualizados(resultado.getActualizados() + 1);
+                    } else {
+                        huellas.put(clave, null);
+                        resultado.setSinCambios(resultado.getSinCambios() + 1);
+                        continue;
+                    }
+                }
+                huellas.put(clave, null);
+                // Dentro del lote una clave va una sola vez: gana la última aparición
+                cambios.put(clave, activo);
+            }
+            return escritor.insertarOActualizar(new ArrayList<>(cambios.values()));
+        }
+
+        /** Retira las faltantes (si corresponde) y devuelve los totales por categoría. */
+        public ResultadoDeltaDTO terminar() {
+            if (retirarFaltantes) {
+                List<String[]> faltantes = new ArrayList<>(tamanioLote);
+                for (Map.Entry<Clave, Long> e : huellas.entrySet()) {
+                    if (e.getValue() == null || retiradas.contains(e.getKey())) continue;
+                    faltantes.add(new String[]{e.getKey().codigo(), e.getKey().numeroFila()});
+                    if (faltantes.size() >= tamanioLote) {
+                        resultado.setRetirados(resultado.getRetirados() + escritor.retirar(faltantes));
+                        faltantes.clear();
+                    }
+                }
+                resultado.setRetirados(resultado.getRetirados() + escritor.retirar(faltantes));
+            }
+            return resultado();
+        }
+
+        /** Copia de los totales hasta ahora (para consultar el avance desde otro hilo). */
+        public ResultadoDeltaDTO resultado() {
+            ResultadoDeltaDTO copia = new ResultadoDeltaDTO();
+            copia.setNuevos(resultado.getNuevos());
+            copia.setActualizados(resultado.getActualizados());
+            copia.setReactivados(resultado.getReactivados());
+            copia.setSinCambios(resultado.getSinCambios());
+            copia.setDuplicados(resultado.getDuplicados());
+            copia.setSinClave(resultado.getSinClave());
+            copia.setRetirados(resultado.getRetirados());
+            copia.setMilisegundos((System.nanoTime() - inicio) / 1_000_000);
+            return copia;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.superinka.gestionactivos.dto;
+
+import java.util.Arrays;
+
+/**
+ * Columnas por las que se pueden totalizar los activos (?agruparPor=ceco|cuentaContable|ctaGastoDepre|cluster).
+ */
+public enum Agrupacion {
+
+    CECO("ceco"),
+    CUENTA_CONTABLE("cuentaContable"),
+    CTA_GASTO_DEPRE("ctaGastoDepre"),
+    CLUSTER("cluster");
+
+    // Nombre del atributo en Activo, y también el valor del query param
+    private final String campo;
+
+    Agrupacion(String campo) {
+        this.campo = campo;
+    }
+
+    public String getCampo() {
+        return campo;
+    }
+
+    public static Agrupacion desde(String valor) {
+        return Arrays.stream(values())
+                .filter(a -> a.campo.equalsIgnoreCase(valor) || a.name().equalsIgnoreCase(valor))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("agruparPor debe ser ceco, cuentaContable, ctaGastoDepre o cluster"));
+    }
+}
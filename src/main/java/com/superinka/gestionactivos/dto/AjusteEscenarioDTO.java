@@ -0,0 +1,27 @@
+package com.superinka.gestionactivos.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Un cambio de un escenario y los activos a los que aplica. Los selectores vacíos no filtran
+ * (sin ninguno, el ajuste aplica a toda la cartera).
+ */
+@Data
+public class AjusteEscenarioDTO {
+
+    //Selectores: centro de costo y cuenta contable exactos, prefijo del codigo
+    private String ceco;
+    private String cuentaContable;
+    private String codigo;
+
+    //Nuevo % DEPRE (20 o 0.20, igual que en el CSV)
+    private BigDecimal porcentaje;
+
+    //Retiro/baja: el activo deprecia hasta este mes (1..12) y sale de los saldos al cierre
+    private Integer mesRetiro;
+
+    //Monto que se suma al valor historico (negativo para una baja parcial)
+    private BigDecimal ajusteValor;
+}
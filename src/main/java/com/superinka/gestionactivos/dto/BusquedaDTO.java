@@ -0,0 +1,22 @@
+package com.superinka.gestionactivos.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BusquedaDTO {
+
+    private String consulta;
+
+    //Activos que contienen todas las palabras de la consulta
+    private int total;
+
+    //Pagina pedida (desde 0) y su tamanio
+    private int pagina;
+    private int tamanio;
+    private boolean hayMas;
+
+    //Ordenados por puntaje (mayor primero) y luego por id
+    private List<ResultadoBusquedaDTO> items;
+}
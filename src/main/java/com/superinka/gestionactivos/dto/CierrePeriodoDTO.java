@@ -0,0 +1,18 @@
+package com.superinka.gestionactivos.dto;
+
+import lombok.Data;
+
+@Data
+public class CierrePeriodoDTO {
+
+    private Integer anio;
+    private Integer mes;
+
+    //Filas escritas en depreciacion_periodo
+    private long activos;
+
+    //true si partio del acumulado guardado del mes anterior; false si fue el primer cierre
+    private boolean incremental;
+
+    private long milisegundos;
+}
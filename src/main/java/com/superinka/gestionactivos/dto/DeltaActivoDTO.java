@@ -0,0 +1,22 @@
+package com.superinka.gestionactivos.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class DeltaActivoDTO {
+
+    private Long id;
+    private String codigo;
+    private String ceco;
+
+    //Depreciacion 2025 (suma de meses) y costo neto, sin y con el escenario
+    private BigDecimal depreciacion2025Base;
+    private BigDecimal depreciacion2025Escenario;
+    private BigDecimal costoNetoBase;
+    private BigDecimal costoNetoEscenario;
+
+    //Mes de retiro si el escenario lo retira
+    private Integer mesRetiro;
+}
@@ -0,0 +1,15 @@
+package com.superinka.gestionactivos.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class EscenarioDTO {
+
+    private String nombre;
+
+    //Se aplican en orden a los activos que cumplen su selector; si varios cambian lo mismo, gana el ultimo
+    private List<AjusteEscenarioDTO> ajustes = new ArrayList<>();
+}
@@ -0,0 +1,19 @@
+package com.superinka.gestionactivos.dto;
+
+import lombok.Data;
+
+@Data
+public class EstadisticasCacheDTO {
+
+    //Version de datos vigente (cambia con cada carga/escritura)
+    private long versionDatos;
+
+    //Entradas (meses) en cache y filas que retienen en memoria
+    private int entradas;
+    private long filasRetenidas;
+
+    //Contadores acumulados desde el arranque
+    private long aciertos;
+    private long fallos;
+    private long desalojos;
+}
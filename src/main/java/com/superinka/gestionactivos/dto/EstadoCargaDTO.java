@@ -0,0 +1,26 @@
+package com.superinka.gestionactivos.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class EstadoCargaDTO {
+
+    //PENDIENTE, CARGANDO, LISTA o ERROR
+    private String estado;
+
+    //completa (BD vacia), delta (BD con datos y delta-al-iniciar) u omitida (BD con datos)
+    private String modo;
+
+    //Filas ya guardadas en la BD y rechazadas por el parser (estas ultimas se conocen al terminar)
+    private long filasGuardadas;
+    private long rechazadas;
+
+    private double filasPorSegundo;
+    private double segundos;
+
+    private LocalDateTime inicio;
+    private LocalDateTime fin;
+    private String error;
+}
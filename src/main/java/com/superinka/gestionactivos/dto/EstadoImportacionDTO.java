@@ -0,0 +1,43 @@
+package com.superinka.gestionactivos.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class EstadoImportacionDTO {
+
+    private String id;
+    private String archivo;
+
+    //EN_COLA, PROCESANDO, COMPLETADO o ERROR
+    private String estado;
+
+    //reemplazar: borra los activos anteriores e inserta el archivo en una sola transaccion; delta: sólo se escribe lo nuevo o cambiado
+    private String modo;
+
+    //Sólo delta: las filas de la BD que no vinieron en el archivo se marcan como retiradas
+    private boolean retirarFaltantes;
+
+    private long bytesTotales;
+    private long bytesLeidos;
+
+    //Registros leidos por el parser (aceptados + rechazados) y filas ya enviadas a la BD (al reemplazar, visibles recien con el commit)
+    private long filasLeidas;
+    private long filasEscritas;
+    private long rechazadas;
+    //Sólo reemplazar: filas cuyo (codigo, #) ya había aparecido en el archivo; gana la última aparición
+    private long duplicadas;
+
+    private double filasPorSegundo;
+
+    //Estimado a partir de los bytes leidos; null si todavia no se puede estimar o ya termino
+    private Long segundosRestantes;
+
+    private LocalDateTime inicio;
+    private LocalDateTime fin;
+    private String error;
+
+    //Sólo delta: nuevos, actualizados, reactivados, sin cambios, duplicados, sin clave y retirados
+    private ResultadoDeltaDTO delta;
+}
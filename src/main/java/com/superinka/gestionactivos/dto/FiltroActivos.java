@@ -0,0 +1,52 @@
+package com.superinka.gestionactivos.dto;
+
+import lombok.Data;
+
+/**
+ * Filtros opcionales de las consultas de activos (query params ?ceco=&cuentaContable=&cluster=&estado=&codigo=).
+ * Los campos vacíos no filtran.
+ */
+@Data
+public class FiltroActivos {
+
+    public static final String ACTIVO = "ACTIVO";
+    public static final String COMPLETADO = "COMPLETADO";
+
+    //Centro de costo exacto
+    private String ceco;
+
+    //Cuenta contable exacta
+    private String cuentaContable;
+
+    //Cluster ("Claster" en el CSV)
+    private String cluster;
+
+    //ACTIVO o COMPLETADO (costo neto <= 0)
+    private String estado;
+
+    //Prefijo del codigo del activo
+    private String codigo;
+
+    public boolean vacio() {
+        return !tieneTexto(ceco) && !tieneTexto(cuentaContable) && !tieneTexto(cluster)
+                && !tieneTexto(estado) && !tieneTexto(codigo);
+    }
+
+    public boolean filtraEstado() {
+        return tieneTexto(estado);
+    }
+
+    // Copia sin el estado: en /calcular el estado depende del mes y se filtra después de calcular
+    public FiltroActivos sinEstado() {
+        FiltroActivos copia = new FiltroActivos();
+        copia.setCeco(ceco);
+        copia.setCuentaContable(cuentaContable);
+        copia.setCluster(cluster);
+        copia.setCodigo(codigo);
+        return copia;
+    }
+
+    public static boolean tieneTexto(String valor) {
+        return valor != null && !valor.isBlank();
+    }
+}
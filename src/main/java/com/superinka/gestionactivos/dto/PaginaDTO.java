@@ -0,0 +1,18 @@
+package com.superinka.gestionactivos.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PaginaDTO<T> {
+
+    //Filas de la pagina, ordenadas por id
+    private List<T> items;
+
+    //Id de la ultima fila: se envia como "despuesDe" para pedir la siguiente pagina
+    private Long siguienteCursor;
+
+    //Hay mas filas despues de esta pagina
+    private boolean hayMas;
+}
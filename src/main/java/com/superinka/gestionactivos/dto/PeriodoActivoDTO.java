@@ -0,0 +1,49 @@
+package com.superinka.gestionactivos.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+public class PeriodoActivoDTO {
+
+    //Identificacion
+    private String codigo;
+    private String descripcion;
+    private String ceco;
+
+    //Periodo cerrado
+    private Integer anio;
+    private Integer mes;
+
+    private BigDecimal valorHistorico;
+
+    //Depreciacion del periodo
+    private BigDecimal depreciacion;
+
+    //Acumulado al cierre del periodo
+    private BigDecimal depreciacionAcumulada;
+
+    private BigDecimal costoNeto;
+
+    //ACTIVO o COMPLETADO, igual que en ResumenActivoDTO
+    private String estado;
+
+    // Usado por la consulta JPQL del cronograma
+    public PeriodoActivoDTO(String codigo, String descripcion, String ceco, Integer anio, Integer mes,
+                            BigDecimal valorHistorico, BigDecimal depreciacion, BigDecimal depreciacionAcumulada,
+                            BigDecimal costoNeto) {
+        this.codigo = codigo;
+        this.descripcion = descripcion;
+        this.ceco = ceco;
+        this.anio = anio;
+        this.mes = mes;
+        this.valorHistorico = valorHistorico;
+        this.depreciacion = depreciacion;
+        this.depreciacionAcumulada = depreciacionAcumulada;
+        this.costoNeto = costoNeto;
+        this.estado = costoNeto != null && costoNeto.compareTo(BigDecimal.ZERO) <= 0 ? "COMPLETADO" : "ACTIVO";
+    }
+}
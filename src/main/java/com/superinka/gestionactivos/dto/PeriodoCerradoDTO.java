@@ -0,0 +1,19 @@
+package com.superinka.gestionactivos.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class PeriodoCerradoDTO {
+
+    //anio * 100 + mes
+    private Integer periodo;
+    private Integer anio;
+    private Integer mes;
+
+    //Filas escritas en depreciacion_periodo
+    private Long activos;
+
+    private LocalDateTime fechaCierre;
+}
@@ -0,0 +1,32 @@
+package com.superinka.gestionactivos.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Columnas de activos_fijos_2025 que usan el resumen y el cálculo de depreciación.
+ * Se llena con un "select new" en ActivoRepository, así no viajan las columnas TEXT
+ * (notas, cuentas NetSuite, marca, modelo, serie...) ni se crean entidades administradas.
+ *
+ * @param meses depreciación cargada de Ene-25 (índice 0) a Dic-25 (índice 11)
+ */
+public record ProyeccionActivo(
+        Long id,
+        String codigo,
+        String descripcion,
+        String ceco,
+        BigDecimal valorHistorico,
+        BigDecimal porcentajeDepreciacion,
+        BigDecimal depreciacionAcumuladaInicio,
+        BigDecimal[] meses) {
+
+    // Constructor usado por la consulta JPQL (una columna por mes)
+    public ProyeccionActivo(Long id, String codigo, String descripcion, String ceco,
+                            BigDecimal valorHistorico, BigDecimal porcentajeDepreciacion,
+                            BigDecimal depreciacionAcumuladaInicio,
+                            BigDecimal ene, BigDecimal feb, BigDecimal mar, BigDecimal abr,
+                            BigDecimal may, BigDecimal jun, BigDecimal jul, BigDecimal ago,
+                            BigDecimal set, BigDecimal oct, BigDecimal nov, BigDecimal dic) {
+        this(id, codigo, descripcion, ceco, valorHistorico, porcentajeDepreciacion, depreciacionAcumuladaInicio,
+                new BigDecimal[]{ene, feb, mar, abr, may, jun, jul, ago, set, oct, nov, dic});
+    }
+}
@@ -0,0 +1,21 @@
+package com.superinka.gestionactivos.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección del activo junto con el valor de la columna por la que se totaliza
+ * (ceco, cuenta contable, cta gasto x depre o cluster).
+ */
+public record ProyeccionAgrupada(String grupo, ProyeccionActivo activo) {
+
+    // Constructor usado por la consulta JPQL: el grupo seguido de las columnas de ProyeccionActivo
+    public ProyeccionAgrupada(String grupo, Long id, String codigo, String descripcion, String ceco,
+                              BigDecimal valorHistorico, BigDecimal porcentajeDepreciacion,
+                              BigDecimal depreciacionAcumuladaInicio,
+                              BigDecimal ene, BigDecimal feb, BigDecimal mar, BigDecimal abr,
+                              BigDecimal may, BigDecimal jun, BigDecimal jul, BigDecimal ago,
+                              BigDecimal set, BigDecimal oct, BigDecimal nov, BigDecimal dic) {
+        this(grupo, new ProyeccionActivo(id, codigo, descripcion, ceco, valorHistorico, porcentajeDepreciacion,
+                depreciacionAcumuladaInicio, ene, feb, mar, abr, may, jun, jul, ago, set, oct, nov, dic));
+    }
+}
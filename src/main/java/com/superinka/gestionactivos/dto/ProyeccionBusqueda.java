@@ -0,0 +1,16 @@
+package com.superinka.gestionactivos.dto;
+
+/**
+ * Columnas de texto de un activo que entran al índice de búsqueda, con la huella de contenido
+ * (hash_contenido) para saber si la fila cambió desde que se indexó.
+ */
+public record ProyeccionBusqueda(
+        long id,
+        String codigo,
+        String ceco,
+        String descripcion,
+        String marca,
+        String modelo,
+        String seriePlaca,
+        long hashContenido) {
+}
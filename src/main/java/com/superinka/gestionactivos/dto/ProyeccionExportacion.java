@@ -0,0 +1,21 @@
+package com.superinka.gestionactivos.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección del activo junto con su número de fila del CSV de origen (columna "#"),
+ * para que el archivo exportado se pueda cruzar fila por fila con Depreciacion.csv.
+ */
+public record ProyeccionExportacion(String numeroFila, ProyeccionActivo activo) {
+
+    // Constructor usado por la consulta JPQL: el número de fila seguido de las columnas de ProyeccionActivo
+    public ProyeccionExportacion(String numeroFila, Long id, String codigo, String descripcion, String ceco,
+                                 BigDecimal valorHistorico, BigDecimal porcentajeDepreciacion,
+                                 BigDecimal depreciacionAcumuladaInicio,
+                                 BigDecimal ene, BigDecimal feb, BigDecimal mar, BigDecimal abr,
+                                 BigDecimal may, BigDecimal jun, BigDecimal jul, BigDecimal ago,
+                                 BigDecimal set, BigDecimal oct, BigDecimal nov, BigDecimal dic) {
+        this(numeroFila, new ProyeccionActivo(id, codigo, descripcion, ceco, valorHistorico, porcentajeDepreciacion,
+                depreciacionAcumuladaInicio, ene, feb, mar, abr, may, jun, jul, ago, set, oct, nov, dic));
+    }
+}
@@ -0,0 +1,23 @@
+package com.superinka.gestionactivos.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección usada para construir el snapshot columnar: las columnas de ProyeccionActivo
+ * más las columnas por las que se filtra y totaliza.
+ */
+public record ProyeccionSnapshot(ProyeccionActivo activo, String cuentaContable, String ctaGastoDepre, String cluster) {
+
+    // Constructor usado por la consulta JPQL
+    public ProyeccionSnapshot(Long id, String codigo, String descripcion, String ceco,
+                              BigDecimal valorHistorico, BigDecimal porcentajeDepreciacion,
+                              BigDecimal depreciacionAcumuladaInicio,
+                              BigDecimal ene, BigDecimal feb, BigDecimal mar, BigDecimal abr,
+                              BigDecimal may, BigDecimal jun, BigDecimal jul, BigDecimal ago,
+                              BigDecimal set, BigDecimal oct, BigDecimal nov, BigDecimal dic,
+                              String cuentaContable, String ctaGastoDepre, String cluster) {
+        this(new ProyeccionActivo(id, codigo, descripcion, ceco, valorHistorico, porcentajeDepreciacion,
+                depreciacionAcumuladaInicio, ene, feb, mar, abr, may, jun, jul, ago, set, oct, nov, dic),
+                cuentaContable, ctaGastoDepre, cluster);
+    }
+}
@@ -0,0 +1,18 @@
+package com.superinka.gestionactivos.dto;
+
+import lombok.Data;
+
+@Data
+public class ResultadoBusquedaDTO {
+
+    private Long id;
+    private String codigo;
+    private String ceco;
+    private String descripcion;
+    private String marca;
+    private String modelo;
+    private String seriePlaca;
+
+    //Relevancia: palabra completa > inicio de palabra > parte de palabra, pesada por campo (serie > modelo > marca > descripcion)
+    private int puntaje;
+}
@@ -0,0 +1,30 @@
+package com.superinka.gestionactivos.dto;
+
+import lombok.Data;
+
+@Data
+public class ResultadoDeltaDTO {
+
+    //Claves (codigo, numeroFila) que no estaban en la BD
+    private long nuevos;
+
+    //Filas cuyo contenido cambio (hash distinto)
+    private long actualizados;
+
+    //Filas retiradas que volvieron a venir en el archivo
+    private long reactivados;
+
+    //Filas iguales a las guardadas: no se escriben
+    private long sinCambios;
+
+    //Claves repetidas dentro del archivo (gana la ultima aparicion)
+    private long duplicados;
+
+    //Filas sin codigo o sin numeroFila: no se pueden comparar con la BD y no se escriben
+    private long sinClave;
+
+    //Filas de la BD que no vinieron en el archivo y se marcaron como retiradas (sólo con retirarFaltantes)
+    private long retirados;
+
+    private long milisegundos;
+}
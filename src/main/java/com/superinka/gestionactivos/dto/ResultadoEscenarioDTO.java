@@ -0,0 +1,35 @@
+package com.superinka.gestionactivos.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class ResultadoEscenarioDTO {
+
+    private String nombre;
+
+    //Sumas de la cartera con el escenario aplicado (grupo = nombre del escenario).
+    //Los meses y la depreciacion 2025 incluyen lo depreciado por los activos retirados hasta su retiro;
+    //cantidades, valor historico, acumulados y costo neto son los saldos al cierre, sin los retirados
+    private TotalGrupoDTO totales;
+
+    //Activos a los que aplico al menos un ajuste
+    private long activosAfectados;
+
+    private long retirados;
+
+    //Costo neto de los activos retirados al momento del retiro
+    private BigDecimal valorNetoRetirado = BigDecimal.ZERO;
+
+    //Escenario menos base
+    private BigDecimal diferenciaDepreciacion2025 = BigDecimal.ZERO;
+    private BigDecimal diferenciaCostoNeto = BigDecimal.ZERO;
+
+    //Solo con detalle=true: activos cuyo resultado cambia (en orden de id)
+    private List<DeltaActivoDTO> detalle;
+
+    //true si habia mas activos que limiteDetalle
+    private boolean detalleTruncado;
+}
@@ -0,0 +1,22 @@
+package com.superinka.gestionactivos.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ResultadoSimulacionDTO {
+
+    private int mes;
+
+    //Version de datos sobre la que se simulo y cantidad de activos evaluados
+    private long versionDatos;
+    private long activos;
+
+    //Cartera sin cambios (mismos valores que /calcular/{mes}/totales sin filtros, en un solo grupo)
+    private ResultadoEscenarioDTO base;
+
+    private List<ResultadoEscenarioDTO> escenarios;
+
+    private long milisegundos;
+}
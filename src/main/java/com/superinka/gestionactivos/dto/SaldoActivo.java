@@ -0,0 +1,16 @@
+package com.superinka.gestionactivos.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Datos para cerrar un periodo de un activo.
+ *
+ * @param acumuladoAnterior acumulado guardado al cierre del periodo anterior (null si no existe)
+ */
+public record SaldoActivo(
+        Long id,
+        BigDecimal valorHistorico,
+        BigDecimal porcentajeDepreciacion,
+        BigDecimal depreciacionAcumuladaInicio,
+        BigDecimal acumuladoAnterior) {
+}
@@ -0,0 +1,25 @@
+package com.superinka.gestionactivos.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pedido de POST /api/activos/simular: varios escenarios "qué pasaría si" evaluados sobre la
+ * misma lectura de la cartera. No se guarda nada.
+ */
+@Data
+public class SimulacionDTO {
+
+    //Mes hasta el que se recalcula la depreciacion (1..12), igual que /calcular/{mes}
+    private int mes = 12;
+
+    //true: por cada escenario, la lista de activos cuyo resultado cambia respecto de la base
+    private boolean detalle;
+
+    //Maximo de activos por escenario en el detalle
+    private int limiteDetalle = 1000;
+
+    private List<EscenarioDTO> escenarios = new ArrayList<>();
+}
@@ -0,0 +1,32 @@
+package com.superinka.gestionactivos.dto;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * El mismo listado que List&lt;ResumenActivoDTO&gt;, por columnas: cada campo es un arreglo con un
+ * valor por fila (en el mismo orden). Los nombres de campo van una sola vez y no una vez por fila.
+ */
+@Data
+public class TablaColumnarDTO {
+
+    //Cantidad de filas (largo de cada columna)
+    private int filas;
+
+    //Mes del calculo (null: datos tal como estan en la BD)
+    private Integer mes;
+
+    //Nombre del campo de ResumenActivoDTO -> valores. Los meses sin pedir no vienen
+    private Map<String, Object> columnas;
+
+    //Montos y porcentaje como enteros: valor = entero / 10^escala (escala 2 -> centavos)
+    private Map<String, Integer> escalas;
+
+    //ceco y estado vienen como indice en esta lista (-1 = null)
+    private Map<String, List<String>> diccionarios;
+
+    //Filas (indices) en null de cada columna numerica; sin entrada si no tiene nulos
+    private Map<String, int[]> nulos;
+}
@@ -0,0 +1,38 @@
+package com.superinka.gestionactivos.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class TotalGrupoDTO {
+
+    //Valor de la columna agrupada (ceco, cuenta contable, cta gasto x depre o cluster); null si viene vacio
+    private String grupo;
+
+    //Cantidad de activos del grupo y cuantos siguen depreciandose
+    private long cantidadActivos;
+    private long activos;
+    private long completados;
+
+    //Sumas del grupo, con el mismo significado que en ResumenActivoDTO
+    private BigDecimal valorHistorico = BigDecimal.ZERO;
+    private BigDecimal depAcumuladaInicio = BigDecimal.ZERO;
+
+    private BigDecimal ene = BigDecimal.ZERO;
+    private BigDecimal feb = BigDecimal.ZERO;
+    private BigDecimal mar = BigDecimal.ZERO;
+    private BigDecimal abr = BigDecimal.ZERO;
+    private BigDecimal may = BigDecimal.ZERO;
+    private BigDecimal jun = BigDecimal.ZERO;
+    private BigDecimal jul = BigDecimal.ZERO;
+    private BigDecimal ago = BigDecimal.ZERO;
+    private BigDecimal set = BigDecimal.ZERO;
+    private BigDecimal oct = BigDecimal.ZERO;
+    private BigDecimal nov = BigDecimal.ZERO;
+    private BigDecimal dic = BigDecimal.ZERO;
+
+    private BigDecimal totalDepreciacion2025 = BigDecimal.ZERO;
+    private BigDecimal totalDepreciacionAcumulada = BigDecimal.ZERO;
+    private BigDecimal costoNeto = BigDecimal.ZERO;
+}
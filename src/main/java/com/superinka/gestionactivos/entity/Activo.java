@@ -10,7 +10,13 @@ import java.math.BigDecimal;
 
 @Entity
 @Data
-@Table(name = "activos_fijos_2025")
+// Índices de los filtros de /api/activos (el de prefijo de código está en import.sql: necesita text_pattern_ops)
+// La reimportación delta identifica cada fila por (codigo, numero_fila)
+@Table(name = "activos_fijos_2025", indexes = {
+        @Index(name = "idx_activos_ceco", columnList = "ceco"),
+        @Index(name = "idx_activos_cuenta_contable", columnList = "cuenta_contable"),
+        @Index(name = "idx_activos_cluster", columnList = "cluster")
+}, uniqueConstraints = @UniqueConstraint(name = "uk_activos_codigo_fila", columnNames = {"codigo", "numero_fila"}))
 public class Activo {
 
     @Id
@@ -173,4 +179,12 @@ public class Activo {
 
     @CsvCustomBindByName(column = " COSTO NETO ", converter = MoneyConverter.class)
     private BigDecimal costoNeto;
+
+    // Huella del contenido de la fila (EscritorActivosJdbc.hashContenido): la reimportación delta
+    // sólo escribe las filas cuyo hash cambió
+    private Long hashContenido;
+
+    // La fila ya no vino en una reimportación delta con retiro: se conserva (y su cronograma),
+    // pero no se lista, no se calcula y no entra en los cierres siguientes
+    private boolean retirado;
 }
@@ -0,0 +1,28 @@
+package com.superinka.gestionactivos.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de los periodos cerrados. Se guarda al final del cierre, cuando ya se
+ * escribieron todos los lotes de depreciacion_periodo.
+ */
+@Entity
+@Data
+@Table(name = "cierre_periodo")
+public class CierrePeriodo {
+
+    // anio * 100 + mes
+    @Id
+    private Integer periodo;
+
+    private Integer anio;
+
+    private Integer mes;
+
+    private Long activos;
+
+    private LocalDateTime fechaCierre;
+}
@@ -0,0 +1,45 @@
+package com.superinka.gestionactivos.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Cronograma de depreciación: una fila por activo y periodo cerrado.
+ * El periodo es anio * 100 + mes (202501, 202502, ... 202601), así que sirve para
+ * cualquier año sin agregar columnas como ene25..dic25.
+ */
+@Entity
+@Data
+@Table(name = "depreciacion_periodo",
+        uniqueConstraints = @UniqueConstraint(name = "uk_depreciacion_periodo_activo", columnNames = {"periodo", "activo_id"}))
+public class DepreciacionPeriodo {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Primera columna del índice único: la lectura de un mes cerrado es un rango del índice
+    @Column(nullable = false)
+    private Integer periodo;
+
+    @Column(name = "activo_id", nullable = false)
+    private Long activoId;
+
+    private Integer anio;
+
+    private Integer mes;
+
+    //Depreciacion del periodo
+    @Column(precision = 38, scale = 2)
+    private BigDecimal depreciacion;
+
+    //Acumulado al cierre del periodo (incluye la depreciacion acumulada al inicio 2025)
+    @Column(precision = 38, scale = 2)
+    private BigDecimal depreciacionAcumulada;
+
+    //Valor historico - acumulado
+    @Column(precision = 38, scale = 2)
+    private BigDecimal costoNeto;
+}
@@ -1,16 +1,41 @@
 package com.superinka.gestionactivos.service;
 
-import com.superinka.gestionactivos.entity.Activo;
 import com.superinka.gestionactivos.ActivoRepository;
+import com.superinka.gestionactivos.dto.Agrupacion;
+import com.superinka.gestionactivos.dto.BusquedaDTO;
+import com.superinka.gestionactivos.dto.FiltroActivos;
+import com.superinka.gestionactivos.dto.PaginaDTO;
+import com.superinka.gestionactivos.dto.ProyeccionActivo;
+import com.superinka.gestionactivos.dto.ProyeccionAgrupada;
+import com.superinka.gestionactivos.dto.ProyeccionExportacion;
+import com.superinka.gestionactivos.dto.ResultadoBusquedaDTO;
 import com.superinka.gestionactivos.dto.ResumenActivoDTO;
+import com.superinka.gestionactivos.dto.TablaColumnarDTO;
+import com.superinka.gestionactivos.dto.TotalGrupoDTO;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SequenceWriter;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ActivoService {
@@ -18,136 +43,420 @@ public class ActivoService {
     @Autowired
     private ActivoRepository repository;
 
+    @Autowired
+    private CacheResultados cache;
+
+    @Autowired
+    private CalculoParalelo calculoParalelo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProveedorSnapshot proveedorSnapshot;
+
+    @Autowired
+    private MetricasActivos metricas;
+
+    @Autowired
+    private ProveedorIndiceBusqueda proveedorIndice;
+
+    private TransactionTemplate lectura;
+
+    private static final int FILAS_POR_FLUSH = 500;
+    private static final int BUFFER_CSV = 64 * 1024;
+
+    // Valores del tag "operacion" de activos.fase
+    private static final String OP_RESUMEN = "resumen";
+    private static final String OP_CALCULAR = "calcular";
+    private static final String OP_PAGINA = "pagina";
+    private static final String OP_CALCULAR_PAGINA = "calcular-pagina";
+    private static final String OP_TOTALES = "totales";
+    private static final String OP_BUSCAR = "buscar";
+    private static final String OP_COLUMNAR = "columnar";
+
+    // Transacción de sólo lectura para los caminos que a veces no tocan la BD (con un @Transactional
+    // en el método, JpaTransactionManager tomaría una conexión del pool aunque se responda desde memoria)
+    @Autowired
+    void setTransactionManager(PlatformTransactionManager transactionManager) {
+        lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+    }
+
     public List<ResumenActivoDTO> obtenerResumen() {
-        return repository.findAll(Sort.by(Sort.Direction.ASC, "id")).stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+        return obtenerResumen(new FiltroActivos());
+    }
+
+    // Con snapshot se filtra en memoria; sin él, todos los filtros (incluido el estado) se resuelven en SQL
+    public List<ResumenActivoDTO> obtenerResumen(FiltroActivos filtro) {
+        SnapshotActivos snapshot = metricas.medir(OP_RESUMEN, MetricasActivos.FETCH, proveedorSnapshot::actual);
+        if (snapshot != null) {
+            return desdeSnapshot(OP_RESUMEN, snapshot, null, filtro);
+        }
+        List<ProyeccionActivo> activos = metricas.medir(OP_RESUMEN, MetricasActivos.FETCH, () -> filtro.vacio()
+                ? repository.findProyeccionesOrdenadas()
+                : repository.buscarProyecciones(filtro, 0, 0));
+        return metricas.medir(OP_RESUMEN, MetricasActivos.MAP,
+                () -> calculoParalelo.mapear(activos, ActivoService::resumir));
+    }
+
+    /**
+     * El listado de obtenerResumen / calcularDepreciacionVisual por columnas (ver {@link TablaColumnar}).
+     * meses: los meses a incluir ("1-3", "ene,feb", vacío = todos). Con mesObjetivo null, datos sin recalcular.
+     */
+    public TablaColumnarDTO obtenerColumnar(Integer mesObjetivo, FiltroActivos filtro, String meses) {
+        boolean[] mesesPedidos = TablaColumnar.meses(meses);
+        List<ResumenActivoDTO> filas = mesObjetivo != null
+                ? calcularDepreciacionVisual(mesObjetivo, filtro)
+                : obtenerResumen(filtro);
+        return metricas.medir(OP_COLUMNAR, MetricasActivos.MAP, () -> TablaColumnar.armar(filas, mesObjetivo, mesesPedidos));
+    }
+
+    // Página de la tabla por cursor: el costo no depende de cuántos activos haya antes del cursor
+    public PaginaDTO<ResumenActivoDTO> obtenerPagina(FiltroActivos filtro, long despuesDe, int tamanio) {
+        SnapshotActivos snapshot = metricas.medir(OP_PAGINA, MetricasActivos.FETCH, proveedorSnapshot::actual);
+        if (snapshot != null) {
+            return paginaDesdeSnapshot(OP_PAGINA, snapshot, null, filtro, despuesDe, tamanio);
+        }
+        List<ProyeccionActivo> activos = metricas.medir(OP_PAGINA, MetricasActivos.FETCH,
+                () -> repository.buscarProyecciones(filtro, despuesDe, tamanio + 1));
+        return metricas.medir(OP_PAGINA, MetricasActivos.MAP, () -> armarPagina(
+                activos.stream().map(a -> new Fila(a.id(), resumir(a))).collect(Collectors.toList()), tamanio));
+    }
+
+    // Igual que calcularDepreciacionVisual pero sólo para los activos de la página
+    public PaginaDTO<ResumenActivoDTO> calcularPagina(int mesObjetivo, FiltroActivos filtro, long despuesDe, int tamanio) {
+        SnapshotActivos snapshot = metricas.medir(OP_CALCULAR_PAGINA, MetricasActivos.FETCH, proveedorSnapshot::actual);
+        if (snapshot != null) {
+            return paginaDesdeSnapshot(OP_CALCULAR_PAGINA, snapshot, mesObjetivo, filtro, despuesDe, tamanio);
+        }
+        // Se pide una fila de más para saber si existe otra página sin hacer COUNT(*)
+        int objetivo = tamanio + 1;
+        List<Fila> filas = new ArrayList<>(objetivo);
+        FiltroActivos filtroSql = filtro.sinEstado();
+        long cursor = despuesDe;
+        long inicio = System.nanoTime();
+        long nanosLectura = 0;
+
+        // El estado recalculado se filtra después de calcular: si descarta filas se sigue leyendo desde el cursor
+        while (filas.size() < objetivo) {
+            long inicioLectura = System.nanoTime();
+            List<ProyeccionActivo> activos = repository.buscarProyecciones(filtroSql, cursor, objetivo);
+            nanosLectura += System.nanoTime() - inicioLectura;
+            for (ProyeccionActivo a : activos) {
+                ResumenActivoDTO dto = calcular(a, mesObjetivo);
+                if (cumpleEstado(filtro, dto) && filas.size() < objetivo) {
+                    filas.add(new Fila(a.id(), dto));
+                }
+            }
+            if (activos.size() < objetivo) break;
+            cursor = activos.get(activos.size() - 1).id();
+        }
+        // Lecturas y cálculo van intercalados: se registra cada parte una vez por página
+        metricas.registrar(OP_CALCULAR_PAGINA, MetricasActivos.FETCH, nanosLectura);
+        metricas.registrar(OP_CALCULAR_PAGINA, MetricasActivos.COMPUTE, System.nanoTime() - inicio - nanosLectura);
+        return armarPagina(filas, tamanio);
+    }
+
+    private PaginaDTO<ResumenActivoDTO> armarPagina(List<Fila> filas, int tamanio) {
+        boolean hayMas = filas.size() > tamanio;
+        List<Fila> pagina = hayMas ? filas.subList(0, tamanio) : filas;
+
+        PaginaDTO<ResumenActivoDTO> resultado = new PaginaDTO<>();
+        resultado.setItems(pagina.stream().map(Fila::dto).collect(Collectors.toList()));
+        resultado.setSiguienteCursor(pagina.isEmpty() ? null : pagina.get(pagina.size() - 1).id());
+        resultado.setHayMas(hayMas);
+        return resultado;
+    }
+
+    private record Fila(Long id, ResumenActivoDTO dto) {
+    }
+
+    // Filtro y cálculo sobre el snapshot columnar, repartido entre los núcleos en orden de id.
+    // En el snapshot los meses salen en forma cerrada al armar cada DTO: compute mide la selección
+    // de filas (filtros y estado) y map el armado de los DTO
+    private List<ResumenActivoDTO> desdeSnapshot(String operacion, SnapshotActivos snapshot, Integer mesObjetivo,
+                                                 FiltroActivos filtro) {
+        int[] filas = metricas.medir(operacion, MetricasActivos.COMPUTE, () -> snapshot.seleccionar(filtro, mesObjetivo));
+        return metricas.medir(operacion, MetricasActivos.MAP,
+                () -> calculoParalelo.mapearIndices(filas.length, i -> snapshot.resumen(filas[i], mesObjetivo)));
+    }
+
+    private PaginaDTO<ResumenActivoDTO> paginaDesdeSnapshot(String operacion, SnapshotActivos snapshot, Integer mesObjetivo,
+                                                            FiltroActivos filtro, long despuesDe, int tamanio) {
+        int[] seleccion = metricas.medir(operacion, MetricasActivos.COMPUTE,
+                () -> snapshot.seleccionar(filtro, mesObjetivo, despuesDe, tamanio + 1));
+        return metricas.medir(operacion, MetricasActivos.MAP, () -> {
+            List<Fila> filas = new ArrayList<>(seleccion.length);
+            for (int i : seleccion) {
+                filas.add(new Fila(snapshot.id(i), snapshot.resumen(i, mesObjetivo)));
+            }
+            return armarPagina(filas, tamanio);
+        });
+    }
+
+    /**
+     * Búsqueda por texto en descripcion, marca, modelo y seriePlaca con el índice en memoria
+     * (ver {@link IndiceBusqueda}): no recorre la tabla. Páginas desde 0.
+     */
+    public BusquedaDTO buscar(String consulta, int pagina, int tamanio) {
+        if (consulta == null || IndiceBusqueda.palabras(consulta).isEmpty()) {
+            throw new IllegalArgumentException("q debe tener al menos una letra o dígito");
+        }
+        if (pagina < 0) {
+            throw new IllegalArgumentException("pagina no puede ser negativa");
+        }
+        IndiceBusqueda indice = metricas.medir(OP_BUSCAR, MetricasActivos.FETCH, proveedorIndice::actual);
+        int desde = (int) Math.min((long) pagina * tamanio, Integer.MAX_VALUE);
+        IndiceBusqueda.Resultado resultado = metricas.medir(OP_BUSCAR, MetricasActivos.COMPUTE,
+                () -> indice.buscar(consulta, desde, tamanio));
+
+        return metricas.medir(OP_BUSCAR, MetricasActivos.MAP, () -> {
+            BusquedaDTO dto = new BusquedaDTO();
+            dto.setConsulta(consulta);
+            dto.setTotal(resultado.total());
+            dto.setPagina(pagina);
+            dto.setTamanio(tamanio);
+            dto.setHayMas((long) desde + resultado.aciertos().size() < resultado.total());
+            List<ResultadoBusquedaDTO> items = new ArrayList<>(resultado.aciertos().size());
+            for (IndiceBusqueda.Acierto acierto : resultado.aciertos()) {
+                ResultadoBusquedaDTO item = new ResultadoBusquedaDTO();
+                item.setId(acierto.activo().id());
+                item.setCodigo(acierto.activo().codigo());
+                item.setCeco(acierto.activo().ceco());
+                item.setDescripcion(acierto.activo().descripcion());
+                item.setMarca(acierto.activo().marca());
+                item.setModelo(acierto.activo().modelo());
+                item.setSeriePlaca(acierto.activo().seriePlaca());
+                item.setPuntaje(acierto.puntaje());
+                items.add(item);
+            }
+            dto.setItems(items);
+            return dto;
+        });
     }
 
     // CAMBIO: Ahora devuelve la lista calculada y NO es @Transactional (porque no guarda)
+    // Las lecturas de la BD son proyecciones (no entidades) en transacciones de sólo lectura del repositorio:
+    // no hay snapshot de dirty checking ni flush, y el cálculo nunca puede escribir en la tabla
+    // El resultado se guarda en caché por (versión de datos, mes): mover el selector de mes no recalcula
     public List<ResumenActivoDTO> calcularDepreciacionVisual(int mesObjetivo) {
-        // 1. Traemos los datos "vírgenes" de la BD cada vez
-        List<Activo> activos = repository.findAll(Sort.by(Sort.Direction.ASC, "id"));
+        metricas.operacion(OP_CALCULAR); // con acierto en la caché no se mide ninguna otra fase
+        return cache.obtener(mesObjetivo, () -> calcularSinCache(mesObjetivo));
+    }
+
+    // Con filtros no se usa la caché: se leen y calculan sólo las filas del filtro
+    public List<ResumenActivoDTO> calcularDepreciacionVisual(int mesObjetivo, FiltroActivos filtro) {
+        if (filtro.vacio()) {
+            return calcularDepreciacionVisual(mesObjetivo);
+        }
+        SnapshotActivos snapshot = metricas.medir(OP_CALCULAR, MetricasActivos.FETCH, proveedorSnapshot::actual);
+        if (snapshot != null) {
+            return desdeSnapshot(OP_CALCULAR, snapshot, mesObjetivo, filtro);
+        }
+        List<ResumenActivoDTO> calculados = calcularDesdeBd(mesObjetivo, metricas.medir(OP_CALCULAR,
+                MetricasActivos.FETCH, () -> repository.buscarProyecciones(filtro.sinEstado(), 0, 0)));
+        if (!filtro.filtraEstado()) {
+            return calculados;
+        }
+        return calculados.stream().filter(dto -> cumpleEstado(filtro, dto)).collect(Collectors.toList());
+    }
+
+    private List<ResumenActivoDTO> calcularSinCache(int mesObjetivo) {
+        // 1. Traemos los datos "vírgenes" de la BD cada vez (sólo las columnas del cálculo)
+        // 2. Calculamos de Enero (1) hasta el mes que pidió el usuario (mesObjetivo) en forma cerrada
+        // 3. Convertimos a DTO y devolvemos los datos calculados directamente, nada se guarda
+        // Cada activo es independiente: se reparte en bloques entre los núcleos, conservando el orden por id
+        // Con el snapshot columnar no se vuelve a leer la BD: los datos ya están en centavos
+        SnapshotActivos snapshot = metricas.medir(OP_CALCULAR, MetricasActivos.FETCH, proveedorSnapshot::actual);
+        if (snapshot != null) {
+            return desdeSnapshot(OP_CALCULAR, snapshot, mesObjetivo, new FiltroActivos());
+        }
+        return calcularDesdeBd(mesObjetivo,
+                metricas.medir(OP_CALCULAR, MetricasActivos.FETCH, repository::findProyeccionesOrdenadas));
+    }
 
-        for (Activo activo : activos) {
-            BigDecimal AA12_ValorHistorico = activo.getValorHistorico() != null ? activo.getValorHistorico() : BigDecimal.ZERO;
+    // Dos pasadas en paralelo para medir por separado el motor (compute) y el armado de los DTO (map)
+    private List<ResumenActivoDTO> calcularDesdeBd(int mesObjetivo, List<ProyeccionActivo> activos) {
+        List<BigDecimal[]> meses = metricas.medir(OP_CALCULAR, MetricasActivos.COMPUTE,
+                () -> calculoParalelo.mapear(activos, a -> mesesCalculados(a, mesObjetivo)));
+        return metricas.medir(OP_CALCULAR, MetricasActivos.MAP,
+                () -> calculoParalelo.mapearIndices(activos.size(), i -> convertirADTO(activos.get(i), meses.get(i))));
+    }
 
-            // Normalización del porcentaje
-            BigDecimal rawPercent = activo.getPorcentajeDepreciacion() != null ? activo.getPorcentajeDepreciacion() : BigDecimal.ZERO;
-            BigDecimal AJ12_Porcentaje = rawPercent.compareTo(BigDecimal.ONE) > 0 ? rawPercent.divide(new BigDecimal(100)) : rawPercent;
+    // En /calcular el estado depende del mes recalculado, por eso no se puede resolver en SQL
+    static boolean cumpleEstado(FiltroActivos filtro, ResumenActivoDTO dto) {
+        return !filtro.filtraEstado() || filtro.getEstado().trim().equalsIgnoreCase(dto.getEstado());
+    }
 
-            BigDecimal AL12_AcumInicio = activo.getDepreciacionAcumuladaInicio() != null ? activo.getDepreciacionAcumuladaInicio() : BigDecimal.ZERO;
+    /**
+     * Escribe el resumen como NDJSON (un objeto JSON por línea) a medida que se lee de la BD.
+     * Las filas son proyecciones (no entidades administradas), así que cada una queda libre
+     * apenas se escribe y el heap no depende de la cantidad de filas.
+     * Con mesObjetivo null devuelve los datos sin recalcular.
+     */
+    @Transactional(readOnly = true)
+    public void escribirNdjson(Integer mesObjetivo, FiltroActivos filtro, OutputStream salida) throws IOException {
+        // Con mes, el estado se evalúa sobre la fila recalculada
+        FiltroActivos filtroSql = mesObjetivo != null ? filtro.sinEstado() : filtro;
+        int filas = 0;
+        try (Stream<ProyeccionActivo> activos = repository.streamProyecciones(filtroSql);
+             SequenceWriter escritor = objectMapper.writer()
+                     .without(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                     .withRootValueSeparator("\n")
+                     .writeValues(salida)) {
 
-            // 2. BUCLE ACUMULATIVO: Calculamos desde Enero (1) hasta el mes que pidió el usuario (mesObjetivo)
-            // Esto asegura que si piden "Marzo", Enero y Febrero se calculen primero en memoria para afectar el acumulado correctamente.
-            for (int m = 1; m <= mesObjetivo; m++) {
+            Iterator<ProyeccionActivo> it = activos.iterator();
+            while (it.hasNext()) {
+                ProyeccionActivo activo = it.next();
+                ResumenActivoDTO dto = mesObjetivo != null ? calcular(activo, mesObjetivo) : resumir(activo);
+                if (!cumpleEstado(filtro, dto)) continue;
+                escritor.write(dto);
 
-                BigDecimal cuotaTeorica = AA12_ValorHistorico.multiply(AJ12_Porcentaje)
-                        .divide(new BigDecimal(12), 2, RoundingMode.HALF_UP);
+                // La primera fila sale de inmediato; después se envía por bloques
+                if (++filas == 1 || filas % FILAS_POR_FLUSH == 0) {
+                    escritor.flush();
+                }
+            }
+            escritor.flush();
+        }
+        if (filas > 0) {
+            salida.write('\n'); // el separador va entre objetos; cerramos la última línea
+        }
+        salida.flush();
+    }
+
+    /**
+     * Exporta el cálculo hasta el mes como CSV (ver {@link ExportacionCsv}), leído con el cursor
+     * de la BD: cada fila se calcula, se escribe y se descarta.
+     */
+    @Transactional(readOnly = true)
+    public void escribirCsv(int mesObjetivo, FiltroActivos filtro, OutputStream salida) throws IOException {
+        BufferedWriter escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), BUFFER_CSV);
+        try (Stream<ProyeccionExportacion> filas = repository.streamParaExportacion(filtro.sinEstado())) {
+            new ExportacionCsv(escritor).escribir(filas.iterator(), mesObjetivo, filtro);
+        }
+    }
 
-                // 'sumarMesesAnteriores' leerá lo que acabamos de calcular en la vuelta anterior del bucle 'm'
-                BigDecimal acumuladoHastaHoy = AL12_AcumInicio.add(sumarMesesAnteriores(activo, m));
+    /**
+     * Totales por ceco, cuenta contable, cta gasto x depre o cluster en una sola pasada:
+     * cada fila se convierte igual que en el listado (recalculada si viene el mes) y se suma
+     * en el acumulador de su grupo. Sólo se retiene un acumulador por grupo. Con el snapshot no
+     * se abre transacción; el recorrido de la BD va en una de sólo lectura (el stream la necesita).
+     */
+    public List<TotalGrupoDTO> totalizar(Integer mesObjetivo, Agrupacion agrupacion, FiltroActivos filtro) {
+        SnapshotActivos snapshot = metricas.medir(OP_TOTALES, MetricasActivos.FETCH, proveedorSnapshot::actual);
+        if (snapshot != null) {
+            return metricas.medir(OP_TOTALES, MetricasActivos.COMPUTE,
+                    () -> snapshot.totalizar(mesObjetivo, agrupacion, filtro));
+        }
+        return lectura.execute(estado -> totalizarDesdeBd(mesObjetivo, agrupacion, filtro));
+    }
 
-                BigDecimal remanente = AA12_ValorHistorico.subtract(acumuladoHastaHoy);
-                BigDecimal montoFinal;
+    private List<TotalGrupoDTO> totalizarDesdeBd(Integer mesObjetivo, Agrupacion agrupacion, FiltroActivos filtro) {
+        FiltroActivos filtroSql = mesObjetivo != null ? filtro.sinEstado() : filtro;
+        Map<String, TotalGrupoDTO> grupos = new HashMap<>();
+        // La lectura y la suma van intercaladas en el stream: se registran juntas como compute
+        long inicio = System.nanoTime();
 
-                if (remanente.compareTo(BigDecimal.ZERO) > 0) {
-                    if (cuotaTeorica.compareTo(remanente) < 0) {
-                        montoFinal = cuotaTeorica;
-                    } else {
-                        montoFinal = remanente;
-                    }
-                } else {
-                    montoFinal = BigDecimal.ZERO;
+        try (Stream<ProyeccionAgrupada> filas = repository.streamProyeccionesAgrupadas(agrupacion, filtroSql)) {
+            filas.forEach(fila -> {
+                ProyeccionActivo activo = fila.activo();
+                ResumenActivoDTO dto = mesObjetivo != null ? calcular(activo, mesObjetivo) : resumir(activo);
+                if (cumpleEstado(filtro, dto)) {
+                    sumar(grupos.computeIfAbsent(fila.grupo(), ActivoService::nuevoGrupo), dto);
                 }
+            });
+        }
+        metricas.registrar(OP_TOTALES, MetricasActivos.COMPUTE, System.nanoTime() - inicio);
 
-                // Actualizamos el objeto EN MEMORIA (Java), no en la BD
-                asignarDepreciacionAlMes(activo, m, montoFinal);
-            }
+        List<TotalGrupoDTO> totales = new ArrayList<>(grupos.values());
+        totales.sort(Comparator.comparing(TotalGrupoDTO::getGrupo, Comparator.nullsLast(Comparator.naturalOrder())));
+        return totales;
+    }
+
+    static TotalGrupoDTO nuevoGrupo(String grupo) {
+        TotalGrupoDTO total = new TotalGrupoDTO();
+        total.setGrupo(grupo);
+        return total;
+    }
+
+    static void sumar(TotalGrupoDTO t, ResumenActivoDTO dto) {
+        t.setCantidadActivos(t.getCantidadActivos() + 1);
+        if ("COMPLETADO".equals(dto.getEstado())) {
+            t.setCompletados(t.getCompletados() + 1);
+        } else {
+            t.setActivos(t.getActivos() + 1);
         }
 
-        // 3. Convertimos a DTO y devolvemos los datos calculados directamente
-        // NO llamamos a repository.saveAll()
-        return activos.stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
-    }
-
-    private BigDecimal sumarMesesAnteriores(Activo a, int mesActual) {
-        BigDecimal suma = BigDecimal.ZERO;
-        // Suma acumulativa usando los getters (que leen lo que acabamos de setear en memoria)
-        if (mesActual > 1 && a.getEne25() != null) suma = suma.add(a.getEne25());
-        if (mesActual > 2 && a.getFeb25() != null) suma = suma.add(a.getFeb25());
-        if (mesActual > 3 && a.getMar25() != null) suma = suma.add(a.getMar25());
-        if (mesActual > 4 && a.getAbr25() != null) suma = suma.add(a.getAbr25());
-        if (mesActual > 5 && a.getMay25() != null) suma = suma.add(a.getMay25());
-        if (mesActual > 6 && a.getJun25() != null) suma = suma.add(a.getJun25());
-        if (mesActual > 7 && a.getJul25() != null) suma = suma.add(a.getJul25());
-        if (mesActual > 8 && a.getAgo25() != null) suma = suma.add(a.getAgo25());
-        if (mesActual > 9 && a.getSet25() != null) suma = suma.add(a.getSet25());
-        if (mesActual > 10 && a.getOct25() != null) suma = suma.add(a.getOct25());
-        if (mesActual > 11 && a.getNov25() != null) suma = suma.add(a.getNov25());
-        return suma;
-    }
-
-    private void asignarDepreciacionAlMes(Activo a, int mes, BigDecimal monto) {
-        switch (mes) {
-            case 1: a.setEne25(monto); break;
-            case 2: a.setFeb25(monto); break;
-            case 3: a.setMar25(monto); break;
-            case 4: a.setAbr25(monto); break;
-            case 5: a.setMay25(monto); break;
-            case 6: a.setJun25(monto); break;
-            case 7: a.setJul25(monto); break;
-            case 8: a.setAgo25(monto); break;
-            case 9: a.setSet25(monto); break;
-            case 10: a.setOct25(monto); break;
-            case 11: a.setNov25(monto); break;
-            case 12: a.setDic25(monto); break;
-        }
-    }
-
-    private ResumenActivoDTO convertirADTO(Activo a) {
+        t.setValorHistorico(sumar(t.getValorHistorico(), dto.getValorHistorico()));
+        t.setDepAcumuladaInicio(sumar(t.getDepAcumuladaInicio(), dto.getDepAcumuladaInicio()));
+
+        t.setEne(sumar(t.getEne(), dto.getEne())); t.setFeb(sumar(t.getFeb(), dto.getFeb()));
+        t.setMar(sumar(t.getMar(), dto.getMar())); t.setAbr(sumar(t.getAbr(), dto.getAbr()));
+        t.setMay(sumar(t.getMay(), dto.getMay())); t.setJun(sumar(t.getJun(), dto.getJun()));
+        t.setJul(sumar(t.getJul(), dto.getJul())); t.setAgo(sumar(t.getAgo(), dto.getAgo()));
+        t.setSet(sumar(t.getSet(), dto.getSet())); t.setOct(sumar(t.getOct(), dto.getOct()));
+        t.setNov(sumar(t.getNov(), dto.getNov())); t.setDic(sumar(t.getDic(), dto.getDic()));
+
+        t.setTotalDepreciacion2025(sumar(t.getTotalDepreciacion2025(), dto.getTotalDepreciacion2025()));
+        t.setTotalDepreciacionAcumulada(sumar(t.getTotalDepreciacionAcumulada(), dto.getTotalDepreciacionAcumulada()));
+        t.setCostoNeto(sumar(t.getCostoNeto(), dto.getCostoNeto()));
+    }
+
+    private static BigDecimal sumar(BigDecimal acumulado, BigDecimal valor) {
+        return valor != null ? acumulado.add(valor) : acumulado;
+    }
+
+    // Datos tal como están en la BD
+    static ResumenActivoDTO resumir(ProyeccionActivo a) {
+        return convertirADTO(a, a.meses());
+    }
+
+    // Depreciación recalculada hasta el mes, sobre una copia de los meses (la proyección no se modifica)
+    static ResumenActivoDTO calcular(ProyeccionActivo a, int mesObjetivo) {
+        return convertirADTO(a, mesesCalculados(a, mesObjetivo));
+    }
+
+    static BigDecimal[] mesesCalculados(ProyeccionActivo a, int mesObjetivo) {
+        BigDecimal[] meses = a.meses().clone();
+        MotorDepreciacion.aplicarHastaMes(a.valorHistorico(), a.depreciacionAcumuladaInicio(),
+                a.porcentajeDepreciacion(), meses, mesObjetivo);
+        return meses;
+    }
+
+    private static ResumenActivoDTO convertirADTO(ProyeccionActivo a, BigDecimal[] meses) {
         ResumenActivoDTO dto = new ResumenActivoDTO();
-        dto.setCodigo(a.getCodigo());
-        dto.setDescripcion(a.getDescripcion());
-        dto.setCeco(a.getCeco());
-        dto.setValorHistorico(a.getValorHistorico());
+        dto.setCodigo(a.codigo());
+        dto.setDescripcion(a.descripcion());
+        dto.setCeco(a.ceco());
+        dto.setValorHistorico(a.valorHistorico());
 
-        BigDecimal rawPercent = a.getPorcentajeDepreciacion() != null ? a.getPorcentajeDepreciacion() : BigDecimal.ZERO;
+        BigDecimal rawPercent = a.porcentajeDepreciacion() != null ? a.porcentajeDepreciacion() : BigDecimal.ZERO;
         if (rawPercent.compareTo(BigDecimal.ONE) > 0) {
             rawPercent = rawPercent.divide(new BigDecimal(100), 4, RoundingMode.HALF_UP);
         }
         dto.setPorcentajeDepreciacion(rawPercent);
 
-        dto.setDepAcumuladaInicio(a.getDepreciacionAcumuladaInicio());
+        dto.setDepAcumuladaInicio(a.depreciacionAcumuladaInicio());
 
-        dto.setEne(a.getEne25()); dto.setFeb(a.getFeb25()); dto.setMar(a.getMar25());
-        dto.setAbr(a.getAbr25()); dto.setMay(a.getMay25()); dto.setJun(a.getJun25());
-        dto.setJul(a.getJul25()); dto.setAgo(a.getAgo25()); dto.setSet(a.getSet25());
-        dto.setOct(a.getOct25()); dto.setNov(a.getNov25()); dto.setDic(a.getDic25());
+        dto.setEne(meses[0]); dto.setFeb(meses[1]); dto.setMar(meses[2]);
+        dto.setAbr(meses[3]); dto.setMay(meses[4]); dto.setJun(meses[5]);
+        dto.setJul(meses[6]); dto.setAgo(meses[7]); dto.setSet(meses[8]);
+        dto.setOct(meses[9]); dto.setNov(meses[10]); dto.setDic(meses[11]);
 
         BigDecimal sumaAnio = BigDecimal.ZERO;
-        if(a.getEne25()!=null) sumaAnio = sumaAnio.add(a.getEne25());
-        if(a.getFeb25()!=null) sumaAnio = sumaAnio.add(a.getFeb25());
-        if(a.getMar25()!=null) sumaAnio = sumaAnio.add(a.getMar25());
-        if(a.getAbr25()!=null) sumaAnio = sumaAnio.add(a.getAbr25());
-        if(a.getMay25()!=null) sumaAnio = sumaAnio.add(a.getMay25());
-        if(a.getJun25()!=null) sumaAnio = sumaAnio.add(a.getJun25());
-        if(a.getJul25()!=null) sumaAnio = sumaAnio.add(a.getJul25());
-        if(a.getAgo25()!=null) sumaAnio = sumaAnio.add(a.getAgo25());
-        if(a.getSet25()!=null) sumaAnio = sumaAnio.add(a.getSet25());
-        if(a.getOct25()!=null) sumaAnio = sumaAnio.add(a.getOct25());
-        if(a.getNov25()!=null) sumaAnio = sumaAnio.add(a.getNov25());
-        if(a.getDic25()!=null) sumaAnio = sumaAnio.add(a.getDic25());
+        for (BigDecimal mes : meses) {
+            if (mes != null) sumaAnio = sumaAnio.add(mes);
+        }
 
         dto.setTotalDepreciacion2025(sumaAnio);
 
-        BigDecimal inicio = a.getDepreciacionAcumuladaInicio() != null ? a.getDepreciacionAcumuladaInicio() : BigDecimal.ZERO;
+        BigDecimal inicio = a.depreciacionAcumuladaInicio() != null ? a.depreciacionAcumuladaInicio() : BigDecimal.ZERO;
         BigDecimal totalAcum = inicio.add(sumaAnio);
         dto.setTotalDepreciacionAcumulada(totalAcum);
 
-        BigDecimal historico = a.getValorHistorico() != null ? a.getValorHistorico() : BigDecimal.ZERO;
+        BigDecimal historico = a.valorHistorico() != null ? a.valorHistorico() : BigDecimal.ZERO;
         dto.setCostoNeto(historico.subtract(totalAcum));
 
         dto.setEstado(dto.getCostoNeto().compareTo(BigDecimal.ZERO) <= 0 ? "COMPLETADO" : "ACTIVO");
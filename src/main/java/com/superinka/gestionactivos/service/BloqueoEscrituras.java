@@ -0,0 +1,46 @@
+package com.superinka.gestionactivos.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Exclusión entre los cierres de mes y las importaciones por API.
+ *
+ * Un cierre escribe depreciacion_periodo con los ids de activos_fijos_2025 y guarda el registro
+ * de cierre_periodo recién al final; una importación en modo reemplazar borra esos activos, y
+ * una delta los modifica mientras el cierre los lee. Así que corre uno a la vez: el cierre
+ * (una petición) no espera y responde 409, la importación (en segundo plano) espera EN_COLA.
+ * El bloqueo es de esta instancia.
+ */
+@Component
+public class BloqueoEscrituras {
+
+    public static final String CIERRE = "un cierre de mes";
+    public static final String IMPORTACION = "una importación";
+
+    private final ReentrantLock bloqueo = new ReentrantLock(true);
+    private volatile String enCurso;
+
+    /** Lo toma si está libre; si no, IllegalStateException con lo que está en curso. */
+    public void tomarSinEsperar(String operacion) {
+        if (!bloqueo.tryLock()) {
+            String actual = enCurso;
+            throw new IllegalStateException("Hay " + (actual != null ? actual : "otra escritura")
+                    + " en curso; intente de nuevo cuando termine");
+        }
+        enCurso = operacion;
+    }
+
+    /** Espera a que se libere. */
+    public void tomar(String operacion) throws InterruptedException {
+        bloqueo.lockInterruptibly();
+        enCurso = operacion;
+    }
+
+    /** Lo libera; debe llamarse desde el mismo hilo que lo tomó. */
+    public void liberar() {
+        enCurso = null;
+        bloqueo.unlock();
+    }
+}
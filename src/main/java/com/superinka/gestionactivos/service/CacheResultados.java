@@ -0,0 +1,118 @@
+package com.superinka.gestionactivos.service;
+
+import com.superinka.gestionactivos.dto.EstadisticasCacheDTO;
+import com.superinka.gestionactivos.dto.ResumenActivoDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caché LRU de los resultados de /calcular/{mes}, indexada por (versión de datos, mes).
+ *
+ * Al cambiar la versión (carga o escritura) las entradas viejas dejan de coincidir y se
+ * descartan. El tamaño se limita por cantidad de entradas y por cantidad total de filas
+ * retenidas, desalojando primero la menos usada.
+ */
+@Component
+public class CacheResultados {
+
+    private final VersionDatos versionDatos;
+    private final int maxEntradas;
+    private final long maxFilas;
+
+    private final LinkedHashMap<Clave, List<ResumenActivoDTO>> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    private long filasRetenidas;
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong desalojos = new AtomicLong();
+
+    public CacheResultados(VersionDatos versionDatos,
+                           @Value("${activos.cache.max-entradas:12}") int maxEntradas,
+                           @Value("${activos.cache.max-filas:500000}") long maxFilas) {
+        this.versionDatos = versionDatos;
+        this.maxEntradas = maxEntradas;
+        this.maxFilas = maxFilas;
+    }
+
+    /**
+     * Devuelve el resultado en caché para el mes o lo calcula con {@code calculo}.
+     * El cálculo corre fuera del candado; si dos peticiones fallan a la vez ambas calculan
+     * y se queda el último resultado (es idéntico).
+     */
+    public List<ResumenActivoDTO> obtener(int mes, Supplier<List<ResumenActivoDTO>> calculo) {
+        long version = versionDatos.actual();
+        Clave clave = new Clave(version, mes);
+
+        synchronized (this) {
+            descartarVersionesAnteriores(version);
+            List<ResumenActivoDTO> guardado = entradas.get(clave);
+            if (guardado != null) {
+                aciertos.incrementAndGet();
+                return guardado;
+            }
+        }
+
+        fallos.incrementAndGet();
+        List<ResumenActivoDTO> calculado = List.copyOf(calculo.get());
+
+        // Si los datos cambiaron mientras calculábamos, no guardamos un resultado viejo
+        if (versionDatos.actual() == version) {
+            guardar(clave, calculado);
+        }
+        return calculado;
+    }
+
+    public synchronized void invalidar() {
+        entradas.clear();
+        filasRetenidas = 0;
+    }
+
+    public synchronized EstadisticasCacheDTO estadisticas() {
+        EstadisticasCacheDTO dto = new EstadisticasCacheDTO();
+        dto.setVersionDatos(versionDatos.actual());
+        dto.setEntradas(entradas.size());
+        dto.setFilasRetenidas(filasRetenidas);
+        dto.setAciertos(aciertos.get());
+        dto.setFallos(fallos.get());
+        dto.setDesalojos(desalojos.get());
+        return dto;
+    }
+
+    private synchronized void guardar(Clave clave, List<ResumenActivoDTO> resultado) {
+        if (resultado.size() > maxFilas) return; // no entra ni sola
+
+        descartarVersionesAnteriores(clave.version());
+
+        List<ResumenActivoDTO> anterior = entradas.put(clave, resultado);
+        if (anterior != null) filasRetenidas -= anterior.size();
+        filasRetenidas += resultado.size();
+
+        var it = entradas.entrySet().iterator();
+        while ((entradas.size() > maxEntradas || filasRetenidas > maxFilas) && it.hasNext()) {
+            Map.Entry<Clave, List<ResumenActivoDTO>> masAntigua = it.next();
+            filasRetenidas -= masAntigua.getValue().size();
+            it.remove();
+            desalojos.incrementAndGet();
+        }
+    }
+
+    // Entradas de versiones anteriores ya no sirven: se liberan en el siguiente acceso
+    private void descartarVersionesAnteriores(long version) {
+        entradas.entrySet().removeIf(e -> {
+            if (e.getKey().version() != version) {
+                filasRetenidas -= e.getValue().size();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private record Clave(long version, int mes) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.superinka.gestionactivos.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Ejecuta un cálculo independiente por fila repartiendo la lista en bloques sobre un
+ * ForkJoinPool propio (no el común, para no competir con otros usos del JVM).
+ *
+ * Cada bloque escribe en su rango de un arreglo de resultados, así la salida queda en el
+ * mismo orden que la entrada (orden por id) y es idéntica a la del recorrido secuencial.
+ * Por debajo del umbral se calcula en el hilo de la petición.
+ */
+@Component
+public class CalculoParalelo {
+
+    private final boolean habilitado;
+    private final int umbral;
+    private final int tamanioBloque;
+    private final ForkJoinPool pool;
+
+    public CalculoParalelo(@Value("${activos.calculo.paralelo.habilitado:true}") boolean habilitado,
+                           @Value("${activos.calculo.paralelo.hilos:0}") int hilos,
+                           @Value("${activos.calculo.paralelo.umbral:5000}") int umbral,
+                           @Value("${activos.calculo.paralelo.tamanio-bloque:2048}") int tamanioBloque) {
+        this.habilitado = habilitado;
+        this.umbral = umbral;
+        this.tamanioBloque = Math.max(1, tamanioBloque);
+        // hilos <= 0: uno por núcleo disponible
+        this.pool = new ForkJoinPool(hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors());
+    }
+
+    public <T, R> List<R> mapear(List<T> entrada, Function<T, R> funcion) {
+        return mapearIndices(entrada.size(), i -> funcion.apply(entrada.get(i)));
+    }
+
+    // Igual que mapear, pero la función recibe la posición (0..n-1): sirve para combinar varias listas o arreglos
+    public <R> List<R> mapearIndices(int n, IntFunction<R> funcion) {
+        if (!habilitado || n < umbral) {
+            List<R> salida = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                salida.add(funcion.apply(i));
+            }
+            return salida;
+        }
+
+        return mapearEnPool(n, funcion, tamanioBloque);
+    }
+
+    private <R> List<R> mapearEnPool(int n, IntFunction<R> funcion, int porBloque) {
+        Object[] resultados = new Object[n];
+        pool.invoke(new Bloque<>(funcion, resultados, 0, n, porBloque));
+
+        @SuppressWarnings("unchecked")
+        List<R> salida = (List<R>) Arrays.asList(resultados);
+        return salida;
+    }
+
+    /**
+     * Reparte [0, n) en rangos de tamanio-bloque y aplica la función a cada rango (desde, hasta);
+     * los resultados quedan en el orden de los rangos. Sirve para acumular por bloque y combinar al final.
+     */
+    public <R> List<R> porRangos(int n, Rango<R> funcion) {
+        if (!habilitado || n < umbral) {
+            return List.of(funcion.aplicar(0, n));
+        }
+        int rangos = (n + tamanioBloque - 1) / tamanioBloque;
+        return mapearEnPool(rangos, r -> funcion.aplicar(r * tamanioBloque, Math.min(n, (r + 1) * tamanioBloque)), 1);
+    }
+
+    @FunctionalInterface
+    public interface Rango<R> {
+        R aplicar(int desde, int hasta);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        pool.shutdown();
+    }
+
+    private static final class Bloque<R> extends RecursiveAction {
+        private final IntFunction<R> funcion;
+        private final Object[] resultados;
+        private final int desde;
+        private final int hasta;
+        private final int tamanioBloque;
+
+        Bloque(IntFunction<R> funcion, Object[] resultados, int desde, int hasta, int tamanioBloque) {
+            this.funcion = funcion;
+            this.resultados = resultados;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.tamanioBloque = tamanioBloque;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde <= tamanioBloque) {
+                for (int i = desde; i < hasta; i++) {
+                    resultados[i] = funcion.apply(i);
+                }
+                return;
+            }
+            int medio = (desde + hasta) >>> 1;
+            invokeAll(new Bloque<>(funcion, resultados, desde, medio, tamanioBloque),
+                    new Bloque<>(funcion, resultados, medio, hasta, tamanioBloque));
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.superinka.gestionactivos.service;
+
+import com.superinka.gestionactivos.CierrePeriodoRepository;
+import com.superinka.gestionactivos.DepreciacionPeriodoRepository;
+import com.superinka.gestionactivos.dto.CierrePeriodoDTO;
+import com.superinka.gestionactivos.dto.PeriodoActivoDTO;
+import com.superinka.gestionactivos.dto.PeriodoCerradoDTO;
+import com.superinka.gestionactivos.dto.SaldoActivo;
+import com.superinka.gestionactivos.entity.CierrePeriodo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Cronograma de depreciación persistido (depreciacion_periodo).
+ *
+ * Cerrar un mes calcula la depreciación de cada activo a partir del acumulado guardado en el
+ * cierre anterior (no desde enero) y la escribe con JDBC batch, un lote por transacción.
+ * Consultar un mes cerrado es una lectura por índice, sin recalcular nada. Un cierre no corre
+ * al mismo tiempo que otro ni que una importación (ver {@link BloqueoEscrituras}).
+ */
+@Service
+public class CronogramaService {
+
+    // Año de las columnas ene25..dic25 y de la depreciación acumulada al inicio
+    public static final int ANIO_BASE = 2025;
+
+    private static final String SQL_UPSERT = "INSERT INTO depreciacion_periodo "
+            + "(periodo, activo_id, anio, mes, depreciacion, depreciacion_acumulada, costo_neto) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (periodo, activo_id) DO UPDATE SET "
+            + "depreciacion = EXCLUDED.depreciacion, "
+            + "depreciacion_acumulada = EXCLUDED.depreciacion_acumulada, "
+            + "costo_neto = EXCLUDED.costo_neto";
+
+    private static final String SQL_BORRAR_PERIODO = "DELETE FROM depreciacion_periodo WHERE periodo = ?";
+
+    @Autowired
+    private DepreciacionPeriodoRepository periodoRepository;
+
+    @Autowired
+    private CierrePeriodoRepository cierreRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BloqueoEscrituras bloqueo;
+
+    @Value("${activos.cierre.tamanio-lote:1000}")
+    private int tamanioLote;
+
+    private record Fila(long activoId, BigDecimal depreciacion, BigDecimal acumulado, BigDecimal costoNeto) {
+    }
+
+    /**
+     * Cierra (o vuelve a cerrar) el periodo. El primer cierre puede ser cualquier mes desde enero
+     * del año base y parte del cálculo desde el inicio del año; los siguientes deben ser consecutivos.
+     * No se puede volver a cerrar un mes si ya hay otro posterior cerrado, ni cerrar mientras corre
+     * otro cierre o una importación (IllegalStateException).
+     */
+    public CierrePeriodoDTO cerrarMes(int anio, int mes) {
+        if (mes < 1 || mes > MotorDepreciacion.MESES || anio < ANIO_BASE) {
+            throw new IllegalArgumentException("Periodo inválido: " + anio + "-" + mes);
+        }
+        // Las validaciones de abajo también van dentro: otro cierre pudo terminar recién
+        bloqueo.tomarSinEsperar(BloqueoEscrituras.CIERRE);
+        try {
+            return cerrar(anio, mes);
+        } finally {
+            bloqueo.liberar();
+        }
+    }
+
+    private CierrePeriodoDTO cerrar(int anio, int mes) {
+        int periodo = periodo(anio, mes);
+        int anterior = mes == 1 ? periodo(anio - 1, MotorDepreciacion.MESES) : periodo - 1;
+
+        if (cierreRepository.existsByPeriodoGreaterThan(periodo)) {
+            throw new IllegalStateException("Ya hay un periodo posterior a " + periodo + " cerrado");
+        }
+        boolean incremental = cierreRepository.existsById(anterior);
+        if (!incremental && cierreRepository.count() > 0 && !soloEstaCerrado(periodo)) {
+            throw new IllegalStateException("Primero debe cerrarse el periodo " + anterior);
+        }
+
+        // Al volver a cerrar, las filas del cierre anterior de activos retirados o borrados desde
+        // entonces no se sobrescriben: se borran junto con el primer lote
+        boolean recierre = cierreRepository.existsById(periodo);
+
+        // Meses transcurridos desde enero del año base hasta el inicio de este periodo
+        int mesesPrevios = (anio - ANIO_BASE) * MotorDepreciacion.MESES + (mes - 1);
+
+        long inicio = System.currentTimeMillis();
+        long total = 0;
+        long cursor = 0;
+        while (true) {
+            long despuesDe = cursor;
+            List<SaldoActivo> lote = transactionTemplate.execute(estado -> {
+                if (recierre && despuesDe == 0) {
+                    jdbcTemplate.update(SQL_BORRAR_PERIODO, periodo);
+                }
+                List<SaldoActivo> saldos = periodoRepository.findSaldosDespuesDe(anterior, despuesDe, Limit.of(tamanioLote));
+                escribir(periodo, anio, mes, calcular(saldos, mesesPrevios));
+                return saldos;
+            });
+            total += lote.size();
+            if (lote.size() < tamanioLote) break;
+            cursor = lote.get(lote.size() - 1).id();
+        }
+
+        CierrePeriodo cierre = new CierrePeriodo();
+        cierre.setPeriodo(periodo);
+        cierre.setAnio(anio);
+        cierre.setMes(mes);
+        cierre.setActivos(total);
+        cierre.setFechaCierre(LocalDateTime.now());
+        cierreRepository.save(cierre);
+
+        long tiempo = System.currentTimeMillis() - inicio;
+        System.out.println("📅 Periodo " + periodo + " cerrado: " + total + " activos en " + tiempo + " ms"
+                + (incremental ? " (desde el cierre " + anterior + ")" : " (primer cierre)"));
+
+        CierrePeriodoDTO dto = new CierrePeriodoDTO();
+        dto.setAnio(anio);
+        dto.setMes(mes);
+        dto.setActivos(total);
+        dto.setIncremental(incremental);
+        dto.setMilisegundos(tiempo);
+        return dto;
+    }
+
+    // Volver a cerrar el único periodo cerrado (p. ej. después de corregir datos)
+    private boolean soloEstaCerrado(int periodo) {
+        return cierreRepository.count() == 1 && cierreRepository.existsById(periodo);
+    }
+
+    @Transactional(readOnly = true)
+    public List<PeriodoActivoDTO> obtenerPeriodo(int anio, int mes) {
+        int periodo = periodo(anio, mes);
+        if (!cierreRepository.existsById(periodo)) {
+            return null;
+        }
+        return periodoRepository.findCronograma(periodo);
+    }
+
+    // Sólo lectura: las entidades se cargan read-only (sin copia para dirty checking)
+    @Transactional(readOnly = true)
+    public List<PeriodoCerradoDTO> obtenerCierres() {
+        return cierreRepository.findAllByOrderByPeriodoAsc().stream()
+                .map(CronogramaService::convertirADTO)
+                .collect(Collectors.toList());
+    }
+
+    private static PeriodoCerradoDTO convertirADTO(CierrePeriodo cierre) {
+        PeriodoCerradoDTO dto = new PeriodoCerradoDTO();
+        dto.setPeriodo(cierre.getPeriodo());
+        dto.setAnio(cierre.getAnio());
+        dto.setMes(cierre.getMes());
+        dto.setActivos(cierre.getActivos());
+        dto.setFechaCierre(cierre.getFechaCierre());
+        return dto;
+    }
+
+    private List<Fila> calcular(List<SaldoActivo> saldos, int mesesPrevios) {
+        List<Fila> filas = new ArrayList<>(saldos.size());
+        for (SaldoActivo s : saldos) {
+            // Sin fila del mes anterior (primer cierre o activo nuevo): acumulado desde el inicio del año base
+            BigDecimal anterior = s.acumuladoAnterior() != null
+                    ? s.acumuladoAnterior()
+                    : MotorDepreciacion.acumuladoTrasMeses(s.valorHistorico(), s.depreciacionAcumuladaInicio(),
+                            s.porcentajeDepreciacion(), mesesPrevios);
+
+            BigDecimal depreciacion = MotorDepreciacion.depreciacionDelPeriodo(s.valorHistorico(), anterior,
+                    s.porcentajeDepreciacion());
+            BigDecimal acumulado = anterior.add(depreciacion);
+            BigDecimal historico = s.valorHistorico() != null ? s.valorHistorico() : BigDecimal.ZERO;
+            filas.add(new Fila(s.id(), depreciacion, acumulado, historico.subtract(acumulado)));
+        }
+        return filas;
+    }
+
+    private void escribir(int periodo, int anio, int mes, List<Fila> filas) {
+        jdbcTemplate.batchUpdate(SQL_UPSERT, filas, filas.size(), (PreparedStatement ps, Fila f) -> asignar(ps, periodo, anio, mes, f));
+    }
+
+    private static void asignar(PreparedStatement ps, int periodo, int anio, int mes, Fila f) throws SQLException {
+        ps.setInt(1, periodo);
+        ps.setLong(2, f.activoId());
+        ps.setInt(3, anio);
+        ps.setInt(4, mes);
+        ps.setBigDecimal(5, f.depreciacion());
+        ps.setBigDecimal(6, f.acumulado());
+        ps.setBigDecimal(7, f.costoNeto());
+    }
+
+    private static int periodo(int anio, int mes) {
+        return anio * 100 + mes;
+    }
+}
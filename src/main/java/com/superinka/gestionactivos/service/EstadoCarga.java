@@ -0,0 +1,107 @@
+package com.superinka.gestionactivos.service;
+
+import com.superinka.gestionactivos.dto.EstadoCargaDTO;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Avance de la carga inicial (CargaInicial corre en segundo plano después del arranque).
+ *
+ * Hasta que termina, las consultas de /api reciben 503 con Retry-After (ver EsperaCarga) y el
+ * indicador de salud "cargaInicial" queda OUT_OF_SERVICE con el avance en los detalles; es
+ * parte del grupo readiness, así el balanceador no envía tráfico a una instancia sin datos.
+ */
+@Component("cargaInicialHealthIndicator")
+public class EstadoCarga implements HealthIndicator {
+
+    public static final String PENDIENTE = "PENDIENTE";
+    public static final String CARGANDO = "CARGANDO";
+    public static final String LISTA = "LISTA";
+    public static final String ERROR = "ERROR";
+
+    public static final String MODO_COMPLETA = "completa";
+    public static final String MODO_DELTA = "delta";
+    public static final String MODO_OMITIDA = "omitida";
+
+    private volatile String estado = PENDIENTE;
+    private volatile String modo;
+    private volatile long filasGuardadas;
+    private volatile long rechazadas;
+    private volatile long inicioNanos;
+    private volatile long finNanos;
+    private volatile LocalDateTime inicio;
+    private volatile LocalDateTime fin;
+    private volatile String error;
+
+    public void iniciar(String modo) {
+        this.modo = modo;
+        this.inicio = LocalDateTime.now();
+        this.inicioNanos = System.nanoTime();
+        this.estado = CARGANDO;
+    }
+
+    public void avance(long filasGuardadas) {
+        this.filasGuardadas = filasGuardadas;
+    }
+
+    public void terminar(long filasGuardadas, long rechazadas) {
+        this.filasGuardadas = filasGuardadas;
+        this.rechazadas = rechazadas;
+        cerrar(LISTA);
+    }
+
+    public void fallar(Throwable causa) {
+        this.error = causa.getMessage() != null ? causa.getMessage() : causa.getClass().getSimpleName();
+        cerrar(ERROR);
+    }
+
+    private void cerrar(String estadoFinal) {
+        this.fin = LocalDateTime.now();
+        this.finNanos = System.nanoTime();
+        this.estado = estadoFinal;
+    }
+
+    public boolean lista() {
+        return LISTA.equals(estado);
+    }
+
+    public boolean fallida() {
+        return ERROR.equals(estado);
+    }
+
+    public EstadoCargaDTO estado() {
+        EstadoCargaDTO dto = new EstadoCargaDTO();
+        String actual = estado; // se lee primero: si ya terminó, fin y los totales están escritos
+        dto.setEstado(actual);
+        dto.setModo(modo);
+        dto.setFilasGuardadas(filasGuardadas);
+        dto.setRechazadas(rechazadas);
+        dto.setInicio(inicio);
+        dto.setFin(fin);
+        dto.setError(error);
+        if (!PENDIENTE.equals(actual)) {
+            boolean terminada = LISTA.equals(actual) || ERROR.equals(actual);
+            double segundos = ((terminada ? finNanos : System.nanoTime()) - inicioNanos) / 1_000_000_000.0;
+            dto.setSegundos(segundos);
+            dto.setFilasPorSegundo(filasGuardadas / Math.max(segundos, 0.001));
+        }
+        return dto;
+    }
+
+    @Override
+    public Health health() {
+        EstadoCargaDTO actual = estado();
+        Health.Builder salud = switch (actual.getEstado()) {
+            case LISTA -> Health.up();
+            case ERROR -> Health.down().withDetail("error", actual.getError());
+            default -> Health.outOfService();
+        };
+        return salud.withDetail("estado", actual.getEstado())
+                .withDetail("filasGuardadas", actual.getFilasGuardadas())
+                .withDetail("segundos", Math.round(actual.getSegundos()))
+                .build();
+    }
+}
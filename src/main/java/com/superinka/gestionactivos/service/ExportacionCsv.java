@@ -0,0 +1,128 @@
+package com.superinka.gestionactivos.service;
+
+import com.superinka.gestionactivos.dto.FiltroActivos;
+import com.superinka.gestionactivos.dto.ProyeccionExportacion;
+import com.superinka.gestionactivos.dto.ResumenActivoDTO;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.Iterator;
+
+/**
+ * Cronograma calculado como CSV separado por ';', con los nombres de columna de Depreciacion.csv
+ * (las columnas del cálculo, en el mismo orden relativo que en el archivo de origen) para cruzarlo
+ * en Excel contra el archivo cargado.
+ *
+ * Cada fila se arma en el mismo StringBuilder y se escribe al Writer (con buffer) apenas se calcula:
+ * la memoria no depende de la cantidad de filas.
+ */
+final class ExportacionCsv {
+
+    static final char SEPARADOR = ';';
+
+    // BOM: sin él, Excel abre el UTF-8 como ANSI y rompe las tildes
+    private static final char BOM = '\uFEFF';
+
+    private static final String[] CABECERA = {
+            "#", "CODIGO RELACIONADO CON EL ACTIVO FIJO", "CeCo", "DETALLE DEL ACTIVO FIJO: DESCRIPCIÓN",
+            "VALOR HISTORICO ACTIVO FIJO Al 09/2025", "PORCENTAJE DE DEPRECIACION % DEPRE",
+            "DEPRECIACION ACUM AL INICIO 2025 01/01/2025",
+            "Ene-25", "Feb-25", "Mar-25", "Abr-25", "May-25", "Jun-25",
+            "Jul-25", "Ago-25", "Set-25", "Oct-25", "Nov-25", "Dic-25",
+            "DEPRECIACION 2025", "TOTAL DEPRECIACIONACUMULADA 2025", "COSTO NETO", "ESTADO"
+    };
+
+    private final Writer salida;
+    private final StringBuilder linea = new StringBuilder(512);
+    private boolean primeraColumna = true;
+
+    ExportacionCsv(Writer salida) {
+        this.salida = salida;
+    }
+
+    /** Escribe la cabecera y las filas que cumplen el filtro (estado sobre la fila recalculada). */
+    int escribir(Iterator<ProyeccionExportacion> filas, int mesObjetivo, FiltroActivos filtro) throws IOException {
+        salida.write(BOM);
+        for (String columna : CABECERA) {
+            texto(columna);
+        }
+        terminarLinea();
+
+        int escritas = 0;
+        while (filas.hasNext()) {
+            ProyeccionExportacion fila = filas.next();
+            ResumenActivoDTO dto = ActivoService.calcular(fila.activo(), mesObjetivo);
+            if (!ActivoService.cumpleEstado(filtro, dto)) continue;
+            escribir(fila.numeroFila(), dto);
+            escritas++;
+        }
+        salida.flush();
+        return escritas;
+    }
+
+    private void escribir(String numeroFila, ResumenActivoDTO dto) throws IOException {
+        texto(numeroFila);
+        texto(dto.getCodigo());
+        texto(dto.getCeco());
+        texto(dto.getDescripcion());
+        monto(dto.getValorHistorico());
+        porcentaje(dto.getPorcentajeDepreciacion());
+        monto(dto.getDepAcumuladaInicio());
+        monto(dto.getEne()); monto(dto.getFeb()); monto(dto.getMar());
+        monto(dto.getAbr()); monto(dto.getMay()); monto(dto.getJun());
+        monto(dto.getJul()); monto(dto.getAgo()); monto(dto.getSet());
+        monto(dto.getOct()); monto(dto.getNov()); monto(dto.getDic());
+        monto(dto.getTotalDepreciacion2025());
+        monto(dto.getTotalDepreciacionAcumulada());
+        monto(dto.getCostoNeto());
+        texto(dto.getEstado());
+        terminarLinea();
+    }
+
+    // Entre comillas sólo si hace falta (separador, comillas o saltos de línea, como en las descripciones largas)
+    private void texto(String valor) {
+        separar();
+        if (valor == null) return;
+        boolean comillas = false;
+        for (int i = 0; i < valor.length() && !comillas; i++) {
+            char c = valor.charAt(i);
+            comillas = c == SEPARADOR || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!comillas) {
+            linea.append(valor);
+            return;
+        }
+        linea.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') linea.append('"');
+            linea.append(c);
+        }
+        linea.append('"');
+    }
+
+    // Punto decimal y sin separador de miles, con la escala del cálculo
+    private void monto(BigDecimal valor) {
+        separar();
+        if (valor != null) linea.append(valor.toPlainString());
+    }
+
+    // Como en el archivo de origen: 0.1000 -> 10%
+    private void porcentaje(BigDecimal fraccion) {
+        separar();
+        if (fraccion != null) linea.append(fraccion.movePointRight(2).stripTrailingZeros().toPlainString()).append('%');
+    }
+
+    private void separar() {
+        if (!primeraColumna) linea.append(SEPARADOR);
+        primeraColumna = false;
+    }
+
+    private void terminarLinea() throws IOException {
+        linea.append("\r\n");
+        salida.append(linea);
+        linea.setLength(0);
+        primeraColumna = true;
+    }
+}
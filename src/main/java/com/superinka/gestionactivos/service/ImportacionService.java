@@ -0,0 +1,491 @@
+package com.superinka.gestionactivos.service;
+
+import com.superinka.gestionactivos.ActivoRepository;
+import com.superinka.gestionactivos.CierrePeriodoRepository;
+import com.superinka.gestionactivos.carga.EscritorActivosJdbc;
+import com.superinka.gestionactivos.carga.ParserCsvActivos;
+import com.superinka.gestionactivos.carga.ReimportacionDelta;
+import com.superinka.gestionactivos.dto.EstadoImportacionDTO;
+import com.superinka.gestionactivos.dto.ResultadoDeltaDTO;
+import com.superinka.gestionactivos.entity.Activo;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Importación de un CSV subido por la API, en segundo plano.
+ *
+ * El archivo se lee en streaming con {@link ParserCsvActivos} (nunca está completo en memoria)
+ * y los lotes pasan al hilo de escritura por una cola acotada: si la BD va más lenta que el
+ * parser, la cola se llena y el parser espera (contrapresión), así la memoria queda limitada a
+ * unos pocos lotes. Se procesa una importación a la vez; las demás esperan EN_COLA.
+ *
+ * Modos: "reemplazar" borra los activos y carga el archivo completo en una sola transacción:
+ * hasta el commit las consultas siguen viendo los activos anteriores y, si la importación
+ * falla, el rollback los deja como estaban. "delta" compara por (codigo, numeroFila) con
+ * {@link ReimportacionDelta} y sólo escribe lo nuevo o cambiado, un lote por transacción.
+ * En los dos modos {@link VersionDatos} se incrementa una vez, al terminar (no por lote).
+ * Una importación no corre al mismo tiempo que un cierre de mes: espera EN_COLA a que termine
+ * (ver {@link BloqueoEscrituras}).
+ */
+@Service
+public class ImportacionService {
+
+    public static final String EN_COLA = "EN_COLA";
+    public static final String PROCESANDO = "PROCESANDO";
+    public static final String COMPLETADO = "COMPLETADO";
+    public static final String ERROR = "ERROR";
+
+    public static final String MODO_REEMPLAZAR = "reemplazar";
+    public static final String MODO_DELTA = "delta";
+
+    // Tag "origen" de las métricas de carga
+    private static final String ORIGEN = "importacion";
+    private static final String HAY_CIERRES = "Hay meses cerrados; sólo se puede importar con modo=delta";
+    // Importaciones terminadas que se conservan para consultar su estado
+    private static final int MAX_TRABAJOS = 20;
+    // Marca de fin en la cola (se compara por identidad)
+    private static final List<Activo> FIN = new ArrayList<>();
+    // Marca de corte: el escritor termina con error (al reemplazar, revierte la transacción)
+    private static final List<Activo> CORTAR = new ArrayList<>();
+
+    @Autowired
+    private ActivoRepository repository;
+
+    @Autowired
+    private CierrePeriodoRepository cierreRepository;
+
+    @Autowired
+    private EscritorActivosJdbc escritor;
+
+    @Autowired
+    private VersionDatos versionDatos;
+
+    @Autowired
+    private ProveedorSnapshot proveedorSnapshot;
+
+    @Autowired
+    private ProveedorIndiceBusqueda proveedorIndice;
+
+    @Autowired
+    private MetricasActivos metricas;
+
+    @Autowired
+    private ReimportacionDelta reimportacionDelta;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BloqueoEscrituras bloqueo;
+
+    @Value("${activos.carga.tamanio-lote:1000}")
+    private int tamanioLote;
+
+    @Value("${activos.importacion.lotes-en-cola:4}")
+    private int lotesEnCola;
+
+    private final ExecutorService hiloLectura = Executors.newSingleThreadExecutor(r -> new Thread(r, "importacion-lectura"));
+    private final ExecutorService hiloEscritura = Executors.newSingleThreadExecutor(r -> new Thread(r, "importacion-escritura"));
+
+    private final Map<String, Importacion> trabajos = new LinkedHashMap<>();
+
+    public EstadoImportacionDTO iniciar(MultipartFile archivo, String modo, boolean retirarFaltantes) throws IOException {
+        String modoNormalizado = modo == null ? MODO_REEMPLAZAR : modo.trim().toLowerCase(Locale.ROOT);
+        if (!MODO_REEMPLAZAR.equals(modoNormalizado) && !MODO_DELTA.equals(modoNormalizado)) {
+            throw new IllegalArgumentException("Modo inválido: " + modo + " (use " + MODO_REEMPLAZAR + " o " + MODO_DELTA + ")");
+        }
+        if (archivo.isEmpty()) {
+            throw new IllegalArgumentException("El archivo está vacío");
+        }
+        // Los meses cerrados guardan depreciación por id de activo: reemplazar los dejaría huérfanos
+        // (delta conserva los ids: actualiza en su lugar y retira sin borrar)
+        // (se vuelve a revisar al empezar, ya con el bloqueo: un cierre puede terminar mientras espera)
+        if (MODO_REEMPLAZAR.equals(modoNormalizado) && cierreRepository.count() > 0) {
+            throw new IllegalStateException(HAY_CIERRES);
+        }
+
+        // El multipart ya está en un temporal del contenedor, que se borra al responder:
+        // se mueve a uno propio que vive hasta que termina la importación
+        Path temporal = Files.createTempFile("importacion-", ".csv");
+        try {
+            archivo.transferTo(temporal);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporal);
+            throw e;
+        }
+
+        Importacion importacion = new Importacion(UUID.randomUUID().toString(), archivo.getOriginalFilename(),
+                modoNormalizado, retirarFaltantes, Files.size(temporal));
+        registrar(importacion);
+        hiloLectura.execute(() -> ejecutar(importacion, temporal));
+        return importacion.estado();
+    }
+
+    public synchronized EstadoImportacionDTO obtener(String id) {
+        Importacion importacion = trabajos.get(id);
+        return importacion != null ? importacion.estado() : null;
+    }
+
+    public synchronized List<EstadoImportacionDTO> listar() {
+        return trabajos.values().stream().map(Importacion::estado).collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        hiloLectura.shutdownNow();
+        hiloEscritura.shutdownNow();
+    }
+
+    private synchronized void registrar(Importacion importacion) {
+        trabajos.put(importacion.id, importacion);
+        // Se descartan las más antiguas ya terminadas
+        Iterator<Importacion> it = trabajos.values().iterator();
+        while (trabajos.size() > MAX_TRABAJOS && it.hasNext()) {
+            if (it.next().terminada()) it.remove();
+        }
+    }
+
+    private void ejecutar(Importacion importacion, Path temporal) {
+        try {
+            bloqueo.tomar(BloqueoEscrituras.IMPORTACION);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            importacion.terminar(ERROR, "Importación interrumpida");
+            borrar(temporal);
+            return;
+        }
+        try {
+            if (!importacion.delta() && cierreRepository.count() > 0) {
+                importacion.terminar(ERROR, HAY_CIERRES);
+                System.out.println("❌ Importación " + importacion.id + " fallida: " + importacion.error);
+                borrar(temporal);
+                return;
+            }
+            importar(importacion, temporal);
+        } finally {
+            bloqueo.liberar();
+        }
+    }
+
+    private void importar(Importacion importacion, Path temporal) {
+        importacion.iniciar();
+        System.out.println("📥 Importando " + importacion.archivo + " (" + importacion.bytesTotales + " bytes)...");
+
+        BlockingQueue<List<Activo>> cola = new ArrayBlockingQueue<>(Math.max(1, lotesEnCola));
+        // La sesión delta se crea antes del primer lote; la cola publica la referencia al hilo de escritura
+        ReimportacionDelta.Sesion[] sesion = {null};
+        Future<?> escritura = hiloEscritura.submit(() -> escribir(importacion, cola, sesion));
+
+        try (Reader lector = new InputStreamReader(
+                new EntradaContada(Files.newInputStream(temporal), importacion.bytesLeidos), StandardCharsets.UTF_8)) {
+
+            if (importacion.delta()) {
+                sesion[0] = reimportacionDelta.iniciar(importacion.retirarFaltantes, tamanioLote);
+            }
+
+            ParserCsvActivos.Resultado resultado = new ParserCsvActivos.Resultado();
+            List<Activo> lote = new ArrayList<>(tamanioLote);
+            ParserCsvActivos.parsearArchivo(lector, activo -> {
+                lote.add(activo);
+                if (lote.size() >= tamanioLote) {
+                    importacion.avance(resultado);
+                    encolar(cola, new ArrayList<>(lote), escritura);
+                    lote.clear();
+                }
+            }, resultado);
+
+            if (!lote.isEmpty()) {
+                encolar(cola, new ArrayList<>(lote), escritura);
+            }
+            importacion.avance(resultado);
+            encolar(cola, FIN, escritura);
+            escritura.get();
+
+            if (sesion[0] != null) {
+                ResultadoDeltaDTO delta = sesion[0].terminar();
+                importacion.delta = delta;
+                System.out.println("   - Delta: " + delta);
+            }
+
+            importacion.terminar(COMPLETADO, null);
+            metricas.cargaTerminada(ORIGEN, importacion.escritas.get(), resultado.getRechazados(), importacion.nanos());
+            System.out.printf("✅ Importación %s: %d filas guardadas, %d rechazadas (%.0f filas/s)%n",
+                    importacion.id, importacion.escritas.get(), resultado.getRechazados(), importacion.filasPorSegundo());
+        } catch (Exception e) {
+            Throwable causa = causa(e, escritura);
+            detener(cola, escritura);
+            importacion.terminar(ERROR, causa.getMessage() != null ? causa.getMessage() : causa.getClass().getSimpleName());
+            System.out.println("❌ Importación " + importacion.id + " fallida: " + importacion.error);
+        } finally {
+            borrar(temporal);
+            // Una sola versión nueva por importación, después del commit; también si falló en delta
+            // (sus lotes anteriores ya están guardados)
+            ResultadoDeltaDTO delta = importacion.delta;
+            if (importacion.escritas.get() > 0 || (delta != null && delta.getRetirados() > 0)) {
+                versionDatos.incrementar();
+            }
+            // Snapshot e índice de búsqueda (incremental) de los datos nuevos antes de la próxima consulta
+            proveedorSnapshot.actual();
+            proveedorIndice.actual();
+        }
+    }
+
+    private static void borrar(Path temporal) {
+        try {
+            Files.deleteIfExists(temporal);
+        } catch (IOException e) {
+            System.out.println("⚠️ No se pudo borrar el temporal " + temporal + ": " + e.getMessage());
+        }
+    }
+
+    // Hilo de escritura. Al reemplazar, el borrado y todos los lotes van en la misma transacción
+    // (JdbcTemplate usa la conexión de la transacción de JPA)
+    private Void escribir(Importacion importacion, BlockingQueue<List<Activo>> cola,
+                          ReimportacionDelta.Sesion[] sesion) {
+        if (importacion.delta()) {
+            escribirLotes(importacion, cola, sesion);
+            return null;
+        }
+        transactionTemplate.executeWithoutResult(estado -> {
+            repository.deleteAllInBatch();
+            importacion.completa = escritor.iniciarCarga();
+            escribirLotes(importacion, cola, sesion);
+        });
+        return null;
+    }
+
+    // Un batch JDBC por lote, hasta la marca de fin
+    private void escribirLotes(Importacion importacion, BlockingQueue<List<Activo>> cola,
+                               ReimportacionDelta.Sesion[] sesion) {
+        while (true) {
+            List<Activo> lote;
+            try {
+                lote = cola.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Importación interrumpida", e);
+            }
+            if (lote == FIN) return;
+            if (lote == CORTAR) throw new IllegalStateException("Importación cancelada");
+            int guardadas;
+            if (sesion[0] != null) {
+                guardadas = sesion[0].procesar(lote);
+                importacion.delta = sesion[0].resultado();
+            } else {
+                guardadas = importacion.completa.insertar(lote);
+            }
+            importacion.escritas.addAndGet(guardadas);
+            metricas.filasGuardadas(ORIGEN, guardadas);
+        }
+    }
+
+    // Con la cola llena el parser espera al escritor; si la escritura terminó con error se corta la lectura
+    private static void encolar(BlockingQueue<List<Activo>> cola, List<Activo> lote, Future<?> escritura) {
+        try {
+            while (true) {
+                if (escritura.isDone()) {
+                    throw new IllegalStateException("La escritura se detuvo antes de terminar el archivo");
+                }
+                if (cola.offer(lote, 1, TimeUnit.SECONDS)) return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Importación interrumpida", e);
+        }
+    }
+
+    // Corta la escritura y espera a que el hilo suelte la BD (al reemplazar, con la transacción ya
+    // revertida): hasta entonces no se reconstruye el snapshot ni se libera el bloqueo de escrituras.
+    // cancel(true) no sirve para esto: sólo interrumpe y get() ya no espera
+    private static void detener(BlockingQueue<List<Activo>> cola, Future<?> escritura) {
+        if (!escritura.isDone()) {
+            // Sólo este hilo encola, así que tras vaciarla la marca siempre entra
+            cola.clear();
+            cola.offer(CORTAR);
+        }
+        try {
+            escritura.get();
+        } catch (ExecutionException | CancellationException e) {
+            // Es el corte o el error que ya se informó
+        } catch (InterruptedException e) {
+            // Cierre de la aplicación: no queda más que interrumpir al escritor
+            escritura.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Si falló la escritura, su error explica mejor que "la escritura se detuvo"
+    private static Throwable causa(Exception e, Future<?> escritura) {
+        if (e instanceof ExecutionException && e.getCause() != null) {
+            return e.getCause();
+        }
+        if (escritura.isDone() && !escritura.isCancelled()) {
+            try {
+                escritura.get();
+            } catch (ExecutionException fallo) {
+                return fallo.getCause();
+            } catch (InterruptedException interrumpido) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return e;
+    }
+
+    private static final class Importacion {
+        final String id;
+        final String archivo;
+        final String modo;
+        final boolean retirarFaltantes;
+        final long bytesTotales;
+        final AtomicLong bytesLeidos = new AtomicLong();
+        final AtomicLong escritas = new AtomicLong();
+
+        // Sólo los escribe el hilo de lectura
+        volatile String estado = EN_COLA;
+        volatile long registros;
+        volatile long rechazadas;
+        volatile long inicioNanos;
+        volatile long finNanos;
+        volatile LocalDateTime inicio;
+        volatile LocalDateTime fin;
+        volatile String error;
+        // Totales del modo delta; los actualiza el hilo de escritura por lote
+        volatile ResultadoDeltaDTO delta;
+        // Sólo reemplazar: la usa únicamente el hilo de escritura
+        volatile EscritorActivosJdbc.CargaCompleta completa;
+
+        Importacion(String id, String archivo, String modo, boolean retirarFaltantes, long bytesTotales) {
+            this.id = id;
+            this.archivo = archivo;
+            this.modo = modo;
+            this.retirarFaltantes = retirarFaltantes;
+            this.bytesTotales = bytesTotales;
+        }
+
+        void iniciar() {
+            inicio = LocalDateTime.now();
+            inicioNanos = System.nanoTime();
+            estado = PROCESANDO;
+        }
+
+        void avance(ParserCsvActivos.Resultado resultado) {
+            registros = resultado.getRegistros();
+            rechazadas = resultado.getRechazados();
+        }
+
+        void terminar(String estadoFinal, String mensaje) {
+            finNanos = System.nanoTime();
+            fin = LocalDateTime.now();
+            error = mensaje;
+            estado = estadoFinal;
+        }
+
+        boolean delta() {
+            return MODO_DELTA.equals(modo);
+        }
+
+        boolean terminada() {
+            return COMPLETADO.equals(estado) || ERROR.equals(estado);
+        }
+
+        long nanos() {
+            if (inicio == null) return 0;
+            return (terminada() ? finNanos : System.nanoTime()) - inicioNanos;
+        }
+
+        double filasPorSegundo() {
+            double segundos = nanos() / 1_000_000_000.0;
+            return segundos > 0 ? escritas.get() / segundos : 0;
+        }
+
+        EstadoImportacionDTO estado() {
+            EstadoImportacionDTO dto = new EstadoImportacionDTO();
+            dto.setId(id);
+            dto.setArchivo(archivo);
+            dto.setEstado(estado);
+            dto.setModo(modo);
+            dto.setRetirarFaltantes(retirarFaltantes);
+            dto.setBytesTotales(bytesTotales);
+            dto.setBytesLeidos(bytesLeidos.get());
+            dto.setFilasLeidas(registros);
+            dto.setFilasEscritas(escritas.get());
+            dto.setRechazadas(rechazadas);
+            dto.setFilasPorSegundo(Math.round(filasPorSegundo()));
+            dto.setInicio(inicio);
+            dto.setFin(fin);
+            dto.setError(error);
+            dto.setDelta(delta);
+            if (completa != null) dto.setDuplicadas(completa.duplicados());
+
+            // ETA: el tiempo transcurrido escalado a los bytes que faltan leer
+            long leidos = bytesLeidos.get();
+            if (PROCESANDO.equals(estado) && leidos > 0) {
+                double segundos = nanos() / 1_000_000_000.0;
+                dto.setSegundosRestantes(Math.round(segundos * (bytesTotales - leidos) / leidos));
+            }
+            return dto;
+        }
+    }
+
+    // Cuenta los bytes leídos del archivo para el avance y el ETA
+    private static final class EntradaContada extends FilterInputStream {
+        private final AtomicLong contador;
+
+        EntradaContada(InputStream entrada, AtomicLong contador) {
+            super(entrada);
+            this.contador = contador;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) contador.incrementAndGet();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int leidos = super.read(b, off, len);
+            if (leidos > 0) contador.addAndGet(leidos);
+            return leidos;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long saltados = super.skip(n);
+            contador.addAndGet(saltados);
+            return saltados;
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.superinka.gestionactivos.service;
+
+import com.superinka.gestionactivos.dto.ProyeccionBusqueda;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria sobre descripcion, marca, modelo y seriePlaca.
+ *
+ * El texto se parte en palabras sin tildes y en minúsculas ("Cámara Nº5" -> camara, no5). Cada
+ * palabra distinta es un término del diccionario con su lista de (documento, campo); además cada
+ * término se indexa por sus trigramas, así una consulta de 3 o más caracteres encuentra las
+ * palabras que la contienen sin recorrer el diccionario (intersección de trigramas y verificación
+ * sobre unos pocos términos). Con 1 o 2 caracteres se buscan las palabras que empiezan así.
+ *
+ * Todas las palabras de la consulta deben aparecer (en cualquier campo). Las series y modelos
+ * también se indexan juntos ("ABC-123" -> abc123) para encontrarlos escritos sin guiones.
+ *
+ * Admite cambios incrementales: una fila cambiada se agrega como documento nuevo y la anterior
+ * queda marcada como borrada hasta que se compacta. Las búsquedas toman el lock de lectura y
+ * los cambios el de escritura.
+ */
+public final class IndiceBusqueda {
+
+    private static final int DESCRIPCION = 0;
+    private static final int MARCA = 1;
+    private static final int MODELO = 2;
+    private static final int SERIE = 3;
+    private static final int[] PESOS = {1, 2, 3, 4};
+
+    private static final int EXACTA = 3;
+    private static final int PREFIJO = 2;
+    private static final int SUBCADENA = 1;
+
+    private static final int N = 3;
+    // Se compacta cuando los borrados superan a los vigentes (y son bastantes)
+    private static final int MINIMO_PARA_COMPACTAR = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Documentos: el número de documento crece con cada alta, así las listas quedan ordenadas
+    private ProyeccionBusqueda[] documentos = new ProyeccionBusqueda[1024];
+    private int cantidadDocumentos;
+    private final BitSet vigentes = new BitSet();
+    private final Map<Long, Integer> documentoPorId = new HashMap<>();
+    private int borrados;
+
+    // Diccionario: término -> (documento << 2 | campo); trigrama -> ids de término
+    private final TreeMap<String, Termino> terminos = new TreeMap<>();
+    private final List<Termino> terminosPorId = new ArrayList<>();
+    private final Map<String, Lista> trigramas = new HashMap<>();
+
+    private volatile long version = -1;
+
+    record Acierto(ProyeccionBusqueda activo, int puntaje) {
+    }
+
+    record Resultado(int total, List<Acierto> aciertos) {
+    }
+
+    // ==================== Consulta ====================
+
+    /** Aciertos ordenados por puntaje (mayor primero) y luego por id, desde la posición dada. */
+    Resultado buscar(String consulta, int desde, int limite) {
+        List<String> palabras = new ArrayList<>(new LinkedHashSet<>(palabras(consulta)));
+        if (palabras.isEmpty()) return new Resultado(0, List.of());
+
+        lock.readLock().lock();
+        try {
+            // Las palabras más selectivas primero: la intersección se achica pronto
+            List<List<Coincidencia>> porPalabra = new ArrayList<>(palabras.size());
+            for (String palabra : palabras) {
+                List<Coincidencia> coincidencias = coincidencias(palabra);
+                if (coincidencias.isEmpty()) return new Resultado(0, List.of());
+                porPalabra.add(coincidencias);
+            }
+            porPalabra.sort(Comparator.comparingLong(IndiceBusqueda::postings));
+
+            Map<Integer, Integer> puntajes = null;
+            for (List<Coincidencia> coincidencias : porPalabra) {
+                Map<Integer, Integer> mejor = new HashMap<>();
+                for (Coincidencia c : coincidencias) {
+                    Lista postings = c.termino().postings;
+                    for (int p = 0; p < postings.tamanio; p++) {
+                        int valor = postings.valores[p];
+                        int documento = valor >>> 2;
+                        if (!vigentes.get(documento) || (puntajes != null && !puntajes.containsKey(documento))) continue;
+                        mejor.merge(documento, PESOS[valor & 3] * c.tipo(), Math::max);
+                    }
+                }
+                if (puntajes == null) {
+                    puntajes = mejor;
+                } else {
+                    puntajes.keySet().retainAll(mejor.keySet());
+                    for (Map.Entry<Integer, Integer> e : puntajes.entrySet()) {
+                        e.setValue(e.getValue() + mejor.get(e.getKey()));
+                    }
+                }
+                if (puntajes.isEmpty()) return new Resultado(0, List.of());
+            }
+
+            List<Acierto> aciertos = new ArrayList<>(puntajes.size());
+            for (Map.Entry<Integer, Integer> e : puntajes.entrySet()) {
+                aciertos.add(new Acierto(documentos[e.getKey()], e.getValue()));
+            }
+            aciertos.sort(Comparator.comparingInt(Acierto::puntaje).reversed()
+                    .thenComparingLong(a -> a.activo().id()));
+            int inicio = Math.min(desde, aciertos.size());
+            int fin = (int) Math.min((long) inicio + limite, aciertos.size());
+            return new Resultado(aciertos.size(), new ArrayList<>(aciertos.subList(inicio, fin)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record Coincidencia(Termino termino, int tipo) {
+    }
+
+    private static long postings(List<Coincidencia> coincidencias) {
+        long total = 0;
+        for (Coincidencia c : coincidencias) total += c.termino().postings.tamanio;
+        return total;
+    }
+
+    // Términos que contienen la palabra (o empiezan con ella si es corta) y cómo coinciden
+    private List<Coincidencia> coincidencias(String palabra) {
+        List<Coincidencia> coincidencias = new ArrayList<>();
+        if (palabra.length() < N) {
+            for (Termino t : terminos.subMap(palabra, true, palabra + Character.MAX_VALUE, false).values()) {
+                coincidencias.add(new Coincidencia(t, t.texto.equals(palabra) ? EXACTA : PREFIJO));
+            }
+            return coincidencias;
+        }
+        int[] candidatos = null;
+        for (String trigrama : trigramas(palabra)) {
+            Lista lista = trigramas.get(trigrama);
+            if (lista == null) return coincidencias;
+            candidatos = candidatos == null ? Arrays.copyOf(lista.valores, lista.tamanio) : interseccion(candidatos, lista);
+            if (candidatos.length == 0) return coincidencias;
+        }
+        for (int id : candidatos) {
+            Termino t = terminosPorId.get(id);
+            // Los trigramas pueden estar en otro orden: se verifica la subcadena
+            int posicion = t.texto.indexOf(palabra);
+            if (posicion < 0) continue;
+            int tipo = posicion > 0 ? SUBCADENA : t.texto.length() == palabra.length() ? EXACTA : PREFIJO;
+            coincidencias.add(new Coincidencia(t, tipo));
+        }
+        return coincidencias;
+    }
+
+    private static int[] interseccion(int[] a, Lista b) {
+        int[] salida = new int[Math.min(a.length, b.tamanio)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.tamanio) {
+            if (a[i] < b.valores[j]) i++;
+            else if (a[i] > b.valores[j]) j++;
+            else {
+                salida[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(salida, n);
+    }
+
+    // ==================== Cambios ====================
+
+    /** Quita los ids y agrega (o reemplaza) las filas dadas, en un solo paso de escritura. */
+    void aplicar(List<Long> quitar, List<ProyeccionBusqueda> filas) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : quitar) quitarSinLock(id);
+            for (ProyeccionBusqueda fila : filas) {
+                quitarSinLock(fila.id());
+                agregarSinLock(fila);
+            }
+            if (borrados > MINIMO_PARA_COMPACTAR && borrados > tamanio()) {
+                compactar();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void quitarSinLock(long id) {
+        Integer documento = documentoPorId.remove(id);
+        if (documento != null) {
+            vigentes.clear(documento);
+            borrados++;
+        }
+    }
+
+    private void agregarSinLock(ProyeccionBusqueda fila) {
+        if (cantidadDocumentos == documentos.length) {
+            documentos = Arrays.copyOf(documentos, documentos.length * 2);
+        }
+        int documento = cantidadDocumentos++;
+        documentos[documento] = fila;
+        vigentes.set(documento);
+        documentoPorId.put(fila.id(), documento);
+
+        indexar(documento, DESCRIPCION, fila.descripcion(), false);
+        indexar(documento, MARCA, fila.marca(), false);
+        indexar(documento, MODELO, fila.modelo(), true);
+        indexar(documento, SERIE, fila.seriePlaca(), true);
+    }
+
+    private void indexar(int documento, int campo, String texto, boolean tambienJunto) {
+        Set<String> palabras = new LinkedHashSet<>(palabras(texto));
+        if (tambienJunto && palabras.size() > 1) {
+            palabras.add(String.join("", palabras(texto)));
+        }
+        int valor = documento << 2 | campo;
+        for (String palabra : palabras) {
+            termino(palabra).postings.agregar(valor);
+        }
+    }
+
+    private Termino termino(String texto) {
+        Termino termino = terminos.get(texto);
+        if (termino == null) {
+            termino = new Termino(texto, terminosPorId.size());
+            terminos.put(texto, termino);
+            terminosPorId.add(termino);
+            for (String trigrama : trigramas(texto)) {
+                trigramas.computeIfAbsent(trigrama, k -> new Lista()).agregar(termino.id);
+            }
+        }
+        return termino;
+    }
+
+    // Rehace el índice sólo con los documentos vigentes
+    private void compactar() {
+        ProyeccionBusqueda[] anteriores = Arrays.copyOf(documentos, cantidadDocumentos);
+        BitSet eran = (BitSet) vigentes.clone();
+        documentos = new ProyeccionBusqueda[Math.max(1024, eran.cardinality())];
+        cantidadDocumentos = 0;
+        vigentes.clear();
+        documentoPorId.clear();
+        borrados = 0;
+        terminos.clear();
+        terminosPorId.clear();
+        trigramas.clear();
+        for (int d = eran.nextSetBit(0); d >= 0; d = eran.nextSetBit(d + 1)) {
+            agregarSinLock(anteriores[d]);
+        }
+    }
+
+    // ==================== Estado ====================
+
+    /** Huella de contenido indexada para el id, o null si no está. Sólo desde el hilo que aplica cambios. */
+    Long hash(long id) {
+        Integer documento = documentoPorId.get(id);
+        return documento != null ? documentos[documento].hashContenido() : null;
+    }
+
+    /** Ids indexados (sólo desde el hilo que aplica cambios). */
+    Set<Long> ids() {
+        return documentoPorId.keySet();
+    }
+
+    int tamanio() {
+        return documentoPorId.size();
+    }
+
+    int terminos() {
+        return terminosPorId.size();
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    void setVersion(long version) {
+        this.version = version;
+    }
+
+    // ==================== Texto ====================
+
+    /** Palabras sin tildes y en minúsculas: letras y dígitos, todo lo demás separa. */
+    static List<String> palabras(String texto) {
+        List<String> palabras = new ArrayList<>();
+        if (texto == null || texto.isEmpty()) return palabras;
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFKD);
+        StringBuilder palabra = new StringBuilder();
+        for (int i = 0; i < descompuesto.length(); i++) {
+            char c = descompuesto.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            if (Character.isLetterOrDigit(c)) {
+                palabra.append(Character.toLowerCase(c));
+            } else if (palabra.length() > 0) {
+                palabras.add(palabra.toString());
+                palabra.setLength(0);
+            }
+        }
+        if (palabra.length() > 0) palabras.add(palabra.toString());
+        return palabras;
+    }
+
+    private static Set<String> trigramas(String palabra) {
+        Set<String> salida = new LinkedHashSet<>();
+        for (int i = 0; i + N <= palabra.length(); i++) {
+            salida.add(palabra.substring(i, i + N));
+        }
+        return salida;
+    }
+
+    private static final class Termino {
+        final String texto;
+        final int id;
+        final Lista postings = new Lista();
+
+        Termino(String texto, int id) {
+            this.texto = texto;
+            this.id = id;
+        }
+    }
+
+    // Lista creciente de enteros (sin cajas)
+    private static final class Lista {
+        int[] valores = new int[4];
+        int tamanio;
+
+        void agregar(int valor) {
+            // Un documento repite campo/término a lo sumo una vez seguida
+            if (tamanio > 0 && valores[tamanio - 1] == valor) return;
+            if (tamanio == valores.length) valores = Arrays.copyOf(valores, tamanio * 2);
+            valores[tamanio++] = valor;
+        }
+    }
+}
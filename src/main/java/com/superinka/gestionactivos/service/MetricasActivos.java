@@ -0,0 +1,105 @@
+package com.superinka.gestionactivos.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Métricas Micrometer de los caminos calientes, expuestas en /actuator/prometheus.
+ *
+ * <ul>
+ *   <li>{@code activos.fase{operacion, fase}}: tiempo de cada fase de una consulta. fetch es la
+ *       lectura (BD o snapshot), compute el motor de depreciación o la selección de filas, map
+ *       el armado de los DTO y serialize la escritura del JSON de la respuesta. Los percentiles
+ *       se configuran en application.properties.</li>
+ *   <li>{@code activos.carga.filas{origen, resultado}}, {@code activos.carga.duracion{origen}} y
+ *       {@code activos.carga.filas.por.segundo{origen}}: carga inicial e importaciones.</li>
+ * </ul>
+ * Las estadísticas de Hibernate (hibernate.*) y del pool de conexiones (hikaricp.*) las
+ * registra Spring Boot.
+ */
+@Component
+public class MetricasActivos {
+
+    public static final String FETCH = "fetch";
+    public static final String COMPUTE = "compute";
+    public static final String MAP = "map";
+    public static final String SERIALIZE = "serialize";
+
+    // Atributo de la petición con la última operación medida: serialize se registra con la misma
+    public static final String ATRIBUTO_OPERACION = MetricasActivos.class.getName() + ".operacion";
+
+    private final MeterRegistry registro;
+
+    // Último ritmo de carga por origen (el gauge lee de aquí)
+    private final Map<String, AtomicLong> filasPorSegundo = new ConcurrentHashMap<>();
+
+    public MetricasActivos(MeterRegistry registro) {
+        this.registro = registro;
+    }
+
+    public <T> T medir(String operacion, String fase, Supplier<T> trabajo) {
+        long inicio = System.nanoTime();
+        try {
+            return trabajo.get();
+        } finally {
+            registrar(operacion, fase, System.nanoTime() - inicio);
+        }
+    }
+
+    public void registrar(String operacion, String fase, long nanos) {
+        operacion(operacion);
+        Timer.builder("activos.fase")
+                .description("Tiempo por fase de las consultas de activos")
+                .tag("operacion", operacion)
+                .tag("fase", fase)
+                .register(registro)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Marca la operación de la petición en curso (si la hay) para la fase serialize. Las fases la
+     * marcan solas; sólo hace falta llamarlo cuando una respuesta puede no pasar por ninguna (caché).
+     */
+    public void operacion(String operacion) {
+        RequestAttributes peticion = RequestContextHolder.getRequestAttributes();
+        if (peticion != null) {
+            peticion.setAttribute(ATRIBUTO_OPERACION, operacion, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    // Por lote, para que el ritmo se vea en vivo durante una carga larga
+    public void filasGuardadas(String origen, long filas) {
+        contadorFilas(origen, "guardadas").increment(filas);
+    }
+
+    public void cargaTerminada(String origen, long guardadas, long rechazadas, long nanos) {
+        contadorFilas(origen, "rechazadas").increment(rechazadas);
+        Timer.builder("activos.carga.duracion")
+                .description("Duración de la carga completa de un archivo")
+                .tag("origen", origen)
+                .register(registro)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        filasPorSegundo.computeIfAbsent(origen, o -> registro.gauge("activos.carga.filas.por.segundo",
+                        Tags.of("origen", o), new AtomicLong()))
+                .set(Math.round(guardadas / Math.max(nanos / 1_000_000_000.0, 0.001)));
+    }
+
+    private Counter contadorFilas(String origen, String resultado) {
+        return Counter.builder("activos.carga.filas")
+                .description("Filas del CSV guardadas o rechazadas")
+                .tag("origen", origen)
+                .tag("resultado", resultado)
+                .register(registro);
+    }
+}
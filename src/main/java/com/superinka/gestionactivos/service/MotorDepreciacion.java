@@ -0,0 +1,228 @@
+package com.superinka.gestionactivos.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Motor de depreciación lineal en centavos (long).
+ *
+ * Reproduce exactamente la regla de ActivoService: cuota = ROUND(VH * %DEPRE / 12, 2, HALF_UP),
+ * topada por el remanente (VH - acumulado) y en cero cuando el activo ya está agotado.
+ * En lugar de iterar mes a mes re-sumando los meses anteriores, calcula la cuota y el
+ * acumulado de cualquier mes en forma cerrada.
+ *
+ * Los montos vienen de columnas numeric(38,2), así que caben en centavos sin pérdida.
+ * Si algún valor no es representable (nulos, más de 2 decimales, desborde) se usa el
+ * cálculo BigDecimal original, para no cambiar ni un centavo ni la escala del resultado.
+ */
+public final class MotorDepreciacion {
+
+    public static final int MESES = 12;
+
+    // VH(cent) * tasa(pb) / 120000 = cuota en centavos  (100 * 10000 * 12 / 100)
+    private static final long DIVISOR_CUOTA = 120_000L;
+
+    private static final BigDecimal CIEN = new BigDecimal(100);
+    private static final BigDecimal DOCE = new BigDecimal(12);
+
+    private MotorDepreciacion() {
+    }
+
+    // ==================== API en centavos ====================
+
+    /** Convierte un monto de escala <= 2 a centavos. */
+    public static long aCentavos(BigDecimal monto) {
+        return monto.movePointRight(2).longValueExact();
+    }
+
+    /** Normaliza el % DEPRE igual que el servicio (10 -> 10%, 0.10 -> 10%) y lo devuelve en puntos básicos (1/10000). */
+    public static int tasaEnPuntosBasicos(BigDecimal porcentaje) {
+        BigDecimal fraccion = porcentaje.compareTo(BigDecimal.ONE) > 0 ? porcentaje.movePointLeft(2) : porcentaje;
+        return fraccion.movePointRight(4).intValueExact();
+    }
+
+    /** Cuota mensual teórica en centavos, redondeada HALF_UP (lejos de cero en empates). */
+    public static long cuotaTeorica(long valorHistorico, int tasaPuntosBasicos) {
+        long producto = valorHistorico * tasaPuntosBasicos;
+        long absoluto = Math.abs(producto);
+        long cociente = absoluto / DIVISOR_CUOTA;
+        if ((absoluto % DIVISOR_CUOTA) * 2 >= DIVISOR_CUOTA) {
+            cociente++;
+        }
+        return producto < 0 ? -cociente : cociente;
+    }
+
+    /** Cantidad de cuotas completas antes de la cuota final que agota el remanente. */
+    private static long cuotasCompletas(long remanenteInicial, long cuota) {
+        return (remanenteInicial - 1) / cuota;
+    }
+
+    /**
+     * Depreciación del mes (1..12) en centavos.
+     *
+     * @param remanenteInicial VH - depreciación acumulada al inicio del año
+     */
+    public static long cuotaDelMes(long remanenteInicial, long cuota, int mes) {
+        if (remanenteInicial <= 0) return 0;
+        if (cuota <= 0) return cuota; // el remanente nunca baja, siempre se aplica la cuota
+        long completas = cuotasCompletas(remanenteInicial, cuota);
+        if (mes <= completas) return cuota;
+        if (mes == completas + 1) return remanenteInicial - completas * cuota;
+        return 0;
+    }
+
+    /** Depreciación acumulada en el año desde enero hasta el mes indicado (inclusive), en centavos. */
+    public static long acumuladoHasta(long remanenteInicial, long cuota, int mes) {
+        if (remanenteInicial <= 0 || mes <= 0) return 0;
+        if (cuota <= 0) return mes * cuota;
+        return mes <= cuotasCompletas(remanenteInicial, cuota) ? mes * cuota : remanenteInicial;
+    }
+
+    /**
+     * Indica si al llegar al mes ya no quedaba remanente. En ese caso el cálculo original
+     * asigna BigDecimal.ZERO (escala 0) en lugar de una cuota de escala 2.
+     */
+    public static boolean agotado(long remanenteInicial, long cuota, int mes) {
+        if (remanenteInicial <= 0) return true;
+        if (cuota <= 0) return false;
+        return mes > cuotasCompletas(remanenteInicial, cuota) + 1;
+    }
+
+    /** Limita el mes pedido al rango que afecta el cálculo (meses fuera de 1..12 no asignan nada). */
+    public static int mesesACalcular(int mesObjetivo) {
+        return Math.max(0, Math.min(mesObjetivo, MESES));
+    }
+
+    // ==================== Cálculo sobre los 12 meses ====================
+
+    /**
+     * Reemplaza en {@code meses} (Ene..Dic, índices 0..11) la depreciación de enero a mesObjetivo.
+     * Los meses posteriores conservan el valor cargado, igual que antes.
+     */
+    public static void aplicarHastaMes(BigDecimal valorHistorico, BigDecimal acumInicio, BigDecimal porcentaje,
+                                       BigDecimal[] meses, int mesObjetivo) {
+        if (!admiteCentavos(valorHistorico, acumInicio, porcentaje)) {
+            aplicarHastaMesReferencia(valorHistorico, acumInicio, porcentaje, meses, mesObjetivo);
+            return;
+        }
+
+        long vh = aCentavos(valorHistorico);
+        long remanente = vh - aCentavos(acumInicio);
+        long cuota = cuotaTeorica(vh, tasaEnPuntosBasicos(porcentaje));
+
+        int hasta = mesesACalcular(mesObjetivo);
+        for (int m = 1; m <= hasta; m++) {
+            meses[m - 1] = agotado(remanente, cuota, m)
+                    ? BigDecimal.ZERO
+                    : BigDecimal.valueOf(cuotaDelMes(remanente, cuota, m), 2);
+        }
+    }
+
+    // ==================== Cálculo por periodo (cronograma) ====================
+
+    /**
+     * Depreciación de un periodo a partir del acumulado al cierre del periodo anterior.
+     * Es el mismo paso que aplica aplicarHastaMes a cada mes, así que cerrar los meses
+     * uno a uno da los mismos montos que recalcular desde enero.
+     */
+    public static BigDecimal depreciacionDelPeriodo(BigDecimal valorHistorico, BigDecimal acumuladoAnterior,
+                                                    BigDecimal porcentaje) {
+        if (admiteCentavos(valorHistorico, acumuladoAnterior, porcentaje)) {
+            long vh = aCentavos(valorHistorico);
+            long remanente = vh - aCentavos(acumuladoAnterior);
+            long cuota = cuotaTeorica(vh, tasaEnPuntosBasicos(porcentaje));
+            return agotado(remanente, cuota, 1) ? BigDecimal.ZERO : BigDecimal.valueOf(cuotaDelMes(remanente, cuota, 1), 2);
+        }
+        BigDecimal[] meses = new BigDecimal[MESES];
+        aplicarHastaMesReferencia(valorHistorico, acumuladoAnterior, porcentaje, meses, 1);
+        return meses[0];
+    }
+
+    /**
+     * Depreciación acumulada (incluido el acumulado inicial) después de {@code meses} periodos
+     * contados desde el inicio del año base; puede pasar de 12 para los años siguientes.
+     */
+    public static BigDecimal acumuladoTrasMeses(BigDecimal valorHistorico, BigDecimal acumInicio, BigDecimal porcentaje,
+                                                int meses) {
+        BigDecimal inicio = acumInicio != null ? acumInicio : BigDecimal.ZERO;
+        if (admiteCentavos(valorHistorico, inicio, porcentaje)) {
+            long vh = aCentavos(valorHistorico);
+            long remanente = vh - aCentavos(inicio);
+            long cuota = cuotaTeorica(vh, tasaEnPuntosBasicos(porcentaje));
+            return BigDecimal.valueOf(aCentavos(inicio) + acumuladoHasta(remanente, cuota, meses), 2);
+        }
+        BigDecimal acumulado = inicio;
+        for (int m = 0; m < meses; m++) {
+            acumulado = acumulado.add(depreciacionDelPeriodo(valorHistorico, acumulado, porcentaje));
+        }
+        return acumulado;
+    }
+
+    /**
+     * El camino en centavos es exacto (valor y escala) cuando VH y el acumulado inicial
+     * vienen con escala 2 (columnas numeric(38,2)) y el producto VH * tasa no desborda.
+     */
+    static boolean admiteCentavos(BigDecimal valorHistorico, BigDecimal acumInicio, BigDecimal porcentaje) {
+        if (valorHistorico == null || acumInicio == null || porcentaje == null) return false;
+        if (valorHistorico.scale() != 2 || acumInicio.scale() != 2) return false;
+        if (porcentaje.stripTrailingZeros().scale() > 2) return false;
+        try {
+            long vh = aCentavos(valorHistorico);
+            long remanente = Math.subtractExact(vh, aCentavos(acumInicio));
+            long tasa = tasaEnPuntosBasicos(porcentaje);
+            long producto = Math.multiplyExact(vh, tasa);
+            // margen para mes * cuota y para abs(producto)
+            return producto != Long.MIN_VALUE && Math.abs(remanente) < Long.MAX_VALUE / MESES;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+
+    // ==================== Cálculo de referencia (BigDecimal) ====================
+
+    /** Algoritmo original mes a mes. Se usa como respaldo y como oráculo en las pruebas. */
+    static void aplicarHastaMesReferencia(BigDecimal valorHistorico, BigDecimal acumInicio, BigDecimal porcentaje,
+                                          BigDecimal[] meses, int mesObjetivo) {
+        BigDecimal AA12_ValorHistorico = valorHistorico != null ? valorHistorico : BigDecimal.ZERO;
+
+        BigDecimal rawPercent = porcentaje != null ? porcentaje : BigDecimal.ZERO;
+        BigDecimal AJ12_Porcentaje = rawPercent.compareTo(BigDecimal.ONE) > 0 ? rawPercent.divide(CIEN) : rawPercent;
+
+        BigDecimal AL12_AcumInicio = acumInicio != null ? acumInicio : BigDecimal.ZERO;
+
+        for (int m = 1; m <= mesObjetivo; m++) {
+            BigDecimal cuotaTeorica = AA12_ValorHistorico.multiply(AJ12_Porcentaje)
+                    .divide(DOCE, 2, RoundingMode.HALF_UP);
+
+            BigDecimal acumuladoHastaHoy = AL12_AcumInicio.add(sumarMesesAnteriores(meses, m));
+
+            BigDecimal remanente = AA12_ValorHistorico.subtract(acumuladoHastaHoy);
+            BigDecimal montoFinal;
+
+            if (remanente.compareTo(BigDecimal.ZERO) > 0) {
+                if (cuotaTeorica.compareTo(remanente) < 0) {
+                    montoFinal = cuotaTeorica;
+                } else {
+                    montoFinal = remanente;
+                }
+            } else {
+                montoFinal = BigDecimal.ZERO;
+            }
+
+            // Los meses fuera de Ene..Dic no se asignan (como el switch original)
+            if (m <= MESES) {
+                meses[m - 1] = montoFinal;
+            }
+        }
+    }
+
+    // Suma Ene..(mesActual-1), nunca incluye Dic (como el original)
+    private static BigDecimal sumarMesesAnteriores(BigDecimal[] meses, int mesActual) {
+        BigDecimal suma = BigDecimal.ZERO;
+        int hasta = Math.min(mesActual - 1, MESES - 1);
+        for (int i = 0; i < hasta; i++) {
+            if (meses[i] != null) suma = suma.add(meses[i]);
+        }
+        return suma;
+    }
+}
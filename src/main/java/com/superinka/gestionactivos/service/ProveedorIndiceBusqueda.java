@@ -0,0 +1,130 @@
+package com.superinka.gestionactivos.service;
+
+import com.superinka.gestionactivos.dto.ProyeccionBusqueda;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mantiene el IndiceBusqueda al día con la versión de datos.
+ *
+ * Igual que el snapshot, se pone al día en el primer acceso después de que cambia la versión,
+ * y la carga inicial y las importaciones lo piden al terminar. La actualización es incremental:
+ * se leen sólo id y hash_contenido de las filas vigentes (como la reimportación delta) y se
+ * traen los textos únicamente de las filas nuevas o cambiadas; las que ya no están se quitan.
+ * Si cambió más de la mitad (p. ej. una importación en modo reemplazar) se arma un índice nuevo.
+ */
+@Component
+public class ProveedorIndiceBusqueda {
+
+    private static final String COLUMNAS =
+            "SELECT id, codigo, ceco, descripcion, marca, modelo, serie_placa, hash_contenido FROM activos_fijos_2025";
+    private static final String SQL_TODOS = COLUMNAS + " WHERE retirado = false ORDER BY id";
+    private static final String SQL_HUELLAS = "SELECT id, hash_contenido FROM activos_fijos_2025 WHERE retirado = false";
+    private static final int IDS_POR_CONSULTA = 1000;
+    private static final int FILAS_POR_VIAJE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate lectura;
+    private final VersionDatos versionDatos;
+
+    private volatile IndiceBusqueda indice = new IndiceBusqueda();
+
+    public ProveedorIndiceBusqueda(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                   VersionDatos versionDatos) {
+        // Recorridos completos con cursor: PostgreSQL sólo usa el fetch size dentro de una transacción
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(FILAS_POR_VIAJE);
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.versionDatos = versionDatos;
+    }
+
+    /** Índice de la versión actual (lo pone al día si hace falta). */
+    public IndiceBusqueda actual() {
+        IndiceBusqueda vigente = indice;
+        if (vigente.getVersion() == versionDatos.actual()) return vigente;
+
+        synchronized (this) {
+            long version = versionDatos.actual();
+            if (indice.getVersion() != version) {
+                actualizar(version);
+            }
+            return indice;
+        }
+    }
+
+    private void actualizar(long version) {
+        long inicio = System.nanoTime();
+        IndiceBusqueda vigente = indice;
+        if (vigente.tamanio() == 0) {
+            reconstruir(version, inicio);
+            return;
+        }
+
+        // Filas nuevas o con otro contenido; las vistas se descuentan de las indexadas
+        List<Long> cambiadas = new ArrayList<>();
+        Set<Long> faltantes = new HashSet<>(vigente.ids());
+        lectura.executeWithoutResult(estado -> jdbcTemplate.query(SQL_HUELLAS, rs -> {
+            long id = rs.getLong(1);
+            Long indexado = vigente.hash(id);
+            faltantes.remove(id);
+            // Sin hash guardado (0) se vuelve a leer
+            if (indexado == null || indexado != rs.getLong(2) || indexado == 0) cambiadas.add(id);
+        }));
+        if (cambiadas.size() + faltantes.size() > vigente.tamanio() / 2) {
+            reconstruir(version, inicio);
+            return;
+        }
+
+        List<ProyeccionBusqueda> filas = new ArrayList<>(cambiadas.size());
+        Collections.sort(cambiadas);
+        for (int desde = 0; desde < cambiadas.size(); desde += IDS_POR_CONSULTA) {
+            List<Long> ids = cambiadas.subList(desde, Math.min(cambiadas.size(), desde + IDS_POR_CONSULTA));
+            String sql = COLUMNAS + " WHERE retirado = false AND id IN ("
+                    + String.join(", ", Collections.nCopies(ids.size(), "?")) + ") ORDER BY id";
+            jdbcTemplate.query(sql, rs -> {
+                filas.add(fila(rs));
+            }, ids.toArray());
+        }
+        vigente.aplicar(new ArrayList<>(faltantes), filas);
+        vigente.setVersion(version);
+
+        if (!filas.isEmpty() || !faltantes.isEmpty()) {
+            System.out.printf("🔎 Índice de búsqueda: %d filas actualizadas, %d quitadas (%d ms)%n",
+                    filas.size(), faltantes.size(), (System.nanoTime() - inicio) / 1_000_000);
+        }
+    }
+
+    private void reconstruir(long version, long inicio) {
+        IndiceBusqueda nuevo = new IndiceBusqueda();
+        List<ProyeccionBusqueda> lote = new ArrayList<>(IDS_POR_CONSULTA);
+        lectura.executeWithoutResult(estado -> jdbcTemplate.query(SQL_TODOS, rs -> {
+            lote.add(fila(rs));
+            if (lote.size() >= IDS_POR_CONSULTA) {
+                nuevo.aplicar(List.of(), lote);
+                lote.clear();
+            }
+        }));
+        nuevo.aplicar(List.of(), lote);
+        nuevo.setVersion(version);
+        indice = nuevo;
+
+        System.out.printf("🔎 Índice de búsqueda: %d activos, %d términos (%d ms)%n",
+                nuevo.tamanio(), nuevo.terminos(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private static ProyeccionBusqueda fila(ResultSet rs) throws SQLException {
+        return new ProyeccionBusqueda(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                rs.getString(5), rs.getString(6), rs.getString(7), rs.getLong(8));
+    }
+}
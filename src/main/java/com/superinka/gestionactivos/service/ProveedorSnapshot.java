@@ -0,0 +1,78 @@
+package com.superinka.gestionactivos.service;
+
+import com.superinka.gestionactivos.ActivoRepository;
+import com.superinka.gestionactivos.dto.ProyeccionSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * Mantiene el SnapshotActivos de la versión de datos vigente.
+ *
+ * Se reconstruye en el primer acceso después de que cambia la versión (cada carga la
+ * incrementa) y CargaInicial lo pide al terminar, así la primera consulta ya lo encuentra.
+ * Mientras se reconstruye, las demás peticiones esperan al mismo constructor.
+ */
+@Component
+public class ProveedorSnapshot {
+
+    private final ActivoRepository repository;
+    private final VersionDatos versionDatos;
+    private final TransactionTemplate lectura;
+    private final boolean habilitado;
+
+    private volatile SnapshotActivos snapshot;
+
+    public ProveedorSnapshot(ActivoRepository repository, VersionDatos versionDatos,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${activos.snapshot.habilitado:true}") boolean habilitado) {
+        this.repository = repository;
+        this.versionDatos = versionDatos;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.habilitado = habilitado;
+    }
+
+    /** Snapshot de la versión actual, o null si está deshabilitado (se usa la BD directamente). */
+    public SnapshotActivos actual() {
+        if (!habilitado) return null;
+
+        long version = versionDatos.actual();
+        SnapshotActivos vigente = snapshot;
+        if (vigente != null && vigente.getVersion() == version) return vigente;
+
+        synchronized (this) {
+            vigente = snapshot;
+            if (vigente == null || vigente.getVersion() != versionDatos.actual()) {
+                vigente = construir(versionDatos.actual());
+                snapshot = vigente;
+            }
+            return vigente;
+        }
+    }
+
+    /** Snapshot vigente o, si está deshabilitado, uno armado sólo para esta petición (no se guarda). */
+    public SnapshotActivos actualOTemporal() {
+        SnapshotActivos vigente = actual();
+        return vigente != null ? vigente : construir(versionDatos.actual());
+    }
+
+    private SnapshotActivos construir(long version) {
+        long inicio = System.nanoTime();
+        SnapshotActivos.Constructor constructor = SnapshotActivos.constructor(version);
+        lectura.executeWithoutResult(estado -> {
+            try (Stream<ProyeccionSnapshot> filas = repository.streamParaSnapshot()) {
+                filas.forEach(constructor::agregar);
+            }
+        });
+        SnapshotActivos nuevo = constructor.construir();
+
+        System.out.printf("📦 Snapshot de activos: %d filas (%d sin camino exacto), ~%.1f MB, %d ms%n",
+                nuevo.tamanio(), nuevo.filasRespaldo(), nuevo.bytesEstimados() / 1_048_576.0,
+                (System.nanoTime() - inicio) / 1_000_000);
+        return nuevo;
+    }
+}
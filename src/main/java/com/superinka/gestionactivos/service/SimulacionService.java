@@ -0,0 +1,105 @@
+package com.superinka.gestionactivos.service;
+
+import com.superinka.gestionactivos.dto.AjusteEscenarioDTO;
+import com.superinka.gestionactivos.dto.EscenarioDTO;
+import com.superinka.gestionactivos.dto.ResultadoSimulacionDTO;
+import com.superinka.gestionactivos.dto.SimulacionDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Simulación por lotes de escenarios "qué pasaría si" (tasas, retiros y ajustes de valor).
+ * La cartera se lee una vez (el snapshot en memoria) y todos los escenarios se evalúan en el
+ * mismo recorrido, repartido por rangos entre los núcleos. No escribe en la BD.
+ */
+@Service
+public class SimulacionService {
+
+    @Autowired
+    private ProveedorSnapshot proveedorSnapshot;
+
+    @Autowired
+    private CalculoParalelo calculoParalelo;
+
+    @Autowired
+    private MetricasActivos metricas;
+
+    private static final String OP_SIMULAR = "simular";
+
+    private static final int MAX_ESCENARIOS = 50;
+    private static final int MAX_AJUSTES = 100;
+    private static final int MAX_DETALLE = 10_000;
+    private static final BigDecimal CIEN = BigDecimal.valueOf(100);
+
+    public ResultadoSimulacionDTO simular(SimulacionDTO pedido) {
+        validar(pedido);
+        long inicio = System.currentTimeMillis();
+
+        // Sin snapshot habilitado se arma uno sólo para esta simulación
+        SnapshotActivos snapshot = metricas.medir(OP_SIMULAR, MetricasActivos.FETCH, proveedorSnapshot::actualOTemporal);
+        SimuladorEscenarios simulador = new SimuladorEscenarios(snapshot, pedido.getMes(), pedido.getEscenarios(),
+                pedido.isDetalle() ? pedido.getLimiteDetalle() : 0);
+        SimuladorEscenarios.Parcial total = metricas.medir(OP_SIMULAR, MetricasActivos.COMPUTE,
+                () -> SimuladorEscenarios.combinar(calculoParalelo.porRangos(snapshot.tamanio(), simulador::simular)));
+
+        return metricas.medir(OP_SIMULAR, MetricasActivos.MAP, () -> {
+            ResultadoSimulacionDTO resultado = new ResultadoSimulacionDTO();
+            resultado.setMes(pedido.getMes());
+            resultado.setVersionDatos(snapshot.getVersion());
+            resultado.setActivos(snapshot.tamanio());
+            resultado.setBase(simulador.resultadoBase(total));
+            resultado.setEscenarios(simulador.resultados(total));
+            resultado.setMilisegundos(System.currentTimeMillis() - inicio);
+            return resultado;
+        });
+    }
+
+    private static void validar(SimulacionDTO pedido) {
+        if (pedido.getMes() < 1 || pedido.getMes() > MotorDepreciacion.MESES) {
+            throw new IllegalArgumentException("mes debe estar entre 1 y 12");
+        }
+        List<EscenarioDTO> escenarios = pedido.getEscenarios();
+        if (escenarios == null || escenarios.isEmpty() || escenarios.size() > MAX_ESCENARIOS) {
+            throw new IllegalArgumentException("Se requieren entre 1 y " + MAX_ESCENARIOS + " escenarios");
+        }
+        if (pedido.isDetalle() && (pedido.getLimiteDetalle() < 1 || pedido.getLimiteDetalle() > MAX_DETALLE)) {
+            throw new IllegalArgumentException("limiteDetalle debe estar entre 1 y " + MAX_DETALLE);
+        }
+        for (int s = 0; s < escenarios.size(); s++) {
+            EscenarioDTO escenario = escenarios.get(s);
+            if (escenario == null) {
+                throw new IllegalArgumentException("Escenario " + (s + 1) + " vacío");
+            }
+            if (escenario.getNombre() == null || escenario.getNombre().isBlank()) {
+                escenario.setNombre("escenario " + (s + 1));
+            }
+            List<AjusteEscenarioDTO> ajustes = escenario.getAjustes();
+            if (ajustes == null || ajustes.isEmpty() || ajustes.size() > MAX_AJUSTES) {
+                throw new IllegalArgumentException(escenario.getNombre() + ": se requieren entre 1 y " + MAX_AJUSTES + " ajustes");
+            }
+            for (AjusteEscenarioDTO ajuste : ajustes) {
+                validar(escenario.getNombre(), ajuste);
+            }
+        }
+    }
+
+    private static void validar(String escenario, AjusteEscenarioDTO ajuste) {
+        if (ajuste == null) {
+            throw new IllegalArgumentException(escenario + ": ajuste vacío");
+        }
+        if (ajuste.getPorcentaje() == null && ajuste.getMesRetiro() == null && ajuste.getAjusteValor() == null) {
+            throw new IllegalArgumentException(escenario + ": el ajuste no cambia nada (porcentaje, mesRetiro o ajusteValor)");
+        }
+        if (ajuste.getMesRetiro() != null && (ajuste.getMesRetiro() < 1 || ajuste.getMesRetiro() > MotorDepreciacion.MESES)) {
+            throw new IllegalArgumentException(escenario + ": mesRetiro debe estar entre 1 y 12");
+        }
+        // Igual que en el CSV: 20 o 0.20 es 20%; más de 100 no tiene sentido
+        BigDecimal porcentaje = ajuste.getPorcentaje();
+        if (porcentaje != null && (porcentaje.signum() < 0 || porcentaje.compareTo(CIEN) > 0)) {
+            throw new IllegalArgumentException(escenario + ": porcentaje fuera de rango: " + porcentaje);
+        }
+    }
+}
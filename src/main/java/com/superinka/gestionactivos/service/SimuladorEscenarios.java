@@ -0,0 +1,384 @@
+package com.superinka.gestionactivos.service;
+
+import com.superinka.gestionactivos.dto.AjusteEscenarioDTO;
+import com.superinka.gestionactivos.dto.DeltaActivoDTO;
+import com.superinka.gestionactivos.dto.EscenarioDTO;
+import com.superinka.gestionactivos.dto.FiltroActivos;
+import com.superinka.gestionactivos.dto.ProyeccionActivo;
+import com.superinka.gestionactivos.dto.ResultadoEscenarioDTO;
+import com.superinka.gestionactivos.dto.TotalGrupoDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Evalúa varios escenarios "qué pasaría si" en un solo recorrido del snapshot.
+ *
+ * La base (cartera sin cambios) se suma fila por fila en centavos, como los totales del
+ * snapshot. Los escenarios no se recalculan para toda la cartera: sólo las filas a las que
+ * aplica algún ajuste se recalculan (con el motor de siempre, sobre una copia modificada de
+ * la fila) y cada escenario acumula la diferencia escenario - base de esas filas. El total
+ * de un escenario es base + diferencias, así el costo crece con las filas afectadas y no con
+ * filas x escenarios.
+ *
+ * Un recorrido se puede partir por rangos de filas ({@link #simular(int, int)}) y combinar
+ * los parciales en orden ({@link #combinar(List)}).
+ */
+final class SimuladorEscenarios {
+
+    private static final int MESES = MotorDepreciacion.MESES;
+
+    private final SnapshotActivos snapshot;
+    private final int mes;
+    private final List<Escenario> escenarios;
+    private final int limiteDetalle; // 0: sin detalle
+
+    SimuladorEscenarios(SnapshotActivos snapshot, int mes, List<EscenarioDTO> escenarios, int limiteDetalle) {
+        this.snapshot = snapshot;
+        this.mes = mes;
+        this.limiteDetalle = limiteDetalle;
+        this.escenarios = new ArrayList<>(escenarios.size());
+        for (EscenarioDTO escenario : escenarios) {
+            List<Ajuste> ajustes = new ArrayList<>(escenario.getAjustes().size());
+            for (AjusteEscenarioDTO ajuste : escenario.getAjustes()) {
+                ajustes.add(new Ajuste(ajuste));
+            }
+            this.escenarios.add(new Escenario(escenario.getNombre(), ajustes));
+        }
+    }
+
+    // ==================== Recorrido ====================
+
+    Parcial simular(int desde, int hasta) {
+        Parcial parcial = new Parcial(escenarios.size());
+        long[] cent = new long[MESES];
+        byte[] tipos = new byte[MESES];
+
+        for (int i = desde; i < hasta; i++) {
+            Fila base = null;
+            if (snapshot.exacta(i)) {
+                long suma = snapshot.llenarMeses(i, mes, cent, tipos);
+                parcial.base.sumarCentavos(snapshot.valorHistoricoCentavos(i), snapshot.acumInicioCentavos(i), cent, suma);
+            } else {
+                base = evaluar(snapshot.proyeccion(i), null, null, 0);
+                parcial.base.sumar(base, 1);
+            }
+
+            for (int s = 0; s < escenarios.size(); s++) {
+                Cambio cambio = escenarios.get(s).cambio(snapshot, i);
+                if (cambio == null) continue;
+
+                // La fila base se arma una sola vez, y sólo si algún escenario toca la fila
+                ProyeccionActivo original = snapshot.proyeccion(i);
+                if (base == null) base = evaluar(original, null, null, 0);
+                Fila escenario = evaluar(original, cambio.porcentaje, cambio.ajusteValor, cambio.mesRetiro);
+
+                Acumulador diferencia = parcial.diferencias[s];
+                diferencia.afectados++;
+                diferencia.sumar(escenario, 1);
+                diferencia.sumar(base, -1);
+                if (limiteDetalle > 0 && cambia(base, escenario)) {
+                    parcial.agregarDetalle(s, delta(i, original, base, escenario, cambio.mesRetiro), limiteDetalle);
+                }
+            }
+        }
+        return parcial;
+    }
+
+    static Parcial combinar(List<Parcial> parciales) {
+        Parcial total = parciales.get(0);
+        for (int p = 1; p < parciales.size(); p++) {
+            total.sumar(parciales.get(p));
+        }
+        return total;
+    }
+
+    ResultadoEscenarioDTO resultadoBase(Parcial parcial) {
+        return parcial.base.resultado("base", null);
+    }
+
+    List<ResultadoEscenarioDTO> resultados(Parcial parcial) {
+        if (limiteDetalle > 0) parcial.limitarDetalle(limiteDetalle);
+        List<ResultadoEscenarioDTO> resultados = new ArrayList<>(escenarios.size());
+        for (int s = 0; s < escenarios.size(); s++) {
+            Acumulador total = new Acumulador();
+            total.sumar(parcial.base);
+            total.sumar(parcial.diferencias[s]);
+
+            ResultadoEscenarioDTO dto = total.resultado(escenarios.get(s).nombre, parcial.diferencias[s]);
+            if (limiteDetalle > 0) {
+                dto.setDetalle(parcial.detalles.get(s));
+                dto.setDetalleTruncado(parcial.truncado[s]);
+            }
+            resultados.add(dto);
+        }
+        return resultados;
+    }
+
+    // ==================== Fila ====================
+
+    // Valores de una fila ya recalculada (base o escenario)
+    private record Fila(BigDecimal valorHistorico, BigDecimal acumInicio, BigDecimal[] meses, BigDecimal suma,
+                        BigDecimal costoNeto, boolean retirada) {
+    }
+
+    private Fila evaluar(ProyeccionActivo a, BigDecimal porcentaje, BigDecimal ajusteValor, int mesRetiro) {
+        ProyeccionActivo fila = a;
+        if (porcentaje != null || ajusteValor != null) {
+            BigDecimal vh = a.valorHistorico();
+            if (ajusteValor != null) vh = (vh != null ? vh : BigDecimal.ZERO).add(ajusteValor);
+            fila = new ProyeccionActivo(a.id(), a.codigo(), a.descripcion(), a.ceco(), vh,
+                    porcentaje != null ? porcentaje : a.porcentajeDepreciacion(), a.depreciacionAcumuladaInicio(), a.meses());
+        }
+        BigDecimal[] meses = ActivoService.mesesCalculados(fila, mes);
+        // Después del retiro no se deprecia
+        for (int m = mesRetiro; mesRetiro > 0 && m < MESES; m++) {
+            meses[m] = BigDecimal.ZERO;
+        }
+
+        BigDecimal suma = BigDecimal.ZERO;
+        for (BigDecimal valor : meses) {
+            if (valor != null) suma = suma.add(valor);
+        }
+        BigDecimal inicio = fila.depreciacionAcumuladaInicio() != null ? fila.depreciacionAcumuladaInicio() : BigDecimal.ZERO;
+        BigDecimal historico = fila.valorHistorico() != null ? fila.valorHistorico() : BigDecimal.ZERO;
+        return new Fila(historico, inicio, meses, suma, historico.subtract(inicio.add(suma)), mesRetiro > 0);
+    }
+
+    private static boolean cambia(Fila base, Fila escenario) {
+        return escenario.retirada()
+                || base.suma().compareTo(escenario.suma()) != 0
+                || base.costoNeto().compareTo(escenario.costoNeto()) != 0;
+    }
+
+    private DeltaActivoDTO delta(int i, ProyeccionActivo original, Fila base, Fila escenario, int mesRetiro) {
+        DeltaActivoDTO delta = new DeltaActivoDTO();
+        delta.setId(original.id());
+        delta.setCodigo(original.codigo());
+        delta.setCeco(snapshot.ceco(i));
+        delta.setDepreciacion2025Base(base.suma());
+        delta.setDepreciacion2025Escenario(escenario.suma());
+        delta.setCostoNetoBase(base.costoNeto());
+        delta.setCostoNetoEscenario(escenario.costoNeto());
+        delta.setMesRetiro(mesRetiro > 0 ? mesRetiro : null);
+        return delta;
+    }
+
+    // ==================== Escenarios ====================
+
+    // Lo que un escenario cambia en una fila (ajustes que la seleccionan, aplicados en orden)
+    private record Cambio(BigDecimal porcentaje, BigDecimal ajusteValor, int mesRetiro) {
+    }
+
+    private record Escenario(String nombre, List<Ajuste> ajustes) {
+
+        // null si ningún ajuste selecciona la fila
+        Cambio cambio(SnapshotActivos snapshot, int i) {
+            boolean aplica = false;
+            BigDecimal porcentaje = null;
+            BigDecimal ajusteValor = null;
+            int mesRetiro = 0;
+            for (Ajuste ajuste : ajustes) {
+                if (!ajuste.selecciona(snapshot, i)) continue;
+                aplica = true;
+                if (ajuste.porcentaje != null) porcentaje = ajuste.porcentaje;
+                if (ajuste.mesRetiro > 0) mesRetiro = ajuste.mesRetiro;
+                if (ajuste.ajusteValor != null) {
+                    ajusteValor = ajusteValor != null ? ajusteValor.add(ajuste.ajusteValor) : ajuste.ajusteValor;
+                }
+            }
+            return aplica ? new Cambio(porcentaje, ajusteValor, mesRetiro) : null;
+        }
+    }
+
+    private static final class Ajuste {
+        // Selectores recortados, igual que los filtros (null: cualquiera)
+        final String ceco;
+        final String cuentaContable;
+        final String prefijo;
+        final BigDecimal porcentaje;
+        final int mesRetiro;
+        final BigDecimal ajusteValor;
+
+        Ajuste(AjusteEscenarioDTO dto) {
+            ceco = FiltroActivos.tieneTexto(dto.getCeco()) ? dto.getCeco().trim() : null;
+            cuentaContable = FiltroActivos.tieneTexto(dto.getCuentaContable()) ? dto.getCuentaContable().trim() : null;
+            prefijo = FiltroActivos.tieneTexto(dto.getCodigo()) ? dto.getCodigo().trim() : null;
+            porcentaje = dto.getPorcentaje();
+            mesRetiro = dto.getMesRetiro() != null ? dto.getMesRetiro() : 0;
+            ajusteValor = dto.getAjusteValor();
+        }
+
+        boolean selecciona(SnapshotActivos snapshot, int i) {
+            if (ceco != null && !ceco.equals(snapshot.ceco(i))) return false;
+            if (cuentaContable != null && !cuentaContable.equals(snapshot.cuentaContable(i))) return false;
+            String codigo = snapshot.codigo(i);
+            return prefijo == null || (codigo != null && codigo.startsWith(prefijo));
+        }
+    }
+
+    // ==================== Acumulación ====================
+
+    /** Resultado de un rango de filas: la base y, por escenario, las diferencias y el detalle. */
+    static final class Parcial {
+        private final Acumulador base = new Acumulador();
+        private final Acumulador[] diferencias;
+        private final List<List<DeltaActivoDTO>> detalles;
+        private final boolean[] truncado;
+
+        private Parcial(int escenarios) {
+            diferencias = new Acumulador[escenarios];
+            detalles = new ArrayList<>(escenarios);
+            truncado = new boolean[escenarios];
+            for (int s = 0; s < escenarios; s++) {
+                diferencias[s] = new Acumulador();
+                detalles.add(new ArrayList<>());
+            }
+        }
+
+        private void agregarDetalle(int s, DeltaActivoDTO delta, int limite) {
+            if (detalles.get(s).size() < limite) {
+                detalles.get(s).add(delta);
+            } else {
+                truncado[s] = true;
+            }
+        }
+
+        // Los rangos se combinan en orden: el detalle queda en el orden del snapshot (id)
+        private void sumar(Parcial otro) {
+            base.sumar(otro.base);
+            for (int s = 0; s < diferencias.length; s++) {
+                diferencias[s].sumar(otro.diferencias[s]);
+                detalles.get(s).addAll(otro.detalles.get(s));
+                truncado[s] |= otro.truncado[s];
+            }
+        }
+
+        private void limitarDetalle(int limite) {
+            for (int s = 0; s < detalles.size(); s++) {
+                List<DeltaActivoDTO> detalle = detalles.get(s);
+                if (detalle.size() > limite) {
+                    detalles.set(s, new ArrayList<>(detalle.subList(0, limite)));
+                    truncado[s] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sumas en centavos (con un resto en BigDecimal para los valores de más de 2 decimales).
+     * Los retirados suman sus meses pero no los saldos al cierre.
+     */
+    private static final class Acumulador {
+        // 0 VH, 1 acumulado inicio, 2..13 Ene..Dic, 14 total 2025, 15 total acumulado, 16 costo neto, 17 neto retirado
+        private static final int CAMPOS = 18;
+        private static final int VH = 0, INICIO = 1, ENE = 2, TOTAL_ANIO = 14, TOTAL_ACUM = 15, COSTO_NETO = 16, NETO_RETIRADO = 17;
+
+        private final long[] cent = new long[CAMPOS];
+        private BigDecimal[] resto;
+        private long cantidad;
+        private long completados;
+        private long retirados;
+        private long afectados;
+
+        void sumarCentavos(long vh, long inicio, long[] meses, long sumaAnio) {
+            long totalAcum = inicio + sumaAnio;
+            cantidad++;
+            if (vh - totalAcum <= 0) completados++;
+            cent[VH] += vh;
+            cent[INICIO] += inicio;
+            for (int m = 0; m < MESES; m++) {
+                cent[ENE + m] += meses[m];
+            }
+            cent[TOTAL_ANIO] += sumaAnio;
+            cent[TOTAL_ACUM] += totalAcum;
+            cent[COSTO_NETO] += vh - totalAcum;
+        }
+
+        void sumar(Fila fila, int signo) {
+            for (int m = 0; m < MESES; m++) {
+                agregar(ENE + m, fila.meses()[m], signo);
+            }
+            agregar(TOTAL_ANIO, fila.suma(), signo);
+            if (fila.retirada()) {
+                retirados += signo;
+                agregar(NETO_RETIRADO, fila.costoNeto(), signo);
+                return;
+            }
+            cantidad += signo;
+            if (fila.costoNeto().signum() <= 0) completados += signo;
+            agregar(VH, fila.valorHistorico(), signo);
+            agregar(INICIO, fila.acumInicio(), signo);
+            agregar(TOTAL_ACUM, fila.acumInicio().add(fila.suma()), signo);
+            agregar(COSTO_NETO, fila.costoNeto(), signo);
+        }
+
+        void sumar(Acumulador otro) {
+            for (int c = 0; c < CAMPOS; c++) {
+                cent[c] += otro.cent[c];
+                if (otro.resto != null && otro.resto[c].signum() != 0) {
+                    resto()[c] = resto[c].add(otro.resto[c]);
+                }
+            }
+            cantidad += otro.cantidad;
+            completados += otro.completados;
+            retirados += otro.retirados;
+            afectados += otro.afectados;
+        }
+
+        private void agregar(int campo, BigDecimal valor, int signo) {
+            if (valor == null) return;
+            // Hasta 15 dígitos enteros con escala <= 2 cabe en centavos; el resto se suma en BigDecimal
+            if (valor.scale() <= 2 && valor.precision() - valor.scale() <= 15) {
+                cent[campo] += signo * valor.movePointRight(2).longValue();
+            } else {
+                resto()[campo] = resto[campo].add(signo > 0 ? valor : valor.negate());
+            }
+        }
+
+        private BigDecimal[] resto() {
+            if (resto == null) {
+                resto = new BigDecimal[CAMPOS];
+                Arrays.fill(resto, BigDecimal.ZERO);
+            }
+            return resto;
+        }
+
+        private BigDecimal valor(int campo) {
+            BigDecimal valor = BigDecimal.valueOf(cent[campo], 2);
+            return resto != null ? valor.add(resto[campo]) : valor;
+        }
+
+        // diferencia: lo que el escenario cambió respecto de la base (null para la base)
+        ResultadoEscenarioDTO resultado(String nombre, Acumulador diferencia) {
+            TotalGrupoDTO t = new TotalGrupoDTO();
+            t.setGrupo(nombre);
+            t.setCantidadActivos(cantidad);
+            t.setCompletados(completados);
+            t.setActivos(cantidad - completados);
+            t.setValorHistorico(valor(VH));
+            t.setDepAcumuladaInicio(valor(INICIO));
+            t.setEne(valor(ENE)); t.setFeb(valor(ENE + 1)); t.setMar(valor(ENE + 2));
+            t.setAbr(valor(ENE + 3)); t.setMay(valor(ENE + 4)); t.setJun(valor(ENE + 5));
+            t.setJul(valor(ENE + 6)); t.setAgo(valor(ENE + 7)); t.setSet(valor(ENE + 8));
+            t.setOct(valor(ENE + 9)); t.setNov(valor(ENE + 10)); t.setDic(valor(ENE + 11));
+            t.setTotalDepreciacion2025(valor(TOTAL_ANIO));
+            t.setTotalDepreciacionAcumulada(valor(TOTAL_ACUM));
+            t.setCostoNeto(valor(COSTO_NETO));
+
+            ResultadoEscenarioDTO dto = new ResultadoEscenarioDTO();
+            dto.setNombre(nombre);
+            dto.setTotales(t);
+            dto.setRetirados(retirados);
+            dto.setValorNetoRetirado(valor(NETO_RETIRADO));
+            if (diferencia != null) {
+                dto.setActivosAfectados(diferencia.afectados);
+                dto.setDiferenciaDepreciacion2025(diferencia.valor(TOTAL_ANIO));
+                dto.setDiferenciaCostoNeto(diferencia.valor(COSTO_NETO));
+            }
+            return dto;
+        }
+    }
+}
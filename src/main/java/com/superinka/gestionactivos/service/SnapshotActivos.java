@@ -0,0 +1,571 @@
+package com.superinka.gestionactivos.service;
+
+import com.superinka.gestionactivos.dto.Agrupacion;
+import com.superinka.gestionactivos.dto.FiltroActivos;
+import com.superinka.gestionactivos.dto.ProyeccionActivo;
+import com.superinka.gestionactivos.dto.ProyeccionSnapshot;
+import com.superinka.gestionactivos.dto.ResumenActivoDTO;
+import com.superinka.gestionactivos.dto.TotalGrupoDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copia inmutable y columnar de los activos para el cálculo, los filtros y los totales.
+ *
+ * En lugar de un objeto por activo con sus BigDecimal, cada columna numérica es un arreglo
+ * primitivo: montos en centavos (long), tasa en puntos básicos (int) y los meses Ene..Dic
+ * contiguos por fila. CeCo, cuenta contable, cta gasto x depre y cluster se guardan como
+ * códigos int de un diccionario. Recorrer la cartera es un bucle sobre arreglos.
+ *
+ * Las filas que no se pueden representar exactamente en centavos (nulos, más de 2 decimales,
+ * valores enormes) conservan su ProyeccionActivo y se calculan con ActivoService, así el
+ * resultado es idéntico (valor y escala) al del camino sin snapshot.
+ */
+public final class SnapshotActivos {
+
+    private static final int MESES = MotorDepreciacion.MESES;
+
+    // marcas por fila
+    private static final byte EXACTO = 1;
+    private static final byte PORCENTAJE_ENTERO = 2; // % cargado como 10 (no como 0.10)
+
+    // tipo de cada mes al armar el resultado
+    private static final byte NULO = 0;
+    private static final byte CERO = 1;   // BigDecimal.ZERO (escala 0): mes calculado sin remanente
+    private static final byte MONTO = 2;  // escala 2
+
+    // Margen para sumar VH, acumulado y 12 meses sin desbordar un long
+    private static final long LIMITE_CENTAVOS = 1_000_000_000_000_000L;
+
+    private final long version;
+    private final int tamanio;
+
+    private final long[] ids;
+    private final String[] codigos;
+    private final String[] descripciones;
+
+    private final long[] valorHistorico;
+    private final long[] acumInicio;
+    private final int[] tasa;
+    private final long[] meses;       // tamanio * 12, Ene..Dic de cada fila
+    private final short[] mesesNulos; // bit m = 1: el mes m + 1 es null
+    private final byte[] marcas;
+
+    private final Diccionario cecos;
+    private final Diccionario cuentas;
+    private final Diccionario ctasGasto;
+    private final Diccionario clusters;
+
+    // Sólo para las filas no exactas (null en el resto)
+    private final ProyeccionActivo[] respaldo;
+    private final int filasRespaldo;
+
+    private SnapshotActivos(Constructor c) {
+        this.version = c.version;
+        this.tamanio = c.tamanio;
+        this.ids = Arrays.copyOf(c.ids, tamanio);
+        this.codigos = Arrays.copyOf(c.codigos, tamanio);
+        this.descripciones = Arrays.copyOf(c.descripciones, tamanio);
+        this.valorHistorico = Arrays.copyOf(c.valorHistorico, tamanio);
+        this.acumInicio = Arrays.copyOf(c.acumInicio, tamanio);
+        this.tasa = Arrays.copyOf(c.tasa, tamanio);
+        this.meses = Arrays.copyOf(c.meses, tamanio * MESES);
+        this.mesesNulos = Arrays.copyOf(c.mesesNulos, tamanio);
+        this.marcas = Arrays.copyOf(c.marcas, tamanio);
+        this.cecos = c.cecos.terminar(tamanio);
+        this.cuentas = c.cuentas.terminar(tamanio);
+        this.ctasGasto = c.ctasGasto.terminar(tamanio);
+        this.clusters = c.clusters.terminar(tamanio);
+        this.respaldo = Arrays.copyOf(c.respaldo, tamanio);
+        this.filasRespaldo = c.filasRespaldo;
+    }
+
+    public static Constructor constructor(long version) {
+        return new Constructor(version);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int tamanio() {
+        return tamanio;
+    }
+
+    public int filasRespaldo() {
+        return filasRespaldo;
+    }
+
+    public long id(int fila) {
+        return ids[fila];
+    }
+
+    /** Bytes aproximados de los arreglos (sin contar los textos de código y descripción, que se comparten). */
+    public long bytesEstimados() {
+        long porFila = 8 + 8 + 8 + 4 + 8L * MESES + 2 + 1 + 4 * 4 + 3 * 4;
+        return porFila * tamanio + cecos.bytesEstimados() + cuentas.bytesEstimados()
+                + ctasGasto.bytesEstimados() + clusters.bytesEstimados();
+    }
+
+    // ==================== Filtros ====================
+
+    /** Filas (en orden de id) que cumplen el filtro; con mes, el estado se evalúa sobre los meses recalculados. */
+    public int[] seleccionar(FiltroActivos filtro, Integer mes) {
+        return seleccionar(filtro, mes, 0, Integer.MAX_VALUE);
+    }
+
+    /** Como seleccionar, empezando por la primera fila con id mayor a despuesDe y hasta {@code limite} filas. */
+    public int[] seleccionar(FiltroActivos filtro, Integer mes, long despuesDe, int limite) {
+        Criterio criterio = criterio(filtro);
+        int desde = primeraDespuesDe(despuesDe);
+        if (criterio.ninguna()) return new int[0];
+
+        int[] filas = new int[Math.min(limite, tamanio - desde)];
+        int cantidad = 0;
+        long[] cent = new long[MESES];
+        byte[] tipos = new byte[MESES];
+        for (int i = desde; i < tamanio && cantidad < limite; i++) {
+            if (cumple(i, criterio, mes, cent, tipos)) {
+                filas[cantidad++] = i;
+            }
+        }
+        return cantidad == filas.length ? filas : Arrays.copyOf(filas, cantidad);
+    }
+
+    // Primera fila con id > despuesDe (los ids están ordenados)
+    private int primeraDespuesDe(long despuesDe) {
+        int pos = Arrays.binarySearch(ids, 0, tamanio, despuesDe);
+        return pos >= 0 ? pos + 1 : -pos - 1;
+    }
+
+    private Criterio criterio(FiltroActivos filtro) {
+        String prefijo = FiltroActivos.tieneTexto(filtro.getCodigo()) ? filtro.getCodigo().trim() : null;
+        int estado = Criterio.CUALQUIERA;
+        if (filtro.filtraEstado()) {
+            estado = FiltroActivos.COMPLETADO.equalsIgnoreCase(filtro.getEstado().trim()) ? 1 : 0;
+        }
+        return new Criterio(cecos.buscar(filtro.getCeco()), cuentas.buscar(filtro.getCuentaContable()),
+                clusters.buscar(filtro.getCluster()), prefijo, estado);
+    }
+
+    private boolean cumple(int i, Criterio c, Integer mes, long[] cent, byte[] tipos) {
+        if (c.ceco() != Criterio.CUALQUIERA && cecos.codigos[i] != c.ceco()) return false;
+        if (c.cuenta() != Criterio.CUALQUIERA && cuentas.codigos[i] != c.cuenta()) return false;
+        if (c.cluster() != Criterio.CUALQUIERA && clusters.codigos[i] != c.cluster()) return false;
+        if (c.prefijo() != null && (codigos[i] == null || !codigos[i].startsWith(c.prefijo()))) return false;
+        if (c.estado() == Criterio.CUALQUIERA) return true;
+        return (completado(i, mes, cent, tipos) ? 1 : 0) == c.estado();
+    }
+
+    private boolean completado(int i, Integer mes, long[] cent, byte[] tipos) {
+        if ((marcas[i] & EXACTO) == 0) {
+            return FiltroActivos.COMPLETADO.equals(resumenRespaldo(i, mes).getEstado());
+        }
+        return valorHistorico[i] - acumInicio[i] - llenarMeses(i, mes, cent, tipos) <= 0;
+    }
+
+    // ==================== Resultado por fila ====================
+
+    /** Mismo DTO que ActivoService (resumir con mes null, calcular con mes). */
+    public ResumenActivoDTO resumen(int i, Integer mes) {
+        if ((marcas[i] & EXACTO) == 0) {
+            return resumenRespaldo(i, mes);
+        }
+        long[] cent = new long[MESES];
+        byte[] tipos = new byte[MESES];
+        long sumaAnio = llenarMeses(i, mes, cent, tipos);
+
+        ResumenActivoDTO dto = new ResumenActivoDTO();
+        dto.setCodigo(codigos[i]);
+        dto.setDescripcion(descripciones[i]);
+        dto.setCeco(cecos.valor(i));
+        dto.setValorHistorico(BigDecimal.valueOf(valorHistorico[i], 2));
+        // 10.00 -> 0.1000 (dividido entre 100 a escala 4); 0.10 se deja igual
+        dto.setPorcentajeDepreciacion((marcas[i] & PORCENTAJE_ENTERO) != 0
+                ? BigDecimal.valueOf(tasa[i], 4)
+                : BigDecimal.valueOf(tasa[i] / 100, 2));
+        dto.setDepAcumuladaInicio(BigDecimal.valueOf(acumInicio[i], 2));
+
+        dto.setEne(monto(cent, tipos, 0)); dto.setFeb(monto(cent, tipos, 1)); dto.setMar(monto(cent, tipos, 2));
+        dto.setAbr(monto(cent, tipos, 3)); dto.setMay(monto(cent, tipos, 4)); dto.setJun(monto(cent, tipos, 5));
+        dto.setJul(monto(cent, tipos, 6)); dto.setAgo(monto(cent, tipos, 7)); dto.setSet(monto(cent, tipos, 8));
+        dto.setOct(monto(cent, tipos, 9)); dto.setNov(monto(cent, tipos, 10)); dto.setDic(monto(cent, tipos, 11));
+
+        // La suma toma la escala de los sumandos: 0 si todos los meses son null o ZERO
+        dto.setTotalDepreciacion2025(BigDecimal.valueOf(sumaAnio, tieneMonto(tipos) ? 2 : 0));
+        long totalAcum = acumInicio[i] + sumaAnio;
+        dto.setTotalDepreciacionAcumulada(BigDecimal.valueOf(totalAcum, 2));
+        long costoNeto = valorHistorico[i] - totalAcum;
+        dto.setCostoNeto(BigDecimal.valueOf(costoNeto, 2));
+        dto.setEstado(costoNeto <= 0 ? FiltroActivos.COMPLETADO : FiltroActivos.ACTIVO);
+        return dto;
+    }
+
+    private ResumenActivoDTO resumenRespaldo(int i, Integer mes) {
+        return mes != null ? ActivoService.calcular(respaldo[i], mes) : ActivoService.resumir(respaldo[i]);
+    }
+
+    /**
+     * Deja en cent/tipos los meses vigentes de la fila: los cargados y, con mes, los recalculados
+     * de enero a ese mes con la misma regla que MotorDepreciacion.aplicarHastaMes. Devuelve la suma.
+     */
+    long llenarMeses(int i, Integer mes, long[] cent, byte[] tipos) {
+        int base = i * MESES;
+        int nulos = mesesNulos[i];
+        for (int m = 0; m < MESES; m++) {
+            cent[m] = meses[base + m];
+            tipos[m] = (nulos & (1 << m)) != 0 ? NULO : MONTO;
+        }
+        if (mes != null) {
+            long vh = valorHistorico[i];
+            long remanente = vh - acumInicio[i];
+            long cuota = MotorDepreciacion.cuotaTeorica(vh, tasa[i]);
+            int hasta = MotorDepreciacion.mesesACalcular(mes);
+            for (int m = 1; m <= hasta; m++) {
+                if (MotorDepreciacion.agotado(remanente, cuota, m)) {
+                    cent[m - 1] = 0;
+                    tipos[m - 1] = CERO;
+                } else {
+                    cent[m - 1] = MotorDepreciacion.cuotaDelMes(remanente, cuota, m);
+                    tipos[m - 1] = MONTO;
+                }
+            }
+        }
+        long suma = 0;
+        for (int m = 0; m < MESES; m++) {
+            suma += cent[m];
+        }
+        return suma;
+    }
+
+    private static BigDecimal monto(long[] cent, byte[] tipos, int m) {
+        switch (tipos[m]) {
+            case NULO: return null;
+            case CERO: return BigDecimal.ZERO;
+            default: return BigDecimal.valueOf(cent[m], 2);
+        }
+    }
+
+    private static boolean tieneMonto(byte[] tipos) {
+        for (byte t : tipos) {
+            if (t == MONTO) return true;
+        }
+        return false;
+    }
+
+    // ==================== Acceso por fila (simulación) ====================
+
+    boolean exacta(int i) {
+        return (marcas[i] & EXACTO) != 0;
+    }
+
+    String codigo(int i) {
+        return codigos[i];
+    }
+
+    String ceco(int i) {
+        return cecos.valor(i);
+    }
+
+    String cuentaContable(int i) {
+        return cuentas.valor(i);
+    }
+
+    // Sólo filas exactas
+    long valorHistoricoCentavos(int i) {
+        return valorHistorico[i];
+    }
+
+    long acumInicioCentavos(int i) {
+        return acumInicio[i];
+    }
+
+    /** La fila con sus valores cargados; en las exactas se reconstruye igual (valor y escala) desde los centavos. */
+    ProyeccionActivo proyeccion(int i) {
+        if (!exacta(i)) return respaldo[i];
+        BigDecimal[] cargados = new BigDecimal[MESES];
+        for (int m = 0; m < MESES; m++) {
+            cargados[m] = (mesesNulos[i] & (1 << m)) != 0 ? null : BigDecimal.valueOf(meses[i * MESES + m], 2);
+        }
+        // Inverso de tasaEnPuntosBasicos para % de escala 2: 10.00 -> 1000 pb -> 10.00; 0.10 -> 1000 pb -> 0.10
+        BigDecimal porcentaje = (marcas[i] & PORCENTAJE_ENTERO) != 0
+                ? BigDecimal.valueOf(tasa[i], 2)
+                : BigDecimal.valueOf(tasa[i] / 100, 2);
+        return new ProyeccionActivo(ids[i], codigos[i], descripciones[i], cecos.valor(i),
+                BigDecimal.valueOf(valorHistorico[i], 2), porcentaje, BigDecimal.valueOf(acumInicio[i], 2), cargados);
+    }
+
+    // ==================== Totales ====================
+
+    /** Totales por grupo en un solo recorrido, acumulando en centavos; mismo resultado que ActivoService.totalizar. */
+    public List<TotalGrupoDTO> totalizar(Integer mes, Agrupacion agrupacion, FiltroActivos filtro) {
+        Diccionario grupos = diccionario(agrupacion);
+        Acumulador[] acumuladores = new Acumulador[grupos.valores.length];
+        long[] cent = new long[MESES];
+        byte[] tipos = new byte[MESES];
+
+        for (int i : seleccionar(filtro, mes)) {
+            int g = grupos.codigos[i];
+            Acumulador acc = acumuladores[g];
+            if (acc == null) {
+                acc = acumuladores[g] = new Acumulador(grupos.valores[g]);
+            }
+            if ((marcas[i] & EXACTO) == 0) {
+                ActivoService.sumar(acc.respaldo(), resumenRespaldo(i, mes));
+                continue;
+            }
+            long sumaAnio = llenarMeses(i, mes, cent, tipos);
+            acc.sumar(valorHistorico[i], acumInicio[i], cent, tipos, sumaAnio);
+        }
+
+        List<TotalGrupoDTO> totales = new ArrayList<>();
+        for (Acumulador acc : acumuladores) {
+            if (acc != null) totales.add(acc.total());
+        }
+        totales.sort(Comparator.comparing(TotalGrupoDTO::getGrupo, Comparator.nullsLast(Comparator.naturalOrder())));
+        return totales;
+    }
+
+    private Diccionario diccionario(Agrupacion agrupacion) {
+        switch (agrupacion) {
+            case CUENTA_CONTABLE: return cuentas;
+            case CTA_GASTO_DEPRE: return ctasGasto;
+            case CLUSTER: return clusters;
+            default: return cecos;
+        }
+    }
+
+    // Sumas de un grupo en centavos; las filas no exactas se suman aparte en BigDecimal
+    private static final class Acumulador {
+        // 0 VH, 1 acumulado inicio, 2..13 Ene..Dic, 14 total 2025, 15 total acumulado, 16 costo neto
+        private static final int CAMPOS = 17;
+
+        private final String grupo;
+        private final long[] cent = new long[CAMPOS];
+        private final boolean[] escala2 = new boolean[CAMPOS];
+        private long cantidad;
+        private long completados;
+        private TotalGrupoDTO respaldo;
+
+        Acumulador(String grupo) {
+            this.grupo = grupo;
+        }
+
+        TotalGrupoDTO respaldo() {
+            if (respaldo == null) respaldo = ActivoService.nuevoGrupo(grupo);
+            return respaldo;
+        }
+
+        void sumar(long vh, long inicio, long[] meses, byte[] tipos, long sumaAnio) {
+            cantidad++;
+            long totalAcum = inicio + sumaAnio;
+            if (vh - totalAcum <= 0) completados++;
+
+            agregar(0, vh, true);
+            agregar(1, inicio, true);
+            boolean hayMonto = false;
+            for (int m = 0; m < MESES; m++) {
+                if (tipos[m] == NULO) continue;
+                agregar(2 + m, meses[m], tipos[m] == MONTO);
+                hayMonto |= tipos[m] == MONTO;
+            }
+            agregar(14, sumaAnio, hayMonto);
+            agregar(15, totalAcum, true);
+            agregar(16, vh - totalAcum, true);
+        }
+
+        private void agregar(int campo, long valor, boolean conEscala2) {
+            cent[campo] += valor;
+            escala2[campo] |= conEscala2;
+        }
+
+        private BigDecimal valor(int campo) {
+            return BigDecimal.valueOf(cent[campo], escala2[campo] ? 2 : 0);
+        }
+
+        TotalGrupoDTO total() {
+            TotalGrupoDTO t = respaldo();
+            t.setCantidadActivos(t.getCantidadActivos() + cantidad);
+            t.setCompletados(t.getCompletados() + completados);
+            t.setActivos(t.getActivos() + cantidad - completados);
+
+            t.setValorHistorico(t.getValorHistorico().add(valor(0)));
+            t.setDepAcumuladaInicio(t.getDepAcumuladaInicio().add(valor(1)));
+
+            t.setEne(t.getEne().add(valor(2))); t.setFeb(t.getFeb().add(valor(3)));
+            t.setMar(t.getMar().add(valor(4))); t.setAbr(t.getAbr().add(valor(5)));
+            t.setMay(t.getMay().add(valor(6))); t.setJun(t.getJun().add(valor(7)));
+            t.setJul(t.getJul().add(valor(8))); t.setAgo(t.getAgo().add(valor(9)));
+            t.setSet(t.getSet().add(valor(10))); t.setOct(t.getOct().add(valor(11)));
+            t.setNov(t.getNov().add(valor(12))); t.setDic(t.getDic().add(valor(13)));
+
+            t.setTotalDepreciacion2025(t.getTotalDepreciacion2025().add(valor(14)));
+            t.setTotalDepreciacionAcumulada(t.getTotalDepreciacionAcumulada().add(valor(15)));
+            t.setCostoNeto(t.getCostoNeto().add(valor(16)));
+            return t;
+        }
+    }
+
+    // ==================== Construcción ====================
+
+    private record Criterio(int ceco, int cuenta, int cluster, String prefijo, int estado) {
+        static final int CUALQUIERA = -1;
+        static final int NINGUNO = -2; // el valor pedido no existe en el diccionario
+
+        boolean ninguna() {
+            return ceco == NINGUNO || cuenta == NINGUNO || cluster == NINGUNO;
+        }
+    }
+
+    /** Columna de texto codificada: cada fila guarda el índice de su valor. */
+    private static final class Diccionario {
+        private int[] codigos;
+        private String[] valores;
+        private final Map<String, Integer> indice = new HashMap<>();
+        private final List<String> nuevos = new ArrayList<>();
+
+        Diccionario(int capacidad) {
+            codigos = new int[capacidad];
+        }
+
+        void agregar(int fila, String valor) {
+            if (fila == codigos.length) codigos = Arrays.copyOf(codigos, codigos.length * 2);
+            Integer codigo = indice.get(valor);
+            if (codigo == null) {
+                codigo = nuevos.size();
+                indice.put(valor, codigo);
+                nuevos.add(valor);
+            }
+            codigos[fila] = codigo;
+        }
+
+        Diccionario terminar(int tamanio) {
+            codigos = Arrays.copyOf(codigos, tamanio);
+            valores = nuevos.toArray(new String[0]);
+            nuevos.clear();
+            return this;
+        }
+
+        String valor(int fila) {
+            return valores[codigos[fila]];
+        }
+
+        // Igual que el filtro SQL: se compara con el valor recortado
+        int buscar(String valor) {
+            if (!FiltroActivos.tieneTexto(valor)) return Criterio.CUALQUIERA;
+            Integer codigo = indice.get(valor.trim());
+            return codigo != null ? codigo : Criterio.NINGUNO;
+        }
+
+        long bytesEstimados() {
+            return 4L * codigos.length + 48L * valores.length;
+        }
+    }
+
+    /** Acumula filas (en orden de id) en arreglos que crecen y al terminar arma el snapshot inmutable. */
+    public static final class Constructor {
+        private static final int CAPACIDAD_INICIAL = 1024;
+
+        private final long version;
+        private int tamanio;
+        private int filasRespaldo;
+
+        private long[] ids = new long[CAPACIDAD_INICIAL];
+        private String[] codigos = new String[CAPACIDAD_INICIAL];
+        private String[] descripciones = new String[CAPACIDAD_INICIAL];
+        private long[] valorHistorico = new long[CAPACIDAD_INICIAL];
+        private long[] acumInicio = new long[CAPACIDAD_INICIAL];
+        private int[] tasa = new int[CAPACIDAD_INICIAL];
+        private long[] meses = new long[CAPACIDAD_INICIAL * MESES];
+        private short[] mesesNulos = new short[CAPACIDAD_INICIAL];
+        private byte[] marcas = new byte[CAPACIDAD_INICIAL];
+        private ProyeccionActivo[] respaldo = new ProyeccionActivo[CAPACIDAD_INICIAL];
+
+        private final Diccionario cecos = new Diccionario(CAPACIDAD_INICIAL);
+        private final Diccionario cuentas = new Diccionario(CAPACIDAD_INICIAL);
+        private final Diccionario ctasGasto = new Diccionario(CAPACIDAD_INICIAL);
+        private final Diccionario clusters = new Diccionario(CAPACIDAD_INICIAL);
+
+        private Constructor(long version) {
+            this.version = version;
+        }
+
+        public void agregar(ProyeccionSnapshot fila) {
+            if (tamanio == ids.length) crecer();
+            int i = tamanio++;
+            ProyeccionActivo a = fila.activo();
+
+            ids[i] = a.id();
+            codigos[i] = a.codigo();
+            descripciones[i] = a.descripcion();
+            cecos.agregar(i, a.ceco());
+            cuentas.agregar(i, fila.cuentaContable());
+            ctasGasto.agregar(i, fila.ctaGastoDepre());
+            clusters.agregar(i, fila.cluster());
+
+            if (!agregarExacto(i, a)) {
+                respaldo[i] = a;
+                marcas[i] = 0;
+                filasRespaldo++;
+            }
+        }
+
+        public SnapshotActivos construir() {
+            return new SnapshotActivos(this);
+        }
+
+        // Exacta: VH, acumulado y % con escala 2 (columnas numeric(38,2)) y meses null o de escala 2
+        private boolean agregarExacto(int i, ProyeccionActivo a) {
+            BigDecimal vh = a.valorHistorico();
+            BigDecimal inicio = a.depreciacionAcumuladaInicio();
+            BigDecimal porcentaje = a.porcentajeDepreciacion();
+            if (vh == null || inicio == null || porcentaje == null) return false;
+            if (vh.scale() != 2 || inicio.scale() != 2 || porcentaje.scale() != 2) return false;
+            if (!MotorDepreciacion.admiteCentavos(vh, inicio, porcentaje)) return false;
+
+            long vhCent = MotorDepreciacion.aCentavos(vh);
+            long inicioCent = MotorDepreciacion.aCentavos(inicio);
+            if (Math.abs(vhCent) >= LIMITE_CENTAVOS || Math.abs(inicioCent) >= LIMITE_CENTAVOS) return false;
+
+            int base = i * MESES;
+            int nulos = 0;
+            for (int m = 0; m < MESES; m++) {
+                BigDecimal valor = a.meses()[m];
+                if (valor == null) {
+                    nulos |= 1 << m;
+                    meses[base + m] = 0;
+                    continue;
+                }
+                if (valor.scale() != 2 || valor.precision() > 15) return false;
+                meses[base + m] = MotorDepreciacion.aCentavos(valor);
+            }
+
+            valorHistorico[i] = vhCent;
+            acumInicio[i] = inicioCent;
+            tasa[i] = MotorDepreciacion.tasaEnPuntosBasicos(porcentaje);
+            mesesNulos[i] = (short) nulos;
+            marcas[i] = porcentaje.compareTo(BigDecimal.ONE) > 0 ? (byte) (EXACTO | PORCENTAJE_ENTERO) : EXACTO;
+            return true;
+        }
+
+        private void crecer() {
+            int capacidad = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacidad);
+            codigos = Arrays.copyOf(codigos, capacidad);
+            descripciones = Arrays.copyOf(descripciones, capacidad);
+            valorHistorico = Arrays.copyOf(valorHistorico, capacidad);
+            acumInicio = Arrays.copyOf(acumInicio, capacidad);
+            tasa = Arrays.copyOf(tasa, capacidad);
+            meses = Arrays.copyOf(meses, capacidad * MESES);
+            mesesNulos = Arrays.copyOf(mesesNulos, capacidad);
+            marcas = Arrays.copyOf(marcas, capacidad);
+            respaldo = Arrays.copyOf(respaldo, capacidad);
+        }
+    }
+}
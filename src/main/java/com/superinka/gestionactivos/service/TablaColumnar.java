@@ -0,0 +1,179 @@
+package com.superinka.gestionactivos.service;
+
+import com.superinka.gestionactivos.dto.ResumenActivoDTO;
+import com.superinka.gestionactivos.dto.TablaColumnarDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Arma la respuesta columnar (ver {@link TablaColumnarDTO}) a partir del listado ya calculado.
+ *
+ * Cada monto se envía como long con la escala de su columna (la mayor escala de la columna y al
+ * menos 2: centavos), así no hay BigDecimal que serializar y el JSON no repite nombres por fila.
+ * CeCo y estado se repiten mucho y van como índices de un diccionario. Si un monto no entra en
+ * un long con esa escala, la columna sale con los BigDecimal tal cual y sin escala.
+ */
+final class TablaColumnar {
+
+    static final String[] MESES = {"ene", "feb", "mar", "abr", "may", "jun", "jul", "ago", "set", "oct", "nov", "dic"};
+
+    private static final int ESCALA_MINIMA = 2;
+
+    private final List<ResumenActivoDTO> filas;
+    private final TablaColumnarDTO tabla = new TablaColumnarDTO();
+    private final Map<String, Object> columnas = new LinkedHashMap<>();
+    private final Map<String, Integer> escalas = new LinkedHashMap<>();
+    private final Map<String, List<String>> diccionarios = new LinkedHashMap<>();
+    private final Map<String, int[]> nulos = new LinkedHashMap<>();
+
+    private TablaColumnar(List<ResumenActivoDTO> filas) {
+        this.filas = filas;
+    }
+
+    /** Columnas en el orden de ResumenActivoDTO; de los meses sólo los marcados en mesesPedidos. */
+    static TablaColumnarDTO armar(List<ResumenActivoDTO> filas, Integer mes, boolean[] mesesPedidos) {
+        TablaColumnar t = new TablaColumnar(filas);
+        t.texto("codigo", ResumenActivoDTO::getCodigo);
+        t.texto("descripcion", ResumenActivoDTO::getDescripcion);
+        t.diccionario("ceco", ResumenActivoDTO::getCeco);
+        t.monto("valorHistorico", ResumenActivoDTO::getValorHistorico);
+        t.monto("porcentajeDepreciacion", ResumenActivoDTO::getPorcentajeDepreciacion);
+        t.monto("depAcumuladaInicio", ResumenActivoDTO::getDepAcumuladaInicio);
+        for (int m = 0; m < MESES.length; m++) {
+            int indice = m;
+            if (mesesPedidos[m]) t.monto(MESES[m], dto -> mes(dto, indice));
+        }
+        t.monto("totalDepreciacion2025", ResumenActivoDTO::getTotalDepreciacion2025);
+        t.monto("totalDepreciacionAcumulada", ResumenActivoDTO::getTotalDepreciacionAcumulada);
+        t.monto("costoNeto", ResumenActivoDTO::getCostoNeto);
+        t.diccionario("estado", ResumenActivoDTO::getEstado);
+
+        t.tabla.setFilas(filas.size());
+        t.tabla.setMes(mes);
+        t.tabla.setColumnas(t.columnas);
+        t.tabla.setEscalas(t.escalas);
+        t.tabla.setDiccionarios(t.diccionarios);
+        t.tabla.setNulos(t.nulos);
+        return t.tabla;
+    }
+
+    /**
+     * Meses pedidos en ?meses=: números (1-12) o nombres (ene..dic) separados por coma,
+     * o rangos como 1-3. Vacío: todos.
+     */
+    static boolean[] meses(String pedido) {
+        boolean[] meses = new boolean[MESES.length];
+        if (pedido == null || pedido.isBlank()) {
+            Arrays.fill(meses, true);
+            return meses;
+        }
+        for (String parte : pedido.split(",")) {
+            String valor = parte.trim().toLowerCase(Locale.ROOT);
+            if (valor.isEmpty()) continue;
+            int guion = valor.indexOf('-', 1);
+            int desde = guion < 0 ? mes(valor) : mes(valor.substring(0, guion).trim());
+            int hasta = guion < 0 ? desde : mes(valor.substring(guion + 1).trim());
+            if (hasta < desde) {
+                throw new IllegalArgumentException("Rango de meses invertido: " + parte.trim());
+            }
+            Arrays.fill(meses, desde - 1, hasta, true);
+        }
+        return meses;
+    }
+
+    private static int mes(String valor) {
+        for (int m = 0; m < MESES.length; m++) {
+            if (MESES[m].equals(valor)) return m + 1;
+        }
+        try {
+            int mes = Integer.parseInt(valor);
+            if (mes >= 1 && mes <= MESES.length) return mes;
+        } catch (NumberFormatException ignorado) {
+            // cae al error de abajo
+        }
+        throw new IllegalArgumentException("Mes no válido en meses: " + valor + " (1-12 o ene..dic)");
+    }
+
+    private static BigDecimal mes(ResumenActivoDTO dto, int m) {
+        return switch (m) {
+            case 0 -> dto.getEne();
+            case 1 -> dto.getFeb();
+            case 2 -> dto.getMar();
+            case 3 -> dto.getAbr();
+            case 4 -> dto.getMay();
+            case 5 -> dto.getJun();
+            case 6 -> dto.getJul();
+            case 7 -> dto.getAgo();
+            case 8 -> dto.getSet();
+            case 9 -> dto.getOct();
+            case 10 -> dto.getNov();
+            default -> dto.getDic();
+        };
+    }
+
+    private void texto(String nombre, Function<ResumenActivoDTO, String> campo) {
+        String[] valores = new String[filas.size()];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = campo.apply(filas.get(i));
+        }
+        columnas.put(nombre, valores);
+    }
+
+    private void diccionario(String nombre, Function<ResumenActivoDTO, String> campo) {
+        Map<String, Integer> codigos = new HashMap<>();
+        List<String> valores = new ArrayList<>();
+        int[] indices = new int[filas.size()];
+        for (int i = 0; i < indices.length; i++) {
+            String valor = campo.apply(filas.get(i));
+            if (valor == null) {
+                indices[i] = -1;
+                continue;
+            }
+            Integer codigo = codigos.get(valor);
+            if (codigo == null) {
+                codigo = valores.size();
+                codigos.put(valor, codigo);
+                valores.add(valor);
+            }
+            indices[i] = codigo;
+        }
+        columnas.put(nombre, indices);
+        diccionarios.put(nombre, valores);
+    }
+
+    private void monto(String nombre, Function<ResumenActivoDTO, BigDecimal> campo) {
+        BigDecimal[] valores = new BigDecimal[filas.size()];
+        int escala = ESCALA_MINIMA;
+        int cantidadNulos = 0;
+        for (int i = 0; i < valores.length; i++) {
+            BigDecimal valor = campo.apply(filas.get(i));
+            valores[i] = valor;
+            if (valor == null) cantidadNulos++;
+            else escala = Math.max(escala, valor.scale());
+        }
+
+        int[] filasNulas = new int[cantidadNulos];
+        long[] enteros = new long[valores.length];
+        int n = 0;
+        try {
+            for (int i = 0; i < valores.length; i++) {
+                if (valores[i] == null) filasNulas[n++] = i;
+                else enteros[i] = valores[i].movePointRight(escala).longValueExact();
+            }
+        } catch (ArithmeticException fueraDeRango) {
+            columnas.put(nombre, valores);
+            return;
+        }
+        columnas.put(nombre, enteros);
+        escalas.put(nombre, escala);
+        if (cantidadNulos > 0) nulos.put(nombre, filasNulas);
+    }
+}
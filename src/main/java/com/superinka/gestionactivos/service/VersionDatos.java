@@ -0,0 +1,37 @@
+package com.superinka.gestionactivos.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versión del conjunto de datos de activos.
+ *
+ * Toda carga o escritura sobre activos_fijos_2025 debe llamar a {@link #incrementar()}.
+ * Lo que se calcule a partir de los datos (caché de resultados, etc.) se asocia a la
+ * versión vigente y queda invalidado en cuanto ésta cambia. Cada versión nueva hace que la
+ * siguiente consulta reconstruya el snapshot y ponga al día el índice de búsqueda, así que las
+ * cargas por lotes incrementan al terminar (y la inicial, a lo sumo cada tantos segundos), no por lote.
+ */
+@Component
+public class VersionDatos {
+
+    // Arranca en la hora de inicio para no repetir versiones entre reinicios
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    // Hora del último cambio (Last-Modified de las respuestas)
+    private volatile long ultimaModificacion = System.currentTimeMillis();
+
+    public long actual() {
+        return version.get();
+    }
+
+    public long ultimaModificacion() {
+        return ultimaModificacion;
+    }
+
+    public long incrementar() {
+        ultimaModificacion = System.currentTimeMillis();
+        return version.incrementAndGet();
+    }
+}
@@ -0,0 +1,3 @@
+-- Hibernate lo ejecuta después de crear el esquema (ddl-auto=create).
+-- text_pattern_ops permite usar el índice en "codigo LIKE 'prefijo%'" con cualquier collation.
+CREATE INDEX IF NOT EXISTS idx_activos_codigo_prefijo ON activos_fijos_2025 (codigo text_pattern_ops);
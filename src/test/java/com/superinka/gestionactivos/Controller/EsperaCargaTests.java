@@ -0,0 +1,83 @@
+package com.superinka.gestionactivos.Controller;
+
+import com.superinka.gestionactivos.service.EstadoCarga;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.health.contributor.Status;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EsperaCargaTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void rechazaConRetryAfterHastaQueTerminaLaCarga() throws Exception {
+        EstadoCarga estado = new EstadoCarga();
+        EsperaCarga espera = new EsperaCarga(estado, objectMapper, false, 7);
+
+        MockHttpServletResponse pendiente = new MockHttpServletResponse();
+        assertFalse(espera.preHandle(get(), pendiente, null));
+        assertEquals(503, pendiente.getStatus());
+        assertEquals("7", pendiente.getHeader("Retry-After"));
+        assertEquals(Status.OUT_OF_SERVICE, estado.health().getStatus());
+
+        estado.iniciar(EstadoCarga.MODO_COMPLETA);
+        estado.avance(3000);
+        MockHttpServletResponse cargando = new MockHttpServletResponse();
+        assertFalse(espera.preHandle(get(), cargando, null));
+        JsonNode cuerpo = objectMapper.readTree(cargando.getContentAsString());
+        assertEquals(EstadoCarga.CARGANDO, cuerpo.get("estado").asString());
+        assertEquals(3000, cuerpo.get("filasGuardadas").asLong());
+
+        estado.terminar(3500, 2);
+        MockHttpServletResponse lista = new MockHttpServletResponse();
+        assertTrue(espera.preHandle(get(), lista, null));
+        assertEquals(200, lista.getStatus());
+        assertEquals(Status.UP, estado.health().getStatus());
+        assertEquals(3500, estado.estado().getFilasGuardadas());
+    }
+
+    @Test
+    void datosParcialesYCargaFallida() throws Exception {
+        EstadoCarga estado = new EstadoCarga();
+        estado.iniciar(EstadoCarga.MODO_COMPLETA);
+        EsperaCarga espera = new EsperaCarga(estado, objectMapper, true, 5);
+
+        MockHttpServletResponse parcial = new MockHttpServletResponse();
+        assertTrue(espera.preHandle(get(), parcial, null));
+        assertEquals("true", parcial.getHeader(EsperaCarga.DATOS_PARCIALES));
+
+        // Las escrituras no pasan sobre datos parciales: esperan a que termine la carga
+        MockHttpServletResponse importar = new MockHttpServletResponse();
+        assertFalse(espera.preHandle(new MockHttpServletRequest("POST", "/api/activos/import"), importar, null));
+        assertEquals(503, importar.getStatus());
+        assertEquals("5", importar.getHeader("Retry-After"));
+        assertNull(importar.getHeader(EsperaCarga.DATOS_PARCIALES));
+
+        // Preflight de CORS: nunca se rechaza
+        MockHttpServletRequest preflight = new MockHttpServletRequest("OPTIONS", "/api/activos");
+        preflight.addHeader("Origin", "http://localhost:4200");
+        preflight.addHeader("Access-Control-Request-Method", "GET");
+        assertTrue(new EsperaCarga(estado, objectMapper, false, 5).preHandle(preflight, new MockHttpServletResponse(), null));
+
+        // Si la carga falló no hay datos que servir ni momento para reintentar
+        estado.fallar(new IllegalStateException("CSV ilegible"));
+        MockHttpServletResponse fallida = new MockHttpServletResponse();
+        assertFalse(espera.preHandle(get(), fallida, null));
+        assertEquals(503, fallida.getStatus());
+        assertNull(fallida.getHeader("Retry-After"));
+        assertEquals(Status.DOWN, estado.health().getStatus());
+        assertEquals("CSV ilegible", objectMapper.readTree(fallida.getContentAsString()).get("error").asString());
+    }
+
+    private static MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/api/activos");
+    }
+}
@@ -0,0 +1,61 @@
+package com.superinka.gestionactivos.carga;
+
+import com.superinka.gestionactivos.entity.Activo;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class EscritorActivosJdbcTests {
+
+    @Test
+    void cargaCompletaConClaveRepetidaGanaLaUltimaAparicion() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        List<String> sentencias = new ArrayList<>();
+        List<List<Activo>> lotes = new ArrayList<>();
+        doAnswer(inv -> {
+            sentencias.add(inv.getArgument(0));
+            lotes.add(new ArrayList<>(inv.<List<Activo>>getArgument(1)));
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), any(List.class), anyInt(), any());
+        EscritorActivosJdbc.CargaCompleta carga = new EscritorActivosJdbc(jdbcTemplate).iniciarCarga();
+
+        // Repetida dentro del lote: reemplaza a la anterior en el mismo INSERT
+        Activo primera = activo("AF-1", "1", "10.00");
+        Activo repetida = activo("AF-1", "1", "20.00");
+        Activo sinFila = activo("AF-3", null, "5.00");
+        assertEquals(3, carga.insertar(List.of(primera, activo("AF-2", "2", "10.00"), repetida, sinFila)));
+        assertTrue(sentencias.get(0).startsWith("INSERT"));
+        assertEquals(List.of(repetida.getSaldoInicial(), new BigDecimal("10.00"), sinFila.getSaldoInicial()),
+                lotes.get(0).stream().map(Activo::getSaldoInicial).toList());
+
+        // Repetida de un lote anterior: ya está insertada, se actualiza; sin numero_fila no hay clave
+        Activo tardia = activo("AF-2", "2", "30.00");
+        assertEquals(2, carga.insertar(List.of(activo("AF-4", "4", "10.00"), tardia, activo("AF-3", null, "5.00"))));
+        assertTrue(sentencias.get(1).startsWith("INSERT"));
+        assertEquals(2, lotes.get(1).size());
+        assertTrue(sentencias.get(2).startsWith("UPDATE"));
+        assertEquals(List.of(tardia), lotes.get(2));
+
+        assertEquals(2, carga.duplicados());
+    }
+
+    private static Activo activo(String codigo, String numeroFila, String saldoInicial) {
+        Activo activo = new Activo();
+        activo.setCodigo(codigo);
+        activo.setNumeroFila(numeroFila);
+        activo.setCeco("ADM");
+        activo.setSaldoInicial(new BigDecimal(saldoInicial));
+        return activo;
+    }
+}
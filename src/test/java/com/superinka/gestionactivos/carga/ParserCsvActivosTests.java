@@ -0,0 +1,207 @@
+package com.superinka.gestionactivos.carga;
+
+import com.opencsv.bean.CsvToBean;
+import com.opencsv.bean.CsvToBeanBuilder;
+import com.superinka.gestionactivos.MoneyConverter;
+import com.superinka.gestionactivos.entity.Activo;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParserCsvActivosTests {
+
+    private static final String[] CELDAS_MONTO = {
+            "", " ", "0", "10", "10%", "10 %", " 12,000.00 ", "S/ 1,234.56", "S/1,000", "$ 500", "-", " - ", "- 3",
+            "-0.50", "+7", ".5", "5.", "1.2.3", "1e3", "12 345", "(100)", "%", "$", "007.10", "-.5", "+-1",
+            "99999999999999999999.99", "1,2,3", "abc", "\t42\t", "0.3333", "S,/5"
+    };
+
+    private static final String[] CELDAS_TEXTO = {
+            "", " ", "ABC", " con espacios ", "\"entre comillas\"", "ÁÉÍÓÚ ñ", "a\"b", "12", "#"
+    };
+
+    @Test
+    void archivoGoldenIgualQueOpenCsv() throws IOException {
+        Resultado esperado = parsearConOpenCsv(leerRecurso());
+        Resultado obtenido = parsearConParser(leerRecurso());
+
+        assertTrue(esperado.activos.size() > 5, "el archivo golden debe producir activos");
+        assertEquals(esperado.rechazados, obtenido.rechazados);
+        assertEquals(esperado.activos, obtenido.activos);
+    }
+
+    @Test
+    void archivosAleatoriosIgualQueOpenCsv() throws IOException {
+        Random random = new Random(2025L);
+        String cabecera = cabeceraGolden();
+        int columnas = cabecera.split(";", -1).length;
+
+        for (int archivo = 0; archivo < 30; archivo++) {
+            StringBuilder csv = new StringBuilder(cabecera).append('\n');
+            for (int r = 0; r < 200; r++) {
+                csv.append(registroAleatorio(random, r, columnas));
+                csv.append(random.nextInt(5) == 0 ? "\r\n" : "\n");
+                if (random.nextInt(8) == 0) {
+                    csv.append("  continuación ").append(CELDAS_TEXTO[random.nextInt(CELDAS_TEXTO.length)]).append('\n');
+                }
+                if (random.nextInt(15) == 0) csv.append("   \n");
+            }
+
+            Resultado esperado = parsearConOpenCsv(new StringReader(csv.toString()));
+            Resultado obtenido = parsearConParser(new StringReader(csv.toString()));
+            assertEquals(esperado.rechazados, obtenido.rechazados, "archivo " + archivo);
+            assertEquals(esperado.activos, obtenido.activos, "archivo " + archivo);
+        }
+    }
+
+    @Test
+    void montosIgualQueMoneyConverter() {
+        for (String celda : CELDAS_MONTO) {
+            assertMontoIgual(celda);
+        }
+        Random random = new Random(99L);
+        String alfabeto = "0123456789.,-+%$ S/e";
+        for (int i = 0; i < 100_000; i++) {
+            char[] c = new char[1 + random.nextInt(10)];
+            for (int j = 0; j < c.length; j++) c[j] = alfabeto.charAt(random.nextInt(alfabeto.length()));
+            assertMontoIgual(new String(c));
+        }
+    }
+
+    private static void assertMontoIgual(String celda) {
+        char[] buf = ("x;" + celda + ";y").toCharArray();
+        // equals de BigDecimal compara valor y escala
+        assertEquals(MoneyConverter.aMonto(celda), ConversorMonto.convertir(buf, 2, buf.length - 2), "celda [" + celda + "]");
+    }
+
+    // ==================== Generadores ====================
+
+    private static String registroAleatorio(Random random, int fila, int columnas) {
+        StringBuilder sb = new StringBuilder();
+        switch (random.nextInt(10)) {
+            case 0: sb.append('"').append(fila).append('"'); break;
+            case 1: sb.append(" # "); break;
+            case 2: sb.append("x").append(fila); break; // no inicia registro
+            default: sb.append(fila);
+        }
+        // De vez en cuando una columna de más o de menos
+        int total = random.nextInt(20) == 0 ? columnas + random.nextInt(3) - 1 : columnas;
+        for (int c = 1; c < total; c++) {
+            sb.append(';');
+            if (c == 1) {
+                sb.append(random.nextInt(12) == 0 ? " " : "AF-" + fila);
+            } else if (c >= 21 && c != 29 && c != 30 && c != 31 && c != 32 && c != 33) {
+                sb.append(CELDAS_MONTO[random.nextInt(CELDAS_MONTO.length)]);
+            } else {
+                sb.append(CELDAS_TEXTO[random.nextInt(CELDAS_TEXTO.length)]);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static Reader leerRecurso() {
+        InputStream in = ParserCsvActivosTests.class.getResourceAsStream("/carga/golden.csv");
+        return new InputStreamReader(in, StandardCharsets.UTF_8);
+    }
+
+    private static String cabeceraGolden() throws IOException {
+        try (BufferedReader br = new BufferedReader(leerRecurso())) {
+            return br.readLine();
+        }
+    }
+
+    // ==================== Parser nuevo ====================
+
+    private static Resultado parsearConParser(Reader lector) throws IOException {
+        Resultado r = new Resultado();
+        ParserCsvActivos.Resultado res = ParserCsvActivos.parsearArchivo(lector, r.activos::add);
+        r.rechazados = res.getRechazados();
+        assertEquals(res.getAceptados(), r.activos.size());
+        return r;
+    }
+
+    // ==================== Referencia: carga original con OpenCSV ====================
+
+    private static Resultado parsearConOpenCsv(Reader lector) throws IOException {
+        Resultado r = new Resultado();
+        try (BufferedReader br = new BufferedReader(lector)) {
+            String headerLine = br.readLine();
+            if (headerLine == null) return r;
+            headerLine = headerLine.replace("\"", "");
+
+            List<String> loteLineas = new ArrayList<>();
+            StringBuilder registroActual = new StringBuilder();
+            String patronInicioRegistro = "^\\s*\"?(\\d+|#)\"?\\s*;.*";
+
+            String linea;
+            while ((linea = br.readLine()) != null) {
+                if (linea.trim().isEmpty()) continue;
+
+                if (linea.matches(patronInicioRegistro)) {
+                    if (registroActual.length() > 0) {
+                        loteLineas.add(registroActual.toString());
+                    }
+                    registroActual = new StringBuilder(linea);
+                } else {
+                    registroActual.append(" ").append(linea.trim());
+                }
+
+                if (loteLineas.size() >= 500) {
+                    procesarLoteOpenCsv(headerLine, loteLineas, r);
+                    loteLineas.clear();
+                }
+            }
+            if (registroActual.length() > 0) {
+                loteLineas.add(registroActual.toString());
+            }
+            if (!loteLineas.isEmpty()) {
+                procesarLoteOpenCsv(headerLine, loteLineas, r);
+            }
+        }
+        return r;
+    }
+
+    private static void procesarLoteOpenCsv(String header, List<String> lineas, Resultado r) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(header).append("\n");
+        for (String l : lineas) {
+            sb.append(l).append("\n");
+        }
+        String csvSanitizado = sb.toString().replace("\"", "");
+
+        CsvToBean<Activo> csvToBean = new CsvToBeanBuilder<Activo>(new StringReader(csvSanitizado))
+                .withType(Activo.class)
+                .withSeparator(';')
+                .withQuoteChar('\0')
+                .withIgnoreLeadingWhiteSpace(true)
+                .withIgnoreQuotations(true)
+                .withThrowExceptions(false)
+                .build();
+
+        for (Activo a : csvToBean) {
+            if (a.getCodigo() != null && !a.getCodigo().trim().isEmpty()) {
+                r.activos.add(a);
+            } else {
+                r.rechazados++;
+            }
+        }
+        r.rechazados += csvToBean.getCapturedExceptions().size();
+    }
+
+    private static final class Resultado {
+        final List<Activo> activos = new ArrayList<>();
+        long rechazados;
+    }
+}
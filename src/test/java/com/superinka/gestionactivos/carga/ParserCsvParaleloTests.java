@@ -0,0 +1,121 @@
+package com.superinka.gestionactivos.carga;
+
+import com.superinka.gestionactivos.entity.Activo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParserCsvParaleloTests {
+
+    private static final int[] BYTES_POR_RANGO = {1, 7, 64, 1_000, ParserCsvParalelo.BYTES_POR_RANGO};
+
+    // Celdas con comillas, montos y caracteres multibyte
+    private static final String[] FRAGMENTOS = {
+            "", " ", "ABC", "ñandú", "\"x\"", "1,234.50", "S/ 10", "-", "#", "12", "€"
+    };
+
+    @TempDir
+    Path carpeta;
+
+    @Test
+    void archivoGoldenIgualQueSecuencial() throws IOException {
+        Path archivo = carpeta.resolve("golden.csv");
+        try (InputStream in = ParserCsvParaleloTests.class.getResourceAsStream("/carga/golden.csv")) {
+            Files.write(archivo, in.readAllBytes());
+        }
+        assertIgualQueSecuencial(archivo);
+    }
+
+    @Test
+    void archivosAleatoriosIgualQueSecuencial() throws IOException {
+        Random random = new Random(515L);
+        String cabecera;
+        try (InputStream in = ParserCsvParaleloTests.class.getResourceAsStream("/carga/golden.csv")) {
+            cabecera = new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().findFirst().orElseThrow();
+        }
+        int columnas = cabecera.split(";", -1).length;
+
+        for (int vuelta = 0; vuelta < 20; vuelta++) {
+            ByteArrayOutputStream csv = new ByteArrayOutputStream();
+            escribir(csv, cabecera + finDeLinea(random));
+            // A veces el primer renglón tras la cabecera es una continuación o está en blanco
+            if (random.nextInt(4) == 0) escribir(csv, "  suelta" + finDeLinea(random));
+            for (int r = 0; r < 150; r++) {
+                StringBuilder registro = new StringBuilder(random.nextInt(10) == 0 ? " \"" + r + "\" " : String.valueOf(r));
+                int total = random.nextInt(20) == 0 ? columnas + 1 : columnas;
+                for (int c = 1; c < total; c++) {
+                    registro.append(';').append(c == 1 ? "AF-" + r : FRAGMENTOS[random.nextInt(FRAGMENTOS.length)]);
+                }
+                // Con NEL o LS (U+0085, U+2028) la línea ya no inicia registro: pasa a ser continuación
+                if (random.nextInt(30) == 0) registro.append(random.nextBoolean() ? '\u0085' : '\u2028');
+                escribir(csv, registro + finDeLinea(random));
+                if (random.nextInt(5) == 0) escribir(csv, "  continúa " + FRAGMENTOS[random.nextInt(FRAGMENTOS.length)] + finDeLinea(random));
+                if (random.nextInt(10) == 0) escribir(csv, "   " + finDeLinea(random));
+                if (random.nextInt(25) == 0) csv.write(new byte[]{(byte) 0xE2, (byte) 0x80, ';', '\n'}, 0, 4);
+            }
+            if (random.nextBoolean()) escribir(csv, "99;sin fin de línea");
+
+            Path archivo = carpeta.resolve("aleatorio-" + vuelta + ".csv");
+            Files.write(archivo, csv.toByteArray());
+            assertIgualQueSecuencial(archivo);
+        }
+    }
+
+    @Test
+    void archivoVacioOSoloCabecera() throws IOException {
+        Path vacio = carpeta.resolve("vacio.csv");
+        Files.write(vacio, new byte[0]);
+        assertIgualQueSecuencial(vacio);
+
+        Path soloCabecera = carpeta.resolve("cabecera.csv");
+        Files.writeString(soloCabecera, "N;CODIGO RELACIONADO CON EL ACTIVO FIJO\r\n");
+        assertIgualQueSecuencial(soloCabecera);
+    }
+
+    private static void assertIgualQueSecuencial(Path archivo) throws IOException {
+        List<Activo> esperados = new ArrayList<>();
+        ParserCsvActivos.Resultado esperado;
+        try (InputStreamReader lector = new InputStreamReader(Files.newInputStream(archivo), StandardCharsets.UTF_8)) {
+            esperado = ParserCsvActivos.parsearArchivo(lector, esperados::add);
+        }
+
+        assertTrue(esperado.getRegistros() == 0 || esperado.getAceptados() > 0, "el archivo debe producir activos");
+        for (int bytes : BYTES_POR_RANGO) {
+            for (int hilos : new int[]{1, 3}) {
+                List<Activo> obtenidos = new ArrayList<>();
+                ParserCsvActivos.Resultado obtenido = ParserCsvParalelo.parsearArchivo(archivo, hilos, bytes, obtenidos::add);
+                String caso = archivo.getFileName() + " rango " + bytes + " hilos " + hilos;
+                assertEquals(esperado.getRegistros(), obtenido.getRegistros(), caso);
+                assertEquals(esperado.getAceptados(), obtenido.getAceptados(), caso);
+                assertEquals(esperado.getRechazados(), obtenido.getRechazados(), caso);
+                assertEquals(esperados, obtenidos, caso);
+            }
+        }
+        assertTrue(ParserCsvParalelo.admite(archivo));
+    }
+
+    private static String finDeLinea(Random random) {
+        return switch (random.nextInt(6)) {
+            case 0 -> "\r\n";
+            case 1 -> "\r";
+            default -> "\n";
+        };
+    }
+
+    private static void escribir(ByteArrayOutputStream salida, String texto) {
+        salida.writeBytes(texto.getBytes(StandardCharsets.UTF_8));
+    }
+}
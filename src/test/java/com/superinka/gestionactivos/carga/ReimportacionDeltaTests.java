@@ -0,0 +1,122 @@
+package com.superinka.gestionactivos.carga;
+
+import com.superinka.gestionactivos.dto.ResultadoDeltaDTO;
+import com.superinka.gestionactivos.entity.Activo;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReimportacionDeltaTests {
+
+    @Test
+    void hashDistingueCadaColumnaYLaEscala() {
+        Activo base = activo("AF-1", "1", "10.00");
+        assertEquals(EscritorActivosJdbc.hashContenido(base), EscritorActivosJdbc.hashContenido(activo("AF-1", "1", "10.00")));
+        assertNotEquals(EscritorActivosJdbc.hashContenido(base), EscritorActivosJdbc.hashContenido(activo("AF-1", "1", "10.0")));
+
+        Activo otroCeco = activo("AF-1", "1", "10.00");
+        otroCeco.setCeco("VTA");
+        assertNotEquals(EscritorActivosJdbc.hashContenido(base), EscritorActivosJdbc.hashContenido(otroCeco));
+
+        // null no es lo mismo que vacío
+        Activo vacio = activo("AF-1", "1", "10.00");
+        vacio.setCeco("");
+        Activo nulo = activo("AF-1", "1", "10.00");
+        nulo.setCeco(null);
+        assertNotEquals(EscritorActivosJdbc.hashContenido(vacio), EscritorActivosJdbc.hashContenido(nulo));
+    }
+
+    @Test
+    void clasificaYEscribeSoloLoQueCambio() throws Exception {
+        // En la BD: AF-1 igual, AF-2 con otro contenido, AF-3 retirada, AF-4 y AF-5 no vienen en el
+        // archivo, AF-6 sin numero de fila
+        Object[][] guardadas = {
+                {"AF-1", "1", EscritorActivosJdbc.hashContenido(activo("AF-1", "1", "10.00")), false},
+                {"AF-2", "2", EscritorActivosJdbc.hashContenido(activo("AF-2", "2", "10.00")), false},
+                {"AF-3", "3", EscritorActivosJdbc.hashContenido(activo("AF-3", "3", "10.00")), true},
+                {"AF-4", "4", 0L, false},
+                {"AF-5", "5", 7L, true},
+                {"AF-6", null, 0L, false},
+        };
+        EscritorActivosJdbc escritor = mock(EscritorActivosJdbc.class);
+        List<List<Activo>> escritos = new ArrayList<>();
+        when(escritor.insertarOActualizar(anyList())).thenAnswer(inv -> {
+            List<Activo> lote = inv.getArgument(0);
+            escritos.add(lote);
+            return lote.size();
+        });
+        List<String[]> retiradas = new ArrayList<>();
+        when(escritor.retirar(anyList())).thenAnswer(inv -> {
+            List<String[]> claves = inv.getArgument(0);
+            retiradas.addAll(claves);
+            return claves.size();
+        });
+
+        ReimportacionDelta delta = new ReimportacionDelta(jdbcCon(guardadas), escritor);
+        ReimportacionDelta.Sesion sesion = delta.iniciar(true, 10);
+
+        Activo cambiada = activo("AF-2", "2", "20.00");
+        Activo repetidaPrimera = activo("AF-9", "9", "1.00");
+        Activo repetidaUltima = activo("AF-9", "9", "2.00");
+        int primerLote = sesion.procesar(List.of(activo("AF-1", "1", "10.00"), cambiada, repetidaPrimera, repetidaUltima));
+        int segundoLote = sesion.procesar(List.of(activo("AF-3", "3", "10.00"), activo("AF-1", "1", "10.00"),
+                activo("AF-7", null, "10.00")));
+        ResultadoDeltaDTO resultado = sesion.terminar();
+
+        assertEquals(2, primerLote);
+        assertEquals(List.of(cambiada, repetidaUltima), escritos.get(0));
+        assertEquals(2, segundoLote); // AF-3 reactivada y AF-1 repetida (gana la última)
+        assertEquals(1, resultado.getNuevos());
+        assertEquals(1, resultado.getActualizados());
+        assertEquals(1, resultado.getReactivados());
+        assertEquals(1, resultado.getSinCambios());
+        assertEquals(2, resultado.getDuplicados());
+        // Sin clave: ni se escribe (cada reimportación la volvería a insertar) ni se retira
+        assertEquals(1, resultado.getSinClave());
+        // AF-5 ya estaba retirada: sólo se retira AF-4
+        assertEquals(1, resultado.getRetirados());
+        assertEquals(1, retiradas.size());
+        assertEquals(List.of("AF-4", "4"), List.of(retiradas.get(0)));
+        assertEquals(EscritorActivosJdbc.hashContenido(cambiada), cambiada.getHashContenido());
+    }
+
+    private static JdbcTemplate jdbcCon(Object[][] filas) throws Exception {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        doAnswer(inv -> {
+            RowCallbackHandler manejador = inv.getArgument(1);
+            for (Object[] fila : filas) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString(1)).thenReturn((String) fila[0]);
+                when(rs.getString(2)).thenReturn((String) fila[1]);
+                when(rs.getLong(3)).thenReturn((Long) fila[2]);
+                when(rs.getBoolean(4)).thenReturn((Boolean) fila[3]);
+                manejador.processRow(rs);
+            }
+            return null;
+        }).when(jdbc).query(anyString(), any(RowCallbackHandler.class));
+        return jdbc;
+    }
+
+    private static Activo activo(String codigo, String numeroFila, String saldoInicial) {
+        Activo activo = new Activo();
+        activo.setCodigo(codigo);
+        activo.setNumeroFila(numeroFila);
+        activo.setCeco("ADM");
+        activo.setSaldoInicial(new BigDecimal(saldoInicial));
+        return activo;
+    }
+}
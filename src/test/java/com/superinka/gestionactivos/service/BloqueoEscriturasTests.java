@@ -0,0 +1,59 @@
+package com.superinka.gestionactivos.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloqueoEscriturasTests {
+
+    @Test
+    void elCierreNoEsperaYLaImportacionSi() throws Exception {
+        BloqueoEscrituras bloqueo = new BloqueoEscrituras();
+        CountDownLatch tomado = new CountDownLatch(1);
+        CountDownLatch soltar = new CountDownLatch(1);
+        CountDownLatch importando = new CountDownLatch(1);
+
+        Thread importacion = new Thread(() -> {
+            try {
+                bloqueo.tomar(BloqueoEscrituras.IMPORTACION);
+                tomado.countDown();
+                soltar.await();
+                bloqueo.liberar();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        importacion.start();
+        assertTrue(tomado.await(5, TimeUnit.SECONDS));
+
+        // Con la importación en curso el cierre se rechaza de inmediato
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> bloqueo.tomarSinEsperar(BloqueoEscrituras.CIERRE));
+        assertEquals("Hay una importación en curso; intente de nuevo cuando termine", e.getMessage());
+
+        // Una segunda importación espera a que termine la primera
+        Thread siguiente = new Thread(() -> {
+            try {
+                bloqueo.tomar(BloqueoEscrituras.IMPORTACION);
+                importando.countDown();
+                bloqueo.liberar();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        siguiente.start();
+        assertEquals(1, importando.getCount());
+        soltar.countDown();
+        assertTrue(importando.await(5, TimeUnit.SECONDS));
+        importacion.join();
+        siguiente.join();
+
+        bloqueo.tomarSinEsperar(BloqueoEscrituras.CIERRE);
+        bloqueo.liberar();
+    }
+}
@@ -0,0 +1,67 @@
+package com.superinka.gestionactivos.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CalculoParaleloTests {
+
+    // VH, acumulado inicial y % de cada activo; el resultado son los 12 meses calculados
+    private record Entrada(BigDecimal vh, BigDecimal inicio, BigDecimal porcentaje) {
+    }
+
+    private static final Function<Entrada, List<BigDecimal>> CALCULO = e -> {
+        BigDecimal[] meses = new BigDecimal[MotorDepreciacion.MESES];
+        MotorDepreciacion.aplicarHastaMes(e.vh(), e.inicio(), e.porcentaje(), meses, 12);
+        return Arrays.asList(meses);
+    };
+
+    @Test
+    void resultadoParaleloIgualAlSecuencial() {
+        List<Entrada> entradas = entradasAleatorias(50_000);
+
+        CalculoParalelo secuencial = new CalculoParalelo(false, 0, 0, 1);
+        CalculoParalelo paralelo = new CalculoParalelo(true, 4, 1, 97);
+        try {
+            List<List<BigDecimal>> esperado = secuencial.mapear(entradas, CALCULO);
+            for (int vuelta = 0; vuelta < 3; vuelta++) {
+                assertEquals(esperado, paralelo.mapear(entradas, CALCULO));
+            }
+        } finally {
+            secuencial.cerrar();
+            paralelo.cerrar();
+        }
+    }
+
+    @Test
+    void listasChicasYVacias() {
+        CalculoParalelo paralelo = new CalculoParalelo(true, 2, 1, 1);
+        try {
+            assertEquals(List.of(), paralelo.mapear(List.<Entrada>of(), CALCULO));
+            List<Entrada> una = entradasAleatorias(1);
+            assertEquals(List.of(CALCULO.apply(una.get(0))), paralelo.mapear(una, CALCULO));
+        } finally {
+            paralelo.cerrar();
+        }
+    }
+
+    private static List<Entrada> entradasAleatorias(int n) {
+        Random random = new Random(42L);
+        String[] porcentajes = {"10", "20", "0.25", "33.33", "5"};
+        List<Entrada> entradas = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            long vh = random.nextInt(50_000_000);
+            long inicio = (long) (random.nextDouble() * vh * 1.05);
+            entradas.add(new Entrada(BigDecimal.valueOf(vh, 2), BigDecimal.valueOf(inicio, 2),
+                    new BigDecimal(porcentajes[random.nextInt(porcentajes.length)])));
+        }
+        return entradas;
+    }
+}
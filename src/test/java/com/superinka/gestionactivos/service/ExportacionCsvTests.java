@@ -0,0 +1,80 @@
+package com.superinka.gestionactivos.service;
+
+import com.superinka.gestionactivos.dto.FiltroActivos;
+import com.superinka.gestionactivos.dto.ProyeccionActivo;
+import com.superinka.gestionactivos.dto.ProyeccionExportacion;
+import com.superinka.gestionactivos.dto.ResumenActivoDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExportacionCsvTests {
+
+    @Test
+    void columnasDelArchivoDeOrigenYValoresDelCalculo() throws Exception {
+        ProyeccionActivo activo = activo(1L, "AF-1", "Laptop", "12000.00", "10", "1000.00");
+        String csv = exportar(List.of(new ProyeccionExportacion("7", activo)), 3, new FiltroActivos());
+
+        assertTrue(csv.startsWith("\uFEFF#;CODIGO RELACIONADO CON EL ACTIVO FIJO;CeCo;"), csv);
+        String[] lineas = csv.substring(1).split("\r\n");
+        assertEquals(2, lineas.length);
+        String[] cabecera = lineas[0].split(";", -1);
+        String[] valores = lineas[1].split(";", -1);
+        assertEquals(23, cabecera.length);
+        assertEquals(cabecera.length, valores.length);
+        assertEquals("Ene-25", cabecera[7]);
+        assertEquals("COSTO NETO", cabecera[21]);
+
+        ResumenActivoDTO esperado = ActivoService.calcular(activo, 3);
+        assertEquals("7", valores[0]);
+        assertEquals("AF-1", valores[1]);
+        assertEquals("10%", valores[5]);
+        assertEquals(esperado.getMar().toPlainString(), valores[9]);
+        assertEquals(esperado.getTotalDepreciacion2025().toPlainString(), valores[19]);
+        assertEquals(esperado.getCostoNeto().toPlainString(), valores[21]);
+        assertEquals("ACTIVO", valores[22]);
+    }
+
+    @Test
+    void comillasSoloCuandoHacenFaltaYNulosVacios() throws Exception {
+        ProyeccionActivo activo = activo(1L, "AF-2", "Mesa; \"grande\"\nsegunda línea", null, null, null);
+        String csv = exportar(List.of(new ProyeccionExportacion(null, activo)), 1, new FiltroActivos());
+
+        String fila = csv.substring(csv.indexOf("\r\n") + 2);
+        assertTrue(fila.startsWith(";AF-2;ADM;\"Mesa; \"\"grande\"\"\nsegunda línea\";;0%;;"), fila);
+    }
+
+    @Test
+    void filtraPorEstadoDeLaFilaRecalculada() throws Exception {
+        List<ProyeccionExportacion> filas = new ArrayList<>();
+        filas.add(new ProyeccionExportacion("1", activo(1L, "AF-1", "Nuevo", "12000.00", "10", "0")));
+        filas.add(new ProyeccionExportacion("2", activo(2L, "AF-2", "Agotado", "1200.00", "10", "1200.00")));
+        FiltroActivos filtro = new FiltroActivos();
+        filtro.setEstado(FiltroActivos.COMPLETADO);
+
+        String csv = exportar(filas, 12, filtro);
+        assertEquals(2, csv.split("\r\n").length);
+        assertTrue(csv.contains("\r\n2;AF-2;"), csv);
+    }
+
+    private static String exportar(List<ProyeccionExportacion> filas, int mes, FiltroActivos filtro) throws Exception {
+        StringWriter salida = new StringWriter();
+        new ExportacionCsv(salida).escribir(filas.iterator(), mes, filtro);
+        return salida.toString();
+    }
+
+    private static ProyeccionActivo activo(long id, String codigo, String descripcion, String historico,
+                                           String porcentaje, String inicio) {
+        return new ProyeccionActivo(id, codigo, descripcion, "ADM",
+                historico != null ? new BigDecimal(historico) : null,
+                porcentaje != null ? new BigDecimal(porcentaje) : null,
+                inicio != null ? new BigDecimal(inicio) : null,
+                new BigDecimal[MotorDepreciacion.MESES]);
+    }
+}
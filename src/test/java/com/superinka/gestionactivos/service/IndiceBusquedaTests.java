@@ -0,0 +1,149 @@
+package com.superinka.gestionactivos.service;
+
+import com.superinka.gestionactivos.dto.ProyeccionBusqueda;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IndiceBusquedaTests {
+
+    private static final String[] PALABRAS = {"Cámara", "LAPTOP", "impresora", "Escritorio", "silla", "ergonómica",
+            "Dell", "HP", "Lenovo", "Epson", "Latitude", "ThinkPad", "montacargas", "Toyota", "camión", "Ñandú"};
+
+    @Test
+    void palabrasSinTildesNiMayusculas() {
+        assertEquals(List.of("camara", "no5", "camion", "nandu"), IndiceBusqueda.palabras("Cámara Nº5, CAMIÓN-ñandú"));
+        assertEquals(List.of(), IndiceBusqueda.palabras(" -- "));
+    }
+
+    @Test
+    void ordenaPorCampoYTipoDeCoincidencia() {
+        IndiceBusqueda indice = new IndiceBusqueda();
+        indice.aplicar(List.of(), List.of(
+                fila(1, "Laptop Dell Latitude", "DELL", "Latitude 5420", "ABC-123"),
+                fila(2, "Soporte para laptop", null, null, null),
+                fila(3, "Monitor", "Dell", "P2419H", "XYZ-999"),
+                fila(4, "Cámara de seguridad", "Hikvision", null, "CAM-01")));
+
+        // Marca (peso 2) gana a descripción (peso 1); prefijo y parte de palabra también encuentran
+        assertEquals(List.of(1L, 3L), ids(indice.buscar("dell", 0, 10)));
+        assertEquals(List.of(1L, 2L), ids(indice.buscar("lapt", 0, 10)));
+        assertEquals(List.of(1L), ids(indice.buscar("titud 5420", 0, 10)));
+        assertEquals(List.of(4L), ids(indice.buscar("CAMARA", 0, 10)));
+        // La serie también se encuentra escrita sin guion
+        assertEquals(List.of(1L), ids(indice.buscar("abc123", 0, 10)));
+        assertEquals(List.of(3L), ids(indice.buscar("xyz 999", 0, 10)));
+        // Todas las palabras deben aparecer
+        assertEquals(List.of(), ids(indice.buscar("dell soporte", 0, 10)));
+        // Palabras cortas: sólo inicio de palabra
+        assertEquals(List.of(1L, 3L), ids(indice.buscar("de", 0, 10)).subList(0, 2));
+    }
+
+    @Test
+    void cambiosIncrementalesYCompactacion() {
+        IndiceBusqueda indice = new IndiceBusqueda();
+        List<ProyeccionBusqueda> filas = new ArrayList<>();
+        for (int i = 1; i <= 3000; i++) {
+            filas.add(fila(i, "Silla " + i, null, null, null));
+        }
+        indice.aplicar(List.of(), filas);
+        assertEquals(3000, indice.buscar("silla", 0, 5).total());
+
+        // Cambiar, quitar y volver a agregar muchas veces deja el índice igual a uno nuevo
+        for (int vuelta = 0; vuelta < 3; vuelta++) {
+            List<ProyeccionBusqueda> cambiadas = new ArrayList<>();
+            for (int i = 1; i <= 2000; i++) {
+                cambiadas.add(fila(i, "Mesa " + i, null, null, null));
+            }
+            indice.aplicar(List.of(2999L, 3000L), cambiadas);
+        }
+        assertEquals(2000, indice.buscar("mesa", 0, 5).total());
+        assertEquals(998, indice.buscar("silla", 0, 5).total());
+        assertEquals(2998, indice.tamanio());
+        assertEquals(List.of(2998L), ids(indice.buscar("silla 2998", 0, 5)));
+    }
+
+    @Test
+    void igualQueRecorrerTodasLasFilas() {
+        Random random = new Random(31L);
+        List<ProyeccionBusqueda> filas = new ArrayList<>();
+        for (int i = 1; i <= 2000; i++) {
+            filas.add(fila(i, texto(random, 4), texto(random, 1), texto(random, 1) + " " + random.nextInt(100),
+                    random.nextBoolean() ? null : "S-" + random.nextInt(1000)));
+        }
+        IndiceBusqueda indice = new IndiceBusqueda();
+        indice.aplicar(List.of(), filas);
+
+        for (int vuelta = 0; vuelta < 300; vuelta++) {
+            String consulta = consulta(random);
+            TreeSet<Long> esperados = new TreeSet<>();
+            for (ProyeccionBusqueda fila : filas) {
+                if (contieneTodas(fila, IndiceBusqueda.palabras(consulta))) esperados.add(fila.id());
+            }
+            IndiceBusqueda.Resultado resultado = indice.buscar(consulta, 0, Integer.MAX_VALUE);
+            assertEquals(esperados, new TreeSet<>(ids(resultado)), consulta);
+            assertEquals(esperados.size(), resultado.total(), consulta);
+        }
+    }
+
+    // ==================== Referencia ====================
+
+    // Cada palabra de la consulta es inicio de alguna palabra (si es corta) o parte de alguna palabra
+    private static boolean contieneTodas(ProyeccionBusqueda fila, List<String> consulta) {
+        List<String> palabras = new ArrayList<>();
+        for (String campo : new String[]{fila.descripcion(), fila.marca(), fila.modelo(), fila.seriePlaca()}) {
+            palabras.addAll(IndiceBusqueda.palabras(campo));
+        }
+        for (String campo : new String[]{fila.modelo(), fila.seriePlaca()}) {
+            if (IndiceBusqueda.palabras(campo).size() > 1) palabras.add(String.join("", IndiceBusqueda.palabras(campo)));
+        }
+        for (String buscada : consulta) {
+            boolean encontrada = false;
+            for (String palabra : palabras) {
+                if (buscada.length() < 3 ? palabra.startsWith(buscada) : palabra.contains(buscada)) {
+                    encontrada = true;
+                    break;
+                }
+            }
+            if (!encontrada) return false;
+        }
+        return true;
+    }
+
+    private static String consulta(Random random) {
+        StringBuilder consulta = new StringBuilder();
+        int palabras = 1 + random.nextInt(2);
+        for (int p = 0; p < palabras; p++) {
+            String palabra = PALABRAS[random.nextInt(PALABRAS.length)];
+            int desde = random.nextInt(Math.max(1, palabra.length() - 2));
+            int hasta = Math.min(palabra.length(), desde + 1 + random.nextInt(5));
+            consulta.append(palabra, desde, hasta).append(' ');
+        }
+        if (random.nextInt(5) == 0) consulta.append(random.nextInt(100));
+        return consulta.toString();
+    }
+
+    private static String texto(Random random, int palabras) {
+        StringBuilder texto = new StringBuilder();
+        for (int p = 0; p < palabras; p++) {
+            if (p > 0) texto.append(' ');
+            texto.append(PALABRAS[random.nextInt(PALABRAS.length)]);
+        }
+        return texto.toString();
+    }
+
+    private static List<Long> ids(IndiceBusqueda.Resultado resultado) {
+        List<Long> ids = new ArrayList<>();
+        for (IndiceBusqueda.Acierto acierto : resultado.aciertos()) ids.add(acierto.activo().id());
+        return ids;
+    }
+
+    private static ProyeccionBusqueda fila(long id, String descripcion, String marca, String modelo, String serie) {
+        return new ProyeccionBusqueda(id, "AF-" + id, "ADM", descripcion, marca, modelo, serie, id);
+    }
+}
@@ -0,0 +1,165 @@
+package com.superinka.gestionactivos.service;
+
+import com.superinka.gestionactivos.entity.Activo;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MotorDepreciacionTests {
+
+    private static final String[] PORCENTAJES = {
+            "10", "10.00", "0.10", "0.1", "20", "25.00", "33.33", "0.33", "1", "1.00", "1.01",
+            "0", "0.00", "100", "3", "12.5", "0.05", "-10", "250"
+    };
+
+    @Test
+    void equivaleAlCalculoOriginalEnActivosAleatorios() {
+        Random random = new Random(20250101L);
+        for (int i = 0; i < 20_000; i++) {
+            Activo base = activoAleatorio(random);
+            for (int mes = 0; mes <= 13; mes++) {
+                BigDecimal[] esperado = meses(base);
+                BigDecimal[] obtenido = meses(base);
+
+                MotorDepreciacion.aplicarHastaMesReferencia(base.getValorHistorico(), base.getDepreciacionAcumuladaInicio(),
+                        base.getPorcentajeDepreciacion(), esperado, mes);
+                MotorDepreciacion.aplicarHastaMes(base.getValorHistorico(), base.getDepreciacionAcumuladaInicio(),
+                        base.getPorcentajeDepreciacion(), obtenido, mes);
+
+                // equals de BigDecimal compara valor y escala
+                assertArrayEquals(esperado, obtenido,
+                        "Activo " + i + " mes " + mes + ": VH=" + base.getValorHistorico()
+                                + " inicio=" + base.getDepreciacionAcumuladaInicio()
+                                + " %=" + base.getPorcentajeDepreciacion());
+            }
+        }
+    }
+
+    @Test
+    void casosBorde() {
+        // Se agota en marzo: 1200 al 10% -> 10.00 por mes, quedan 25.00
+        BigDecimal[] borde = calcular("1200.00", "1175.00", "10", 12);
+        assertEquals(new BigDecimal("10.00"), borde[0]);
+        assertEquals(new BigDecimal("10.00"), borde[1]);
+        assertEquals(new BigDecimal("5.00"), borde[2]);
+        assertEquals(BigDecimal.ZERO, borde[3]);
+
+        // Totalmente depreciado desde el inicio
+        BigDecimal[] lleno = calcular("500.00", "500.00", "0.10", 3);
+        assertEquals(BigDecimal.ZERO, lleno[0]);
+        assertEquals(BigDecimal.ZERO, lleno[2]);
+        assertEquals(new BigDecimal("9.99"), lleno[3]); // fuera del rango pedido, no se toca
+
+        // Redondeo HALF_UP, empates lejos de cero
+        assertEquals(15, MotorDepreciacion.cuotaTeorica(1800, 1000)); // 18.00 * 10% / 12 = 0.15
+        assertEquals(1, MotorDepreciacion.cuotaTeorica(6, 10000));    // 0.06 / 12 = 0.005 -> 0.01
+        assertEquals(-1, MotorDepreciacion.cuotaTeorica(-6, 10000));  // -0.005 -> -0.01
+    }
+
+    @Test
+    void acumuladoCerradoCoincideConSumaDeCuotas() {
+        Random random = new Random(7L);
+        for (int i = 0; i < 10_000; i++) {
+            long remanente = random.nextInt(2_000_000) - 100_000;
+            long cuota = random.nextInt(200_000) - 10_000;
+            long suma = 0;
+            for (int mes = 1; mes <= MotorDepreciacion.MESES; mes++) {
+                suma += MotorDepreciacion.cuotaDelMes(remanente, cuota, mes);
+                assertEquals(suma, MotorDepreciacion.acumuladoHasta(remanente, cuota, mes));
+            }
+        }
+    }
+
+    @Test
+    void cierreMesAMesIgualQueRecalcularDesdeEnero() {
+        Random random = new Random(31L);
+        for (int i = 0; i < 5_000; i++) {
+            Activo base = activoAleatorio(random);
+            BigDecimal[] esperado = meses(base);
+            MotorDepreciacion.aplicarHastaMesReferencia(base.getValorHistorico(), base.getDepreciacionAcumuladaInicio(),
+                    base.getPorcentajeDepreciacion(), esperado, MotorDepreciacion.MESES);
+
+            BigDecimal acumulado = base.getDepreciacionAcumuladaInicio() != null ? base.getDepreciacionAcumuladaInicio() : BigDecimal.ZERO;
+            for (int mes = 1; mes <= 40; mes++) {
+                BigDecimal cuota = MotorDepreciacion.depreciacionDelPeriodo(base.getValorHistorico(), acumulado,
+                        base.getPorcentajeDepreciacion());
+                if (mes <= MotorDepreciacion.MESES) {
+                    assertEquals(0, esperado[mes - 1].compareTo(cuota), "Activo " + i + " mes " + mes);
+                }
+                acumulado = acumulado.add(cuota);
+                BigDecimal cerrado = MotorDepreciacion.acumuladoTrasMeses(base.getValorHistorico(),
+                        base.getDepreciacionAcumuladaInicio(), base.getPorcentajeDepreciacion(), mes);
+                assertEquals(0, acumulado.compareTo(cerrado), "Activo " + i + " tras " + mes + " meses");
+            }
+        }
+    }
+
+    @Test
+    void usaReferenciaCuandoNoEsRepresentableEnCentavos() {
+        assertFalse(MotorDepreciacion.admiteCentavos(null, new BigDecimal("1.00"), BigDecimal.TEN));
+        assertFalse(MotorDepreciacion.admiteCentavos(new BigDecimal("1.005"), new BigDecimal("1.00"), BigDecimal.TEN));
+        assertFalse(MotorDepreciacion.admiteCentavos(new BigDecimal("100"), new BigDecimal("1.00"), BigDecimal.TEN));
+        assertFalse(MotorDepreciacion.admiteCentavos(new BigDecimal("100.00"), new BigDecimal("1.00"), new BigDecimal("0.125")));
+        assertTrue(MotorDepreciacion.admiteCentavos(new BigDecimal("100.00"), new BigDecimal("1.00"), new BigDecimal("12.50")));
+    }
+
+    // ==================== Generadores ====================
+
+    private static Activo activoAleatorio(Random random) {
+        Activo a = new Activo();
+        int tipo = random.nextInt(20);
+        if (tipo == 0) {
+            // Fuera del camino rápido: nulos o escalas distintas de 2
+            a.setValorHistorico(random.nextBoolean() ? null : BigDecimal.valueOf(random.nextInt(1_000_000), 3));
+            a.setDepreciacionAcumuladaInicio(random.nextBoolean() ? null : BigDecimal.valueOf(random.nextInt(100_000)));
+            a.setPorcentajeDepreciacion(random.nextBoolean() ? null : new BigDecimal(PORCENTAJES[random.nextInt(PORCENTAJES.length)]));
+        } else {
+            long vh = (long) (random.nextDouble() * 500_000_00L);
+            if (tipo == 1) vh = -vh;
+            long inicio;
+            switch (random.nextInt(4)) {
+                case 0: inicio = vh; break;                                  // ya depreciado
+                case 1: inicio = vh - random.nextInt(50_000); break;         // cerca del borde
+                case 2: inicio = vh + random.nextInt(1_000); break;          // sobre-depreciado
+                default: inicio = (long) (random.nextDouble() * vh); break;
+            }
+            a.setValorHistorico(BigDecimal.valueOf(vh, 2));
+            a.setDepreciacionAcumuladaInicio(BigDecimal.valueOf(inicio, 2));
+            a.setPorcentajeDepreciacion(new BigDecimal(PORCENTAJES[random.nextInt(PORCENTAJES.length)]));
+        }
+        // Valores cargados del CSV para los meses que no se recalculan
+        BigDecimal[] meses = new BigDecimal[MotorDepreciacion.MESES];
+        for (int m = 0; m < meses.length; m++) {
+            meses[m] = random.nextInt(4) == 0 ? null : BigDecimal.valueOf(random.nextInt(100_000), 2);
+        }
+        asignarMeses(a, meses);
+        return a;
+    }
+
+    private static BigDecimal[] calcular(String vh, String inicio, String porcentaje, int mes) {
+        BigDecimal[] meses = new BigDecimal[MotorDepreciacion.MESES];
+        Arrays.fill(meses, new BigDecimal("9.99"));
+        MotorDepreciacion.aplicarHastaMes(new BigDecimal(vh), new BigDecimal(inicio), new BigDecimal(porcentaje), meses, mes);
+        return meses;
+    }
+
+    private static BigDecimal[] meses(Activo a) {
+        return new BigDecimal[]{
+                a.getEne25(), a.getFeb25(), a.getMar25(), a.getAbr25(), a.getMay25(), a.getJun25(),
+                a.getJul25(), a.getAgo25(), a.getSet25(), a.getOct25(), a.getNov25(), a.getDic25()
+        };
+    }
+
+    private static void asignarMeses(Activo a, BigDecimal[] m) {
+        a.setEne25(m[0]); a.setFeb25(m[1]); a.setMar25(m[2]); a.setAbr25(m[3]);
+        a.setMay25(m[4]); a.setJun25(m[5]); a.setJul25(m[6]); a.setAgo25(m[7]);
+        a.setSet25(m[8]); a.setOct25(m[9]); a.setNov25(m[10]); a.setDic25(m[11]);
+    }
+}
@@ -0,0 +1,246 @@
+package com.superinka.gestionactivos.service;
+
+import com.superinka.gestionactivos.dto.AjusteEscenarioDTO;
+import com.superinka.gestionactivos.dto.DeltaActivoDTO;
+import com.superinka.gestionactivos.dto.EscenarioDTO;
+import com.superinka.gestionactivos.dto.ProyeccionActivo;
+import com.superinka.gestionactivos.dto.ProyeccionSnapshot;
+import com.superinka.gestionactivos.dto.ResultadoEscenarioDTO;
+import com.superinka.gestionactivos.dto.ResumenActivoDTO;
+import com.superinka.gestionactivos.dto.TotalGrupoDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimuladorEscenariosTests {
+
+    private static final String[] CECOS = {"ADM", "OPE", "VTA", null};
+    private static final String[] CUENTAS = {"3311", "3321", null};
+    private static final String[] PORCENTAJES = {"10.00", "0.10", "20.00", "0.25", "33.33", "0.00"};
+
+    private static final List<Function<TotalGrupoDTO, BigDecimal>> CAMPOS = List.of(
+            TotalGrupoDTO::getValorHistorico, TotalGrupoDTO::getDepAcumuladaInicio,
+            TotalGrupoDTO::getEne, TotalGrupoDTO::getFeb, TotalGrupoDTO::getMar, TotalGrupoDTO::getAbr,
+            TotalGrupoDTO::getMay, TotalGrupoDTO::getJun, TotalGrupoDTO::getJul, TotalGrupoDTO::getAgo,
+            TotalGrupoDTO::getSet, TotalGrupoDTO::getOct, TotalGrupoDTO::getNov, TotalGrupoDTO::getDic,
+            TotalGrupoDTO::getTotalDepreciacion2025, TotalGrupoDTO::getTotalDepreciacionAcumulada,
+            TotalGrupoDTO::getCostoNeto);
+
+    @Test
+    void proyeccionReconstruyeLaFila() {
+        List<ProyeccionSnapshot> filas = filasAleatorias(new Random(21L), 2_000);
+        SnapshotActivos snapshot = construir(filas);
+        for (int i = 0; i < filas.size(); i++) {
+            assertEquals(ActivoService.calcular(filas.get(i).activo(), 7), ActivoService.calcular(snapshot.proyeccion(i), 7),
+                    "fila " + i);
+        }
+    }
+
+    @Test
+    void escenariosIgualQueRecalcularCadaFila() {
+        Random random = new Random(22L);
+        List<ProyeccionSnapshot> filas = filasAleatorias(random, 3_000);
+        SnapshotActivos snapshot = construir(filas);
+
+        List<EscenarioDTO> escenarios = List.of(
+                escenario("tasa OPE", ajuste("OPE", null, null, "20", null, null)),
+                escenario("retiro 3311", ajuste(null, "3311", null, null, 6, null)),
+                escenario("mixto",
+                        ajuste(null, null, "AF-1", "0.5", null, null),
+                        ajuste("VTA", null, null, null, null, new BigDecimal("-150.25")),
+                        ajuste("VTA", "3321", null, "10", 3, new BigDecimal("1000.123"))));
+
+        for (int mes : new int[]{1, 6, 12}) {
+            SimuladorEscenarios simulador = new SimuladorEscenarios(snapshot, mes, escenarios, 100_000);
+            SimuladorEscenarios.Parcial total = simulador.simular(0, snapshot.tamanio());
+
+            ResultadoEscenarioDTO base = simulador.resultadoBase(total);
+            assertTotales(referencia(filas, mes, null).totales, base.getTotales(), "base mes " + mes);
+
+            List<ResultadoEscenarioDTO> resultados = simulador.resultados(total);
+            for (int s = 0; s < escenarios.size(); s++) {
+                Esperado esperado = referencia(filas, mes, escenarios.get(s));
+                ResultadoEscenarioDTO obtenido = resultados.get(s);
+                String caso = escenarios.get(s).getNombre() + " mes " + mes;
+
+                assertTotales(esperado.totales, obtenido.getTotales(), caso);
+                assertEquals(esperado.afectados, obtenido.getActivosAfectados(), caso);
+                assertEquals(esperado.retirados, obtenido.getRetirados(), caso);
+                assertEquals(0, esperado.netoRetirado.compareTo(obtenido.getValorNetoRetirado()), caso);
+                assertEquals(0, esperado.totales.getTotalDepreciacion2025().subtract(base.getTotales().getTotalDepreciacion2025())
+                        .compareTo(obtenido.getDiferenciaDepreciacion2025()), caso);
+                assertEquals(esperado.conCambio, obtenido.getDetalle().stream().map(DeltaActivoDTO::getId).toList(), caso);
+            }
+        }
+    }
+
+    @Test
+    void rangosCombinadosIgualQueUnSoloRecorrido() {
+        List<ProyeccionSnapshot> filas = filasAleatorias(new Random(23L), 2_500);
+        SnapshotActivos snapshot = construir(filas);
+        List<EscenarioDTO> escenarios = List.of(escenario("retiro", ajuste(null, null, "AF-", null, 4, null)));
+
+        SimuladorEscenarios simulador = new SimuladorEscenarios(snapshot, 12, escenarios, 300);
+        ResultadoEscenarioDTO unico = simulador.resultados(simulador.simular(0, snapshot.tamanio())).get(0);
+
+        List<SimuladorEscenarios.Parcial> parciales = new ArrayList<>();
+        for (int desde = 0; desde < snapshot.tamanio(); desde += 700) {
+            parciales.add(simulador.simular(desde, Math.min(snapshot.tamanio(), desde + 700)));
+        }
+        ResultadoEscenarioDTO combinado = simulador.resultados(SimuladorEscenarios.combinar(parciales)).get(0);
+
+        assertEquals(unico, combinado);
+        assertEquals(300, combinado.getDetalle().size());
+        assertTrue(combinado.isDetalleTruncado());
+    }
+
+    // ==================== Referencia ====================
+
+    private static final class Esperado {
+        final TotalGrupoDTO totales = ActivoService.nuevoGrupo("esperado");
+        BigDecimal netoRetirado = BigDecimal.ZERO;
+        long afectados;
+        long retirados;
+        final List<Long> conCambio = new ArrayList<>();
+    }
+
+    // Recalcula cada fila con ActivoService; un retiro en r es calcular hasta r con los meses siguientes en cero
+    private static Esperado referencia(List<ProyeccionSnapshot> filas, int mes, EscenarioDTO escenario) {
+        Esperado esperado = new Esperado();
+        for (ProyeccionSnapshot fila : filas) {
+            ProyeccionActivo a = fila.activo();
+            ResumenActivoDTO base = ActivoService.calcular(a, mes);
+
+            ProyeccionActivo modificada = a;
+            Integer mesRetiro = null;
+            boolean aplica = false;
+            for (AjusteEscenarioDTO ajuste : escenario != null ? escenario.getAjustes() : List.<AjusteEscenarioDTO>of()) {
+                if (ajuste.getCeco() != null && !ajuste.getCeco().equals(a.ceco())) continue;
+                if (ajuste.getCuentaContable() != null && !ajuste.getCuentaContable().equals(fila.cuentaContable())) continue;
+                if (ajuste.getCodigo() != null && !a.codigo().startsWith(ajuste.getCodigo())) continue;
+                aplica = true;
+                BigDecimal vh = modificada.valorHistorico();
+                if (ajuste.getAjusteValor() != null) vh = (vh != null ? vh : BigDecimal.ZERO).add(ajuste.getAjusteValor());
+                modificada = new ProyeccionActivo(a.id(), a.codigo(), a.descripcion(), a.ceco(), vh,
+                        ajuste.getPorcentaje() != null ? ajuste.getPorcentaje() : modificada.porcentajeDepreciacion(),
+                        a.depreciacionAcumuladaInicio(), a.meses());
+                if (ajuste.getMesRetiro() != null) mesRetiro = ajuste.getMesRetiro();
+            }
+            if (!aplica) {
+                ActivoService.sumar(esperado.totales, base);
+                continue;
+            }
+            esperado.afectados++;
+
+            ResumenActivoDTO resultado;
+            if (mesRetiro != null) {
+                BigDecimal[] meses = modificada.meses().clone();
+                for (int m = mesRetiro; m < meses.length; m++) meses[m] = BigDecimal.ZERO;
+                resultado = ActivoService.calcular(new ProyeccionActivo(a.id(), a.codigo(), a.descripcion(), a.ceco(),
+                        modificada.valorHistorico(), modificada.porcentajeDepreciacion(),
+                        modificada.depreciacionAcumuladaInicio(), meses), Math.min(mes, mesRetiro));
+                esperado.retirados++;
+                esperado.netoRetirado = esperado.netoRetirado.add(resultado.getCostoNeto());
+                sumarMeses(esperado.totales, resultado);
+            } else {
+                resultado = ActivoService.calcular(modificada, mes);
+                ActivoService.sumar(esperado.totales, resultado);
+            }
+            if (mesRetiro != null
+                    || resultado.getTotalDepreciacion2025().compareTo(base.getTotalDepreciacion2025()) != 0
+                    || resultado.getCostoNeto().compareTo(base.getCostoNeto()) != 0) {
+                esperado.conCambio.add(a.id());
+            }
+        }
+        return esperado;
+    }
+
+    // Un retirado sólo suma su depreciación del año
+    private static void sumarMeses(TotalGrupoDTO t, ResumenActivoDTO dto) {
+        t.setEne(t.getEne().add(cero(dto.getEne()))); t.setFeb(t.getFeb().add(cero(dto.getFeb())));
+        t.setMar(t.getMar().add(cero(dto.getMar()))); t.setAbr(t.getAbr().add(cero(dto.getAbr())));
+        t.setMay(t.getMay().add(cero(dto.getMay()))); t.setJun(t.getJun().add(cero(dto.getJun())));
+        t.setJul(t.getJul().add(cero(dto.getJul()))); t.setAgo(t.getAgo().add(cero(dto.getAgo())));
+        t.setSet(t.getSet().add(cero(dto.getSet()))); t.setOct(t.getOct().add(cero(dto.getOct())));
+        t.setNov(t.getNov().add(cero(dto.getNov()))); t.setDic(t.getDic().add(cero(dto.getDic())));
+        t.setTotalDepreciacion2025(t.getTotalDepreciacion2025().add(dto.getTotalDepreciacion2025()));
+    }
+
+    private static BigDecimal cero(BigDecimal valor) {
+        return valor != null ? valor : BigDecimal.ZERO;
+    }
+
+    // Mismos montos (sin importar la escala) y mismos conteos
+    private static void assertTotales(TotalGrupoDTO esperado, TotalGrupoDTO obtenido, String caso) {
+        assertEquals(esperado.getCantidadActivos(), obtenido.getCantidadActivos(), caso);
+        assertEquals(esperado.getCompletados(), obtenido.getCompletados(), caso);
+        for (int c = 0; c < CAMPOS.size(); c++) {
+            BigDecimal e = CAMPOS.get(c).apply(esperado);
+            BigDecimal o = CAMPOS.get(c).apply(obtenido);
+            assertEquals(0, e.compareTo(o), caso + " campo " + c + ": " + e + " vs " + o);
+        }
+    }
+
+    // ==================== Generadores ====================
+
+    private static EscenarioDTO escenario(String nombre, AjusteEscenarioDTO... ajustes) {
+        EscenarioDTO escenario = new EscenarioDTO();
+        escenario.setNombre(nombre);
+        escenario.setAjustes(List.of(ajustes));
+        return escenario;
+    }
+
+    private static AjusteEscenarioDTO ajuste(String ceco, String cuenta, String codigo, String porcentaje,
+                                             Integer mesRetiro, BigDecimal ajusteValor) {
+        AjusteEscenarioDTO ajuste = new AjusteEscenarioDTO();
+        ajuste.setCeco(ceco);
+        ajuste.setCuentaContable(cuenta);
+        ajuste.setCodigo(codigo);
+        ajuste.setPorcentaje(porcentaje != null ? new BigDecimal(porcentaje) : null);
+        ajuste.setMesRetiro(mesRetiro);
+        ajuste.setAjusteValor(ajusteValor);
+        return ajuste;
+    }
+
+    private static SnapshotActivos construir(List<ProyeccionSnapshot> filas) {
+        SnapshotActivos.Constructor constructor = SnapshotActivos.constructor(1L);
+        filas.forEach(constructor::agregar);
+        return constructor.construir();
+    }
+
+    private static List<ProyeccionSnapshot> filasAleatorias(Random random, int n) {
+        List<ProyeccionSnapshot> filas = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            long id = i + 1;
+            BigDecimal vh;
+            BigDecimal inicio;
+            BigDecimal porcentaje;
+            if (random.nextInt(12) == 0) {
+                // Filas de respaldo (fuera del camino exacto)
+                vh = random.nextBoolean() ? null : BigDecimal.valueOf(random.nextInt(1_000_000), 3);
+                inicio = random.nextBoolean() ? null : BigDecimal.valueOf(random.nextInt(1_000));
+                porcentaje = random.nextBoolean() ? null : new BigDecimal("10");
+            } else {
+                long vhCent = (long) (random.nextDouble() * 20_000_000L);
+                vh = BigDecimal.valueOf(vhCent, 2);
+                inicio = BigDecimal.valueOf(random.nextInt(4) == 0 ? vhCent : (long) (random.nextDouble() * vhCent), 2);
+                porcentaje = new BigDecimal(PORCENTAJES[random.nextInt(PORCENTAJES.length)]);
+            }
+            BigDecimal[] meses = new BigDecimal[MotorDepreciacion.MESES];
+            for (int m = 0; m < meses.length; m++) {
+                meses[m] = random.nextInt(4) == 0 ? null : BigDecimal.valueOf(random.nextInt(100_000), 2);
+            }
+            ProyeccionActivo activo = new ProyeccionActivo(id, "AF-" + random.nextInt(30), "Activo " + id,
+                    CECOS[random.nextInt(CECOS.length)], vh, porcentaje, inicio, meses);
+            filas.add(new ProyeccionSnapshot(activo, CUENTAS[random.nextInt(CUENTAS.length)], "6811", null));
+        }
+        return filas;
+    }
+}
@@ -0,0 +1,190 @@
+package com.superinka.gestionactivos.service;
+
+import com.superinka.gestionactivos.dto.Agrupacion;
+import com.superinka.gestionactivos.dto.FiltroActivos;
+import com.superinka.gestionactivos.dto.ProyeccionActivo;
+import com.superinka.gestionactivos.dto.ProyeccionSnapshot;
+import com.superinka.gestionactivos.dto.ResumenActivoDTO;
+import com.superinka.gestionactivos.dto.TotalGrupoDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotActivosTests {
+
+    private static final Integer[] MESES = {null, 0, 1, 3, 6, 11, 12, 13};
+    private static final String[] CECOS = {"ADM", "OPE", "VTA", " OPE", null};
+    private static final String[] CUENTAS = {"3311", "3321", "3341", null};
+    private static final String[] CLUSTERS = {"NORTE", "SUR", null};
+    private static final String[] PORCENTAJES = {"10.00", "0.10", "20.00", "0.25", "33.33", "1.00", "1.01", "0.00", "-10.00", "12.50"};
+
+    @Test
+    void resumenIgualQueActivoService() {
+        List<ProyeccionSnapshot> filas = filasAleatorias(new Random(11L), 5_000);
+        SnapshotActivos snapshot = construir(filas);
+        assertTrue(snapshot.filasRespaldo() > 0 && snapshot.filasRespaldo() < filas.size());
+
+        for (Integer mes : MESES) {
+            for (int i = 0; i < filas.size(); i++) {
+                // equals de ResumenActivoDTO compara los BigDecimal con su escala
+                assertEquals(esperado(filas.get(i).activo(), mes), snapshot.resumen(i, mes), "fila " + i + " mes " + mes);
+            }
+        }
+    }
+
+    @Test
+    void filtrosIgualQueRecorridoSecuencial() {
+        Random random = new Random(12L);
+        List<ProyeccionSnapshot> filas = filasAleatorias(random, 3_000);
+        SnapshotActivos snapshot = construir(filas);
+
+        for (int vuelta = 0; vuelta < 200; vuelta++) {
+            FiltroActivos filtro = filtroAleatorio(random);
+            Integer mes = MESES[random.nextInt(MESES.length)];
+            long despuesDe = random.nextBoolean() ? 0 : random.nextInt(filas.size() * 2);
+            int limite = random.nextBoolean() ? Integer.MAX_VALUE : 1 + random.nextInt(50);
+
+            List<Long> esperados = new ArrayList<>();
+            for (ProyeccionSnapshot fila : filas) {
+                if (fila.activo().id() > despuesDe && esperados.size() < limite && cumple(fila, filtro, mes)) {
+                    esperados.add(fila.activo().id());
+                }
+            }
+            List<Long> obtenidos = new ArrayList<>();
+            for (int i : snapshot.seleccionar(filtro, mes, despuesDe, limite)) {
+                obtenidos.add(snapshot.id(i));
+            }
+            assertEquals(esperados, obtenidos, "filtro " + filtro + " mes " + mes);
+        }
+    }
+
+    @Test
+    void totalesIgualQueSumaDeResumenes() {
+        Random random = new Random(13L);
+        List<ProyeccionSnapshot> filas = filasAleatorias(random, 4_000);
+        SnapshotActivos snapshot = construir(filas);
+
+        for (Agrupacion agrupacion : Agrupacion.values()) {
+            for (Integer mes : MESES) {
+                FiltroActivos filtro = random.nextBoolean() ? new FiltroActivos() : filtroAleatorio(random);
+                assertEquals(totalesEsperados(filas, mes, agrupacion, filtro), snapshot.totalizar(mes, agrupacion, filtro),
+                        agrupacion + " mes " + mes + " " + filtro);
+            }
+        }
+    }
+
+    @Test
+    void snapshotVacio() {
+        SnapshotActivos snapshot = construir(List.of());
+        assertArrayEquals(new int[0], snapshot.seleccionar(new FiltroActivos(), 3));
+        assertEquals(List.of(), snapshot.totalizar(null, Agrupacion.CECO, new FiltroActivos()));
+    }
+
+    // ==================== Referencia ====================
+
+    private static ResumenActivoDTO esperado(ProyeccionActivo a, Integer mes) {
+        return mes != null ? ActivoService.calcular(a, mes) : ActivoService.resumir(a);
+    }
+
+    private static boolean cumple(ProyeccionSnapshot fila, FiltroActivos filtro, Integer mes) {
+        ProyeccionActivo a = fila.activo();
+        if (!igual(filtro.getCeco(), a.ceco())) return false;
+        if (!igual(filtro.getCuentaContable(), fila.cuentaContable())) return false;
+        if (!igual(filtro.getCluster(), fila.cluster())) return false;
+        if (FiltroActivos.tieneTexto(filtro.getCodigo()) && !a.codigo().startsWith(filtro.getCodigo().trim())) return false;
+        return ActivoService.cumpleEstado(filtro, esperado(a, mes));
+    }
+
+    private static boolean igual(String filtro, String valor) {
+        return !FiltroActivos.tieneTexto(filtro) || filtro.trim().equals(valor);
+    }
+
+    private static List<TotalGrupoDTO> totalesEsperados(List<ProyeccionSnapshot> filas, Integer mes,
+                                                        Agrupacion agrupacion, FiltroActivos filtro) {
+        Function<ProyeccionSnapshot, String> grupo = switch (agrupacion) {
+            case CECO -> f -> f.activo().ceco();
+            case CUENTA_CONTABLE -> ProyeccionSnapshot::cuentaContable;
+            case CTA_GASTO_DEPRE -> ProyeccionSnapshot::ctaGastoDepre;
+            case CLUSTER -> ProyeccionSnapshot::cluster;
+        };
+        Map<String, TotalGrupoDTO> grupos = new HashMap<>();
+        for (ProyeccionSnapshot fila : filas) {
+            if (cumple(fila, filtro, mes)) {
+                ActivoService.sumar(grupos.computeIfAbsent(grupo.apply(fila), ActivoService::nuevoGrupo), esperado(fila.activo(), mes));
+            }
+        }
+        List<TotalGrupoDTO> totales = new ArrayList<>(grupos.values());
+        totales.sort(Comparator.comparing(TotalGrupoDTO::getGrupo, Comparator.nullsLast(Comparator.naturalOrder())));
+        return totales;
+    }
+
+    // ==================== Generadores ====================
+
+    private static SnapshotActivos construir(List<ProyeccionSnapshot> filas) {
+        SnapshotActivos.Constructor constructor = SnapshotActivos.constructor(1L);
+        filas.forEach(constructor::agregar);
+        return constructor.construir();
+    }
+
+    private static FiltroActivos filtroAleatorio(Random random) {
+        FiltroActivos filtro = new FiltroActivos();
+        if (random.nextInt(3) == 0) filtro.setCeco(random.nextBoolean() ? "OPE" : "NO-EXISTE");
+        if (random.nextInt(3) == 0) filtro.setCuentaContable(CUENTAS[random.nextInt(CUENTAS.length - 1)]);
+        if (random.nextInt(3) == 0) filtro.setCluster(" SUR ");
+        if (random.nextInt(3) == 0) filtro.setCodigo("AF-" + random.nextInt(10));
+        if (random.nextInt(2) == 0) filtro.setEstado(random.nextBoolean() ? "activo" : FiltroActivos.COMPLETADO);
+        return filtro;
+    }
+
+    private static List<ProyeccionSnapshot> filasAleatorias(Random random, int n) {
+        List<ProyeccionSnapshot> filas = new ArrayList<>(n);
+        long id = 0;
+        for (int i = 0; i < n; i++) {
+            id += 1 + random.nextInt(3); // ids crecientes con huecos
+            filas.add(new ProyeccionSnapshot(activoAleatorio(random, id),
+                    CUENTAS[random.nextInt(CUENTAS.length)], random.nextBoolean() ? "6811" : "6814",
+                    CLUSTERS[random.nextInt(CLUSTERS.length)]));
+        }
+        return filas;
+    }
+
+    private static ProyeccionActivo activoAleatorio(Random random, long id) {
+        BigDecimal vh;
+        BigDecimal inicio;
+        BigDecimal porcentaje;
+        if (random.nextInt(15) == 0) {
+            // Fuera del camino exacto: nulos, escalas distintas de 2, % sin decimales
+            vh = random.nextBoolean() ? null : BigDecimal.valueOf(random.nextInt(1_000_000), 3);
+            inicio = random.nextBoolean() ? null : BigDecimal.valueOf(random.nextInt(10_000));
+            porcentaje = random.nextBoolean() ? null : new BigDecimal(random.nextBoolean() ? "10" : "0.1");
+        } else {
+            long vhCent = (long) (random.nextDouble() * 50_000_000L);
+            long inicioCent = switch (random.nextInt(4)) {
+                case 0 -> vhCent;
+                case 1 -> vhCent - random.nextInt(50_000);
+                default -> (long) (random.nextDouble() * vhCent);
+            };
+            vh = BigDecimal.valueOf(vhCent, 2);
+            inicio = BigDecimal.valueOf(inicioCent, 2);
+            porcentaje = new BigDecimal(PORCENTAJES[random.nextInt(PORCENTAJES.length)]);
+        }
+        BigDecimal[] meses = new BigDecimal[MotorDepreciacion.MESES];
+        for (int m = 0; m < meses.length; m++) {
+            meses[m] = random.nextInt(4) == 0 ? null : BigDecimal.valueOf(random.nextInt(100_000), 2);
+        }
+        if (random.nextInt(40) == 0) meses[random.nextInt(meses.length)] = new BigDecimal("1.5");
+        return new ProyeccionActivo(id, "AF-" + random.nextInt(100), "Activo " + id, CECOS[random.nextInt(CECOS.length)],
+                vh, porcentaje, inicio, meses);
+    }
+}
@@ -0,0 +1,111 @@
+package com.superinka.gestionactivos.service;
+
+import com.superinka.gestionactivos.dto.ProyeccionActivo;
+import com.superinka.gestionactivos.dto.ResumenActivoDTO;
+import com.superinka.gestionactivos.dto.TablaColumnarDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TablaColumnarTests {
+
+    @Test
+    void mismosValoresQueElListado() {
+        List<ResumenActivoDTO> filas = new ArrayList<>();
+        filas.add(ActivoService.calcular(activo(1L, "ADM", "12000.00", "10", "1000.00"), 3));
+        filas.add(ActivoService.calcular(activo(2L, "OPS", "1200.00", "0.25", "1200.00"), 3));
+        filas.add(ActivoService.calcular(activo(3L, "ADM", null, null, null), 3));
+        TablaColumnarDTO tabla = TablaColumnar.armar(filas, 3, TablaColumnar.meses(null));
+
+        assertEquals(3, tabla.getFilas());
+        assertEquals(3, tabla.getMes());
+        assertArrayEquals(new String[]{"AF-1", "AF-2", "AF-3"}, (String[]) tabla.getColumnas().get("codigo"));
+        assertEquals(List.of("ADM", "OPS"), tabla.getDiccionarios().get("ceco"));
+        assertArrayEquals(new int[]{0, 1, 0}, (int[]) tabla.getColumnas().get("ceco"));
+        assertEquals(List.of("ACTIVO", "COMPLETADO"), tabla.getDiccionarios().get("estado"));
+
+        // Cada columna numérica, vuelta a BigDecimal con su escala, da los mismos valores que el DTO
+        String[] numericas = {"valorHistorico", "porcentajeDepreciacion", "depAcumuladaInicio", "ene", "feb", "mar",
+                "abr", "may", "jun", "jul", "ago", "set", "oct", "nov", "dic",
+                "totalDepreciacion2025", "totalDepreciacionAcumulada", "costoNeto"};
+        for (String columna : numericas) {
+            long[] enteros = (long[]) tabla.getColumnas().get(columna);
+            int escala = tabla.getEscalas().get(columna);
+            List<Integer> nulos = new ArrayList<>();
+            for (int i : tabla.getNulos().getOrDefault(columna, new int[0])) nulos.add(i);
+            for (int i = 0; i < filas.size(); i++) {
+                BigDecimal esperado = valor(filas.get(i), columna);
+                if (esperado == null) {
+                    assertTrue(nulos.contains(i), columna + " fila " + i);
+                } else {
+                    assertEquals(0, esperado.compareTo(BigDecimal.valueOf(enteros[i], escala)), columna + " fila " + i);
+                }
+            }
+        }
+        assertEquals(2, tabla.getEscalas().get("valorHistorico"));
+        assertEquals(4, tabla.getEscalas().get("porcentajeDepreciacion"));
+        assertArrayEquals(new long[]{1_200_000, 120_000, 0}, (long[]) tabla.getColumnas().get("valorHistorico"));
+        assertArrayEquals(new int[]{2}, tabla.getNulos().get("valorHistorico"));
+    }
+
+    @Test
+    void soloLosMesesPedidos() {
+        assertArrayEquals(new boolean[]{true, true, true, false, false, false, false, false, false, false, false, true},
+                TablaColumnar.meses("1-3, dic"));
+        assertArrayEquals(new boolean[]{false, true, true, true, false, false, false, false, false, false, false, false},
+                TablaColumnar.meses("feb-abr"));
+        assertThrows(IllegalArgumentException.class, () -> TablaColumnar.meses("13"));
+        assertThrows(IllegalArgumentException.class, () -> TablaColumnar.meses("mar-ene"));
+        assertThrows(IllegalArgumentException.class, () -> TablaColumnar.meses("enero"));
+
+        List<ResumenActivoDTO> filas = List.of(ActivoService.calcular(activo(1L, "ADM", "12000.00", "10", "0"), 12));
+        TablaColumnarDTO tabla = TablaColumnar.armar(filas, 12, TablaColumnar.meses("ene,dic"));
+        assertTrue(tabla.getColumnas().containsKey("ene"));
+        assertTrue(tabla.getColumnas().containsKey("dic"));
+        assertFalse(tabla.getColumnas().containsKey("feb"));
+        assertTrue(tabla.getColumnas().containsKey("costoNeto"));
+    }
+
+    @Test
+    void montoQueNoEntraEnUnLongQuedaComoDecimal() {
+        ResumenActivoDTO dto = ActivoService.resumir(activo(1L, "ADM", "123456789012345678901234.50", "10", "0"));
+        TablaColumnarDTO tabla = TablaColumnar.armar(List.of(dto), null, TablaColumnar.meses(null));
+
+        assertArrayEquals(new BigDecimal[]{new BigDecimal("123456789012345678901234.50")},
+                (BigDecimal[]) tabla.getColumnas().get("valorHistorico"));
+        assertFalse(tabla.getEscalas().containsKey("valorHistorico"));
+        assertEquals(2, tabla.getEscalas().get("depAcumuladaInicio"));
+    }
+
+    private static BigDecimal valor(ResumenActivoDTO dto, String columna) {
+        return switch (columna) {
+            case "valorHistorico" -> dto.getValorHistorico();
+            case "porcentajeDepreciacion" -> dto.getPorcentajeDepreciacion();
+            case "depAcumuladaInicio" -> dto.getDepAcumuladaInicio();
+            case "totalDepreciacion2025" -> dto.getTotalDepreciacion2025();
+            case "totalDepreciacionAcumulada" -> dto.getTotalDepreciacionAcumulada();
+            case "costoNeto" -> dto.getCostoNeto();
+            default -> {
+                int m = List.of(TablaColumnar.MESES).indexOf(columna);
+                yield new BigDecimal[]{dto.getEne(), dto.getFeb(), dto.getMar(), dto.getAbr(), dto.getMay(), dto.getJun(),
+                        dto.getJul(), dto.getAgo(), dto.getSet(), dto.getOct(), dto.getNov(), dto.getDic()}[m];
+            }
+        };
+    }
+
+    private static ProyeccionActivo activo(long id, String ceco, String historico, String porcentaje, String inicio) {
+        return new ProyeccionActivo(id, "AF-" + id, "Activo " + id, ceco,
+                historico != null ? new BigDecimal(historico) : null,
+                porcentaje != null ? new BigDecimal(porcentaje) : null,
+                inicio != null ? new BigDecimal(inicio) : null,
+                new BigDecimal[MotorDepreciacion.MESES]);
+    }
+}